@@ -0,0 +1,93 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.fileservice.dto.ResourceDTO;
+import com.example.platform.fileservice.model.Resource;
+import com.example.platform.fileservice.model.ResourceType;
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.model.Booking;
+import com.example.platform.servicetwo.model.BookingStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Типичные сущности для benchmarks: значения полей близки к реальным данным.
+ */
+public final class BenchmarkFixtures {
+
+    public static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Booking booking(long id, long resourceId, LocalDateTime start, LocalDateTime end,
+                                  BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setResourceId(resourceId);
+        booking.setUserId("3f1c9a52-7d4e-4b8a-9e2f-" + String.format("%012d", id));
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setTotalPrice(new BigDecimal("1250.00"));
+        booking.setStatus(status);
+        booking.setNotes("Проектор и флипчарт");
+        booking.setCreatedAt(start.minusDays(2));
+        booking.setUpdatedAt(start.minusDays(1));
+        return booking;
+    }
+
+    public static Booking booking() {
+        return booking(42L, 7L, BASE_TIME, BASE_TIME.plusHours(2), BookingStatus.CONFIRMED);
+    }
+
+    public static BookingDTO bookingDTO() {
+        Booking booking = booking();
+        return new BookingDTO(booking.getId(), booking.getResourceId(), booking.getUserId(),
+                booking.getStartTime(), booking.getEndTime(), booking.getTotalPrice(), booking.getStatus(),
+                booking.getNotes(), booking.getHoldExpiresAt(), booking.getCreatedAt(), booking.getUpdatedAt());
+    }
+
+    public static Resource resource() {
+        Resource resource = new Resource();
+        resource.setId(7L);
+        resource.setName("Переговорная 3.14");
+        resource.setDescription("10 мест, экран 75\", видеосвязь");
+        resource.setType(ResourceType.MEETING_ROOM);
+        resource.setPricePerHour(new BigDecimal("625.00"));
+        resource.setCapacity(10);
+        resource.setAvailable(Boolean.TRUE);
+        resource.setCreatedAt(BASE_TIME.minusMonths(6));
+        resource.setUpdatedAt(BASE_TIME.minusDays(3));
+        return resource;
+    }
+
+    public static ResourceDTO resourceDTO() {
+        Resource resource = resource();
+        return new ResourceDTO(resource.getId(), resource.getName(), resource.getDescription(), resource.getType(),
+                resource.getPricePerHour(), resource.getCapacity(), resource.getAvailable(),
+                resource.getCreatedAt(), resource.getUpdatedAt());
+    }
+
+    /**
+     * Репозиторий без базы: метод отвечает значением из answers по имени, вне зависимости от аргументов.
+     * Через него сервисы и контроллеры меряются публичными методами, как их вызывает Spring.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> R repository(Class<R> type, Map<String, Object> answers) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (answers.containsKey(method.getName())) {
+                return answers.get(method.getName());
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " fixture";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.platform.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Точка входа benchmarks.jar: принимает обычные опции JMH, но по умолчанию пишет результаты в JSON
+ * (results/jmh-&lt;время&gt;.json в текущем каталоге), чтобы прогоны можно было сравнивать между собой
+ * (например, в https://jmh.morethan.net). Явные -rf / -rff имеют приоритет.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            Path result = Path.of("results", "jmh-" + timestamp + ".json");
+            Files.createDirectories(result.getParent());
+            options.result(result.toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.repository.BookingRepository;
+import com.example.platform.servicetwo.service.BookingService;
+import com.example.platform.servicetwo.web.BookingController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /bookings/{id} на уровне BookingController.getBooking: владелец проходит по subject, чужая бронь —
+ * через разбор realm_access.roles (admin получает 200, остальные 403). Токены — типичные для Keycloak.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingControllerBenchmark {
+
+    private BookingController controller;
+    private Jwt ownerJwt;
+    private Jwt adminJwt;
+    private Jwt otherUserJwt;
+
+    @Setup
+    public void setUp() {
+        BookingRepository repository = BenchmarkFixtures.repository(BookingRepository.class,
+                Map.of("findById", Optional.of(BenchmarkFixtures.booking())));
+        // IdempotencyStore нужен только POST /bookings
+        controller = new BookingController(new BookingService(repository, null, null, null, null, null, null, null), null);
+        String owner = BenchmarkFixtures.booking().getUserId();
+        ownerJwt = jwt(owner, Map.of("roles", List.of("offline_access", "uma_authorization", "default-roles-app", "user")));
+        adminJwt = jwt("9b2d6e11-0c3a-4f5e-8d7b-000000000001",
+                Map.of("roles", List.of("offline_access", "uma_authorization", "default-roles-app", "admin")));
+        otherUserJwt = jwt("9b2d6e11-0c3a-4f5e-8d7b-000000000002", null);
+    }
+
+    @Benchmark
+    public ResponseEntity<BookingDTO> getBookingAsOwner() {
+        return controller.getBooking(42L, ownerJwt);
+    }
+
+    @Benchmark
+    public ResponseEntity<BookingDTO> getBookingAsAdmin() {
+        return controller.getBooking(42L, adminJwt);
+    }
+
+    @Benchmark
+    public ResponseEntity<BookingDTO> getBookingForbidden() {
+        return controller.getBooking(42L, otherUserJwt);
+    }
+
+    private static Jwt jwt(String subject, Map<String, Object> realmAccess) {
+        Instant now = Instant.now();
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(subject)
+                .issuer("http://keycloak:8080/realms/app")
+                .claim("preferred_username", "alice")
+                .claim("scope", "openid profile email")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300));
+        if (realmAccess != null) {
+            builder.claim("realm_access", realmAccess);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.events.BookingEvent;
+import com.example.platform.events.BookingEventMessageConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тело уведомления о брони на пути RabbitTemplate -> listener, через MessageConverter целиком:
+ * <ul>
+ *   <li>{@code java} — прежний формат, Java-сериализованная Map строк (SimpleMessageConverter);</li>
+ *   <li>{@code json} — та же Map через Jackson2JsonMessageConverter;</li>
+ *   <li>{@code binary} — BookingEvent через BookingEventMessageConverter (platform-events).</li>
+ * </ul>
+ * Размер тела печатается при setup: {@code bytes per message [format]: N}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingEventCodecBenchmark {
+
+    @Param({"java", "json", "binary"})
+    public String format;
+
+    private MessageConverter converter;
+    private Object payload;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        BookingEvent event = new BookingEvent(42L, BenchmarkFixtures.booking().getUserId(), 7L,
+                BookingEvent.Status.CONFIRMED, BookingEvent.Status.PENDING,
+                BenchmarkFixtures.BASE_TIME, BenchmarkFixtures.BASE_TIME.plusHours(2),
+                BenchmarkFixtures.booking().getTotalPrice());
+        switch (format) {
+            case "java" -> {
+                SimpleMessageConverter simple = new SimpleMessageConverter();
+                simple.setAllowedListPatterns(List.of("java.util.*", "java.lang.*"));
+                converter = simple;
+                payload = legacyMap(event);
+            }
+            case "json" -> {
+                converter = new Jackson2JsonMessageConverter();
+                payload = legacyMap(event);
+            }
+            case "binary" -> {
+                converter = new BookingEventMessageConverter(new SimpleMessageConverter());
+                payload = event;
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+        message = converter.toMessage(payload, new MessageProperties());
+        System.out.printf("%nbytes per message [%s]: %d%n", format, message.getBody().length);
+    }
+
+    /** Map в том виде, в каком её собирал sendBookingNotification до перехода на BookingEvent */
+    private static Map<String, Object> legacyMap(BookingEvent event) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("bookingId", event.bookingId());
+        map.put("userId", event.userId());
+        map.put("resourceId", event.resourceId());
+        map.put("startTime", event.startTime().toString());
+        map.put("endTime", event.endTime().toString());
+        map.put("status", event.status().name());
+        map.put("previousStatus", event.previousStatus().name());
+        map.put("totalPrice", event.totalPrice().toString());
+        return map;
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(payload, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(message);
+    }
+}
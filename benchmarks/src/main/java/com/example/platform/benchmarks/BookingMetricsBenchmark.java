@@ -0,0 +1,102 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.servicetwo.service.BookingMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы BookingMetrics на этап createBooking: "none" — этап без таймера,
+ * "noop" — реестр без регистраций, "prometheus" — как в сервисе, с гистограммой из application.yml.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingMetricsBenchmark {
+
+    @Param({"none", "noop", "prometheus"})
+    public String registry;
+
+    private BookingMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        if (!"none".equals(registry)) {
+            metrics = new BookingMetrics(createRegistry(registry));
+        }
+    }
+
+    private static MeterRegistry createRegistry(String type) {
+        if ("noop".equals(type)) {
+            // Композитный реестр без дочерних — все метры no-op
+            return new CompositeMeterRegistry();
+        }
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // То же, что management.metrics.distribution.* для booking.create.stage
+        prometheus.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals("booking.create.stage")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        });
+        return prometheus;
+    }
+
+    @Benchmark
+    public Object stage(Blackhole blackhole) {
+        if (metrics == null) {
+            return step(blackhole);
+        }
+        return metrics.time(BookingMetrics.Stage.PERSIST, () -> step(blackhole));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object stageContended(Blackhole blackhole) {
+        return stage(blackhole);
+    }
+
+    @Benchmark
+    public void counter() {
+        if (metrics != null) {
+            metrics.conflictRejected();
+        }
+    }
+
+    private static Object step(Blackhole blackhole) {
+        // Небольшая работа вместо реального этапа, чтобы таймер мерил не пустую лямбду
+        Blackhole.consumeCPU(64);
+        return blackhole;
+    }
+}
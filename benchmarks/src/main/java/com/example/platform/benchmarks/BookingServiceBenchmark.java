@@ -0,0 +1,69 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.model.Booking;
+import com.example.platform.servicetwo.model.BookingStatus;
+import com.example.platform.servicetwo.repository.BookingRepository;
+import com.example.platform.servicetwo.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение броней через публичные методы BookingService поверх репозитория-заглушки: без базы и кеша
+ * остаётся работа самого сервиса — отображение Booking -> BookingDTO и сборка списка.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    // Примерно столько броней у активного пользователя в GET /bookings
+    private static final int USER_BOOKINGS = 20;
+
+    private BookingService bookingService;
+    private String userId;
+
+    @Setup
+    public void setUp() {
+        Booking booking = BenchmarkFixtures.booking();
+        List<Booking> userBookings = new ArrayList<>(USER_BOOKINGS);
+        for (int i = 0; i < USER_BOOKINGS; i++) {
+            userBookings.add(BenchmarkFixtures.booking(booking.getId(), booking.getResourceId(),
+                    BenchmarkFixtures.BASE_TIME.plusDays(i), BenchmarkFixtures.BASE_TIME.plusDays(i).plusHours(2),
+                    i % 5 == 0 ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED));
+        }
+        BookingRepository repository = BenchmarkFixtures.repository(BookingRepository.class, Map.of(
+                "findById", Optional.of(booking),
+                "findByUserId", userBookings));
+        // Остальные зависимости чтением не используются
+        bookingService = new BookingService(repository, null, null, null, null, null, null, null);
+        userId = booking.getUserId();
+    }
+
+    @Benchmark
+    public Optional<BookingDTO> getBookingById() {
+        return bookingService.getBookingById(42L);
+    }
+
+    @Benchmark
+    public List<BookingDTO> getUserBookings() {
+        return bookingService.getUserBookings(userId);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.servicetwo.model.Booking;
+import com.example.platform.servicetwo.model.BookingStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стратегии поиска пересечения интервала с активными бронями одного ресурса — то же условие, что
+ * в BookingRepository.findConflictingBookings (status IN (PENDING, CONFIRMED), start &lt; end, end &gt; start):
+ * <ul>
+ *     <li>linearScan — перебор всех броней ресурса;</li>
+ *     <li>boundedScan — брони отсортированы по началу, бинарный поиск нижней границы earliestStart
+ *     (начало минус максимальная длительность), как при отсечении партиций в запросе;</li>
+ *     <li>treeMapScan — TreeMap по началу брони и subMap(earliestStart, end).</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConflictDetectionBenchmark {
+
+    private static final Duration MAX_BOOKING_DURATION = Duration.ofDays(30);
+    private static final int QUERIES = 1024;
+
+    @Param({"100", "1000", "10000"})
+    public int bookingsPerResource;
+
+    private List<Booking> bookings;
+    private Booking[] sortedByStart;
+    private LocalDateTime[] starts;
+    private NavigableMap<LocalDateTime, List<Booking>> byStart;
+    private LocalDateTime[] queryStarts;
+    private LocalDateTime[] queryEnds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bookings = new ArrayList<>(bookingsPerResource);
+        LocalDateTime cursor = BenchmarkFixtures.BASE_TIME;
+        for (int i = 0; i < bookingsPerResource; i++) {
+            // Брони по 1-4 часа с промежутками; четверть отменена
+            LocalDateTime start = cursor.plusMinutes(30L * random.nextInt(8));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(4));
+            BookingStatus status = random.nextInt(4) == 0 ? BookingStatus.CANCELLED
+                    : random.nextBoolean() ? BookingStatus.CONFIRMED : BookingStatus.PENDING;
+            bookings.add(BenchmarkFixtures.booking(i, 7L, start, end, status));
+            cursor = end;
+        }
+
+        sortedByStart = bookings.stream()
+                .sorted(Comparator.comparing(Booking::getStartTime))
+                .toArray(Booking[]::new);
+        starts = new LocalDateTime[sortedByStart.length];
+        for (int i = 0; i < sortedByStart.length; i++) {
+            starts[i] = sortedByStart[i].getStartTime();
+        }
+        byStart = new TreeMap<>();
+        for (Booking booking : bookings) {
+            byStart.computeIfAbsent(booking.getStartTime(), k -> new ArrayList<>(1)).add(booking);
+        }
+
+        queryStarts = new LocalDateTime[QUERIES];
+        queryEnds = new LocalDateTime[QUERIES];
+        long horizonMinutes = Duration.between(BenchmarkFixtures.BASE_TIME, cursor).toMinutes();
+        for (int i = 0; i < QUERIES; i++) {
+            queryStarts[i] = BenchmarkFixtures.BASE_TIME.plusMinutes(random.nextLong(Math.max(1, horizonMinutes)));
+            queryEnds[i] = queryStarts[i].plusHours(1 + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        int q = nextQuery();
+        LocalDateTime start = queryStarts[q];
+        LocalDateTime end = queryEnds[q];
+        for (Booking booking : bookings) {
+            if (conflicts(booking, start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean boundedScan() {
+        int q = nextQuery();
+        LocalDateTime start = queryStarts[q];
+        LocalDateTime end = queryEnds[q];
+        for (int i = lowerBound(start.minus(MAX_BOOKING_DURATION)); i < sortedByStart.length; i++) {
+            Booking booking = sortedByStart[i];
+            if (!booking.getStartTime().isBefore(end)) {
+                return false;
+            }
+            if (conflicts(booking, start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean treeMapScan() {
+        int q = nextQuery();
+        LocalDateTime start = queryStarts[q];
+        LocalDateTime end = queryEnds[q];
+        for (List<Booking> sameStart : byStart.subMap(start.minus(MAX_BOOKING_DURATION), true, end, false).values()) {
+            for (Booking booking : sameStart) {
+                if (conflicts(booking, start, end)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    private int lowerBound(LocalDateTime from) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid].isBefore(from)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean conflicts(Booking booking, LocalDateTime start, LocalDateTime end) {
+        BookingStatus status = booking.getStatus();
+        return (status == BookingStatus.PENDING || status == BookingStatus.CONFIRMED)
+                && booking.getStartTime().isBefore(end)
+                && booking.getEndTime().isAfter(start);
+    }
+}
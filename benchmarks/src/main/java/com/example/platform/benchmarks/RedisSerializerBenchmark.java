@@ -0,0 +1,91 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.bookingread.config.ReadRedisConfig;
+import com.example.platform.fileservice.dto.ResourceDTO;
+import com.example.platform.servicetwo.config.RedisConfig;
+import com.example.platform.servicetwo.dto.BookingDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализаторы кешей Redis в том виде, в каком их собирают конфигурации сервисов:
+ * GenericJackson2JsonRedisSerializer кеша "bookings" (booking-service) и "resources" (file-service)
+ * и типизированный сериализатор BookingDTO реактивного booking-read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializerBenchmark {
+
+    private GenericJackson2JsonRedisSerializer bookingCacheSerializer;
+    private GenericJackson2JsonRedisSerializer resourceCacheSerializer;
+    private SerializationPair<BookingDTO> bookingReadSerializer;
+
+    private BookingDTO booking;
+    private ResourceDTO resource;
+    private byte[] bookingJson;
+    private byte[] resourceJson;
+
+    @Setup
+    public void setUp() {
+        bookingCacheSerializer = new RedisConfig().jackson2JsonRedisSerializer();
+        resourceCacheSerializer = new com.example.platform.fileservice.config.RedisConfig().jackson2JsonRedisSerializer();
+        // Соединение не открывается: из шаблона берётся только контекст сериализации
+        bookingReadSerializer = new ReadRedisConfig()
+                .bookingRedisTemplate(new LettuceConnectionFactory())
+                .getSerializationContext()
+                .getValueSerializationPair();
+
+        booking = BenchmarkFixtures.bookingDTO();
+        resource = BenchmarkFixtures.resourceDTO();
+        bookingJson = bookingCacheSerializer.serialize(booking);
+        resourceJson = resourceCacheSerializer.serialize(resource);
+    }
+
+    @Benchmark
+    public byte[] bookingCacheEncode() {
+        return bookingCacheSerializer.serialize(booking);
+    }
+
+    @Benchmark
+    public Object bookingCacheDecode() {
+        return bookingCacheSerializer.deserialize(bookingJson);
+    }
+
+    @Benchmark
+    public byte[] resourceCacheEncode() {
+        return resourceCacheSerializer.serialize(resource);
+    }
+
+    @Benchmark
+    public Object resourceCacheDecode() {
+        return resourceCacheSerializer.deserialize(resourceJson);
+    }
+
+    @Benchmark
+    public ByteBuffer bookingReadEncode() {
+        return bookingReadSerializer.write(booking);
+    }
+
+    @Benchmark
+    public BookingDTO bookingReadDecode() {
+        return bookingReadSerializer.read(ByteBuffer.wrap(bookingJson));
+    }
+}
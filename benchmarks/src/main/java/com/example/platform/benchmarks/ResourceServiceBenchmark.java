@@ -0,0 +1,60 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.fileservice.dto.ResourceDTO;
+import com.example.platform.fileservice.model.Resource;
+import com.example.platform.fileservice.repository.ResourceRepository;
+import com.example.platform.fileservice.service.ResourceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /resources/{id} и GET /resources на уровне ResourceService: отображение Resource -> ResourceDTO
+ * для одного ресурса и для каталога.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 50;
+
+    private ResourceService resourceService;
+
+    @Setup
+    public void setUp() {
+        Resource resource = BenchmarkFixtures.resource();
+        List<Resource> catalog = Collections.nCopies(CATALOG_SIZE, resource);
+        ResourceRepository repository = BenchmarkFixtures.repository(ResourceRepository.class, Map.of(
+                "findById", Optional.of(resource),
+                "findAll", catalog));
+        // Публикатор изменений нужен только записи
+        resourceService = new ResourceService(repository, null);
+    }
+
+    @Benchmark
+    public Optional<ResourceDTO> getResourceById() {
+        return resourceService.getResourceById(7L);
+    }
+
+    @Benchmark
+    public List<ResourceDTO> getAllResources() {
+        return resourceService.getAllResources();
+    }
+}
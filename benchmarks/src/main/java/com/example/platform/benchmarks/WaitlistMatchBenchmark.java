@@ -0,0 +1,101 @@
+package com.example.platform.benchmarks;
+
+import com.example.platform.servicetwo.waitlist.WaitlistIndex;
+import com.example.platform.servicetwo.waitlist.WaitlistIndex.Waiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск кандидатов листа ожидания на освободившийся интервал ресурса:
+ * <ul>
+ *     <li>linearScan — перебор всех заявок ресурса и сортировка пересекающихся по приоритету;</li>
+ *     <li>intervalIndex — {@link WaitlistIndex#candidates}: subSet дерева по началу с нижней границей
+ *     «начало минус максимальная длительность заявки» и очередь с приоритетом.</li>
+ * </ul>
+ * Заявки по 1-4 часа разбросаны по 30 дням; освобождается интервал в 1-4 часа.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WaitlistMatchBenchmark {
+
+    private static final long RESOURCE_ID = 7L;
+    private static final int QUERIES = 1024;
+    private static final long HORIZON_MINUTES = 30L * 24 * 60;
+
+    @Param({"1000", "10000"})
+    public int waitersPerResource;
+
+    private List<Waiter> waiters;
+    private WaitlistIndex index;
+    private LocalDateTime[] queryStarts;
+    private LocalDateTime[] queryEnds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        waiters = new ArrayList<>(waitersPerResource);
+        index = new WaitlistIndex();
+        for (int i = 0; i < waitersPerResource; i++) {
+            LocalDateTime start = BenchmarkFixtures.BASE_TIME.plusMinutes(30L * random.nextInt((int) (HORIZON_MINUTES / 30)));
+            Waiter waiter = new Waiter(i, RESOURCE_ID, start, start.plusHours(1 + random.nextInt(4)));
+            waiters.add(waiter);
+            index.add(waiter);
+        }
+
+        queryStarts = new LocalDateTime[QUERIES];
+        queryEnds = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryStarts[i] = BenchmarkFixtures.BASE_TIME.plusMinutes(30L * random.nextInt((int) (HORIZON_MINUTES / 30)));
+            queryEnds[i] = queryStarts[i].plusHours(1 + random.nextInt(4));
+        }
+    }
+
+    @Benchmark
+    public List<Waiter> linearScan() {
+        int q = nextQuery();
+        LocalDateTime start = queryStarts[q];
+        LocalDateTime end = queryEnds[q];
+        List<Waiter> overlapping = new ArrayList<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.start().isBefore(end) && waiter.end().isAfter(start)) {
+                overlapping.add(waiter);
+            }
+        }
+        overlapping.sort(Comparator.<Waiter, Boolean>comparing(
+                        waiter -> waiter.start().isBefore(start) || waiter.end().isAfter(end))
+                .thenComparingLong(Waiter::id));
+        return overlapping;
+    }
+
+    @Benchmark
+    public List<Waiter> intervalIndex() {
+        int q = nextQuery();
+        return index.candidates(RESOURCE_ID, queryStarts[q], queryEnds[q]);
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+}
@@ -1,7 +1,7 @@
 import { useEffect, useState } from 'react'
 import { motion } from 'framer-motion'
 import { Calendar, X, Clock, Package } from 'lucide-react'
-import { api, Booking } from '../services/api'
+import { api, Booking, BookingChange } from '../services/api'
 import toast from 'react-hot-toast'
 import { format } from 'date-fns'
 
@@ -21,10 +21,25 @@ export default function Bookings() {
   const [bookings, setBookings] = useState<Booking[]>([])
   const [loading, setLoading] = useState(true)
 
+  // Список обновляется по SSE-потоку; пока поток недоступен — периодической загрузкой (onUnavailable)
   useEffect(() => {
-    loadBookings()
+    return api.bookings.stream({
+      onReady: loadBookings,
+      onChange: applyChange,
+      onUnavailable: loadBookings,
+    })
   }, [])
 
+  const applyChange = (change: BookingChange) => {
+    setBookings((current) => {
+      const existing = current.find((b) => b.id === change.id)
+      const updated: Booking = { ...existing, ...change, userId: change.userId ?? existing?.userId ?? '' }
+      return [updated, ...current.filter((b) => b.id !== change.id)].sort(
+        (a, b) => new Date(b.startTime).getTime() - new Date(a.startTime).getTime()
+      )
+    })
+  }
+
   const loadBookings = async () => {
     try {
       const data = await api.bookings.getAll()
@@ -43,8 +58,9 @@ export default function Bookings() {
 
     try {
       await api.bookings.cancel(id)
+      // Поток пришлёт то же изменение; локально — чтобы не ждать его (и на случай, если поток недоступен)
+      setBookings((current) => current.map((b) => (b.id === id ? { ...b, status: 'CANCELLED' } : b)))
       toast.success('Бронирование отменено')
-      loadBookings()
     } catch (error) {
       toast.error('Ошибка отмены бронирования')
     }
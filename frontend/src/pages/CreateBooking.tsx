@@ -107,6 +107,25 @@ export default function CreateBooking() {
     }
   }
 
+  const handleJoinWaitlist = async () => {
+    if (!selectedResourceId || !startTime || !endTime) return
+
+    setLoading(true)
+    try {
+      await api.waitlist.join({
+        resourceId: selectedResourceId,
+        startTime,
+        endTime,
+      })
+      toast.success('Вы в очереди: бронь появится, когда время освободится')
+      navigate('/bookings')
+    } catch (error: any) {
+      toast.error(error.response?.data?.message || 'Ошибка постановки в очередь')
+    } finally {
+      setLoading(false)
+    }
+  }
+
   const minDateTime = new Date().toISOString().slice(0, 16)
 
   return (
@@ -242,7 +261,15 @@ export default function CreateBooking() {
               className="flex items-center p-4 bg-red-50 border border-red-200 rounded-lg"
             >
               <Calendar className="w-5 h-5 text-red-600 mr-2" />
-              <span className="text-red-800 font-medium">Ресурс недоступен в выбранное время</span>
+              <span className="text-red-800 font-medium flex-1">Ресурс недоступен в выбранное время</span>
+              <button
+                type="button"
+                onClick={handleJoinWaitlist}
+                disabled={loading}
+                className="btn-secondary text-sm disabled:opacity-50"
+              >
+                Встать в очередь
+              </button>
             </motion.div>
           )}
 
@@ -1,48 +1,33 @@
-import { useEffect, useState } from 'react'
+import { useEffect, useMemo, useState } from 'react'
 import { Link } from 'react-router-dom'
 import { motion } from 'framer-motion'
 import { Calendar, Package, TrendingUp, Clock } from 'lucide-react'
-import { api, Booking } from '../services/api'
+import { api, Booking, BookingChange } from '../services/api'
 import toast from 'react-hot-toast'
 import { format } from 'date-fns'
 
 export default function Dashboard() {
-  const [stats, setStats] = useState({
-    totalResources: 0,
-    totalBookings: 0,
-    upcomingBookings: 0,
-  })
-  const [recentBookings, setRecentBookings] = useState<Booking[]>([])
+  const [totalResources, setTotalResources] = useState(0)
+  const [bookings, setBookings] = useState<Booking[]>([])
   const [loading, setLoading] = useState(true)
 
   useEffect(() => {
-    loadData()
+    api.resources
+      .getAll()
+      .then((resources) => setTotalResources(resources.length))
+      .catch(() => toast.error('Ошибка загрузки данных'))
+    // Брони приходят из SSE-потока: после подключения — полный список, затем изменения;
+    // пока поток недоступен, список периодически загружается заново
+    return api.bookings.stream({
+      onReady: loadBookings,
+      onChange: applyChange,
+      onUnavailable: loadBookings,
+    })
   }, [])
 
-  const loadData = async () => {
+  const loadBookings = async () => {
     try {
-      const [resources, bookings] = await Promise.all([
-        api.resources.getAll(),
-        api.bookings.getAll(),
-      ])
-
-      const now = new Date()
-      const upcoming = bookings.filter(
-        (b) => new Date(b.startTime) > now && b.status === 'CONFIRMED'
-      )
-
-      setStats({
-        totalResources: resources.length,
-        totalBookings: bookings.length,
-        upcomingBookings: upcoming.length,
-      })
-
-      setRecentBookings(
-        bookings
-          .filter((b) => b.status === 'CONFIRMED')
-          .sort((a, b) => new Date(a.startTime).getTime() - new Date(b.startTime).getTime())
-          .slice(0, 5)
-      )
+      setBookings(await api.bookings.getAll())
     } catch (error) {
       toast.error('Ошибка загрузки данных')
     } finally {
@@ -50,6 +35,34 @@ export default function Dashboard() {
     }
   }
 
+  const applyChange = (change: BookingChange) => {
+    setBookings((current) => {
+      const existing = current.find((b) => b.id === change.id)
+      const updated: Booking = { ...existing, ...change, userId: change.userId ?? existing?.userId ?? '' }
+      return [updated, ...current.filter((b) => b.id !== change.id)]
+    })
+  }
+
+  const stats = useMemo(() => {
+    const now = new Date()
+    return {
+      totalResources,
+      totalBookings: bookings.length,
+      upcomingBookings: bookings.filter(
+        (b) => new Date(b.startTime) > now && b.status === 'CONFIRMED'
+      ).length,
+    }
+  }, [totalResources, bookings])
+
+  const recentBookings = useMemo(
+    () =>
+      bookings
+        .filter((b) => b.status === 'CONFIRMED')
+        .sort((a, b) => new Date(a.startTime).getTime() - new Date(b.startTime).getTime())
+        .slice(0, 5),
+    [bookings]
+  )
+
   const statCards = [
     {
       title: 'Всего ресурсов',
@@ -64,6 +64,130 @@ export interface Booking {
   resource?: Resource
 }
 
+// Заявка в листе ожидания; при освобождении интервала бронь создаётся автоматически (bookingId)
+export interface WaitlistEntry {
+  id: number
+  resourceId: number
+  startTime: string
+  endTime: string
+  totalPrice: number
+  status: 'WAITING' | 'BOOKED' | 'CANCELLED' | 'EXPIRED'
+  bookingId?: number
+}
+
+// Изменение брони из SSE-потока; userId и totalPrice есть только в потоке своих броней
+export interface BookingChange {
+  id: number
+  resourceId: number
+  userId?: string
+  status: Booking['status']
+  previousStatus?: Booking['status']
+  startTime: string
+  endTime: string
+  totalPrice?: number
+}
+
+export interface BookingStreamHandlers {
+  // Подписка действует: пора (пере)загрузить список, дальше придут только изменения
+  onReady: () => void
+  onChange: (change: BookingChange) => void
+  // Поток недоступен (например, read-сервис не развёрнут): список нужно загрузить обычным запросом.
+  // Вызывается при каждой неудачной попытке подключения, то есть работает как polling с тем же интервалом
+  onUnavailable?: () => void
+}
+
+const STREAM_RETRY_MIN_MS = 1000
+const STREAM_RETRY_MAX_MS = 30000
+
+/**
+ * SSE через fetch: EventSource не умеет передавать заголовок Authorization.
+ * После обрыва переподключается с экспоненциальной задержкой (до 30 с); пока поток недоступен,
+ * каждая неудачная попытка перезагружает список через onUnavailable. Возвращает функцию отписки.
+ */
+function openBookingStream(path: string, handlers: BookingStreamHandlers): () => void {
+  const controller = new AbortController()
+  let retryMs = STREAM_RETRY_MIN_MS
+
+  const dispatch = (block: string) => {
+    let event = 'message'
+    const data: string[] = []
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) {
+        event = line.slice(6).trim()
+      } else if (line.startsWith('data:')) {
+        data.push(line.slice(5).replace(/^ /, ''))
+      }
+      // Строки-комментарии (heartbeat) пропускаются
+    }
+    if (event === 'ready') {
+      retryMs = STREAM_RETRY_MIN_MS
+      handlers.onReady()
+    } else if (event === 'booking' && data.length > 0) {
+      handlers.onChange(JSON.parse(data.join('\n')))
+    }
+  }
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = localStorage.getItem('token')
+        const response = await fetch(`${API_BASE_URL}${path}`, {
+          headers: {
+            Accept: 'text/event-stream',
+            ...(token ? { Authorization: `Bearer ${token}` } : {}),
+          },
+          signal: controller.signal,
+        })
+        if (response.status === 401 || response.status === 403) {
+          // Без действующего токена повторять бессмысленно
+          handlers.onUnavailable?.()
+          return
+        }
+        if (!response.ok || !response.body) {
+          throw new Error(`HTTP ${response.status}`)
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+        let buffer = ''
+        for (;;) {
+          const { value, done } = await reader.read()
+          if (done) {
+            break
+          }
+          buffer += value.replace(/\r\n?/g, '\n')
+          let boundary
+          while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            dispatch(buffer.slice(0, boundary))
+            buffer = buffer.slice(boundary + 2)
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) {
+          return
+        }
+        console.warn('[API] Booking stream', path, 'failed:', error)
+        handlers.onUnavailable?.()
+      }
+      // Случайная задержка, чтобы после перезапуска сервиса клиенты не переподключались разом
+      await new Promise((resolve) => setTimeout(resolve, retryMs / 2 + Math.random() * retryMs / 2))
+      retryMs = Math.min(retryMs * 2, STREAM_RETRY_MAX_MS)
+    }
+  }
+
+  connect()
+  return () => controller.abort()
+}
+
+const CREATE_MAX_ATTEMPTS = 3
+
+// crypto.randomUUID есть только в secure context (https или localhost)
+function newIdempotencyKey(): string {
+  if (typeof crypto.randomUUID === 'function') {
+    return crypto.randomUUID()
+  }
+  const bytes = crypto.getRandomValues(new Uint8Array(16))
+  return Array.from(bytes, (b) => b.toString(16).padStart(2, '0')).join('')
+}
+
 export interface FileInfo {
   name: string
 }
@@ -99,9 +223,25 @@ export const api = {
       const response = await apiClient.get(`/bookings/${id}`)
       return response.data
     },
+    // Повтор после обрыва или таймаута идёт с тем же Idempotency-Key: сервер вернёт уже созданную бронь
     create: async (booking: Omit<Booking, 'id' | 'status' | 'userId'>): Promise<Booking> => {
-      const response = await apiClient.post('/bookings', booking)
-      return response.data
+      const idempotencyKey = newIdempotencyKey()
+      for (let attempt = 1; ; attempt++) {
+        try {
+          const response = await apiClient.post('/bookings', booking, {
+            headers: { 'Idempotency-Key': idempotencyKey },
+          })
+          return response.data
+        } catch (error) {
+          // 409 — первый запрос ещё выполняется; 502-504 — ответ не дошёл, но бронь могла быть создана
+          const status = axios.isAxiosError(error) ? error.response?.status : undefined
+          const retryable = axios.isAxiosError(error) && (status === undefined || status === 409 || status >= 502)
+          if (!retryable || attempt >= CREATE_MAX_ATTEMPTS) {
+            throw error
+          }
+          await new Promise((resolve) => setTimeout(resolve, 500 * attempt))
+        }
+      }
     },
     cancel: async (id: number): Promise<void> => {
       await apiClient.delete(`/bookings/${id}`)
@@ -116,6 +256,25 @@ export const api = {
       })
       return response.data
     },
+    // Изменения своих броней
+    stream: (handlers: BookingStreamHandlers): (() => void) =>
+      openBookingStream('/bookings/stream', handlers),
+    // Изменения занятости ресурса (без данных о владельцах броней)
+    streamResource: (resourceId: number, handlers: BookingStreamHandlers): (() => void) =>
+      openBookingStream(`/bookings/resource/${resourceId}/stream`, handlers),
+  },
+  waitlist: {
+    join: async (request: Omit<Booking, 'id' | 'status' | 'userId'>): Promise<WaitlistEntry> => {
+      const response = await apiClient.post('/bookings/waitlist', request)
+      return response.data
+    },
+    getMine: async (): Promise<WaitlistEntry[]> => {
+      const response = await apiClient.get('/bookings/waitlist')
+      return response.data
+    },
+    leave: async (id: number): Promise<void> => {
+      await apiClient.delete(`/bookings/waitlist/${id}`)
+    },
   },
   files: {
     list: async (resourceId?: number): Promise<string[]> => {
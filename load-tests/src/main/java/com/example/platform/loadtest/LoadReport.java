@@ -0,0 +1,118 @@
+package com.example.platform.loadtest;
+
+import com.example.platform.loadtest.workload.EndpointStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог прогона: таблица в консоль и report-&lt;время&gt;.json в outputDir.
+ *
+ * @param serviceRssMiB резидентная память процессов сервисов в конце прогона (VmRSS из /proc)
+ */
+record LoadReport(Instant finishedAt,
+                  LoadTestOptions options,
+                  Duration measured,
+                  List<EndpointStats.Snapshot> endpoints,
+                  Map<String, Long> serviceRssMiB) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    void print(PrintStream out) {
+        double seconds = measured.toNanos() / 1e9;
+        out.printf("%nLoad test: %d users, %s measured, reactiveRead=%s%n",
+                options.users(), measured, options.reactiveRead());
+        out.printf("%-28s %8s %8s %8s %6s %6s %7s %8s %8s %8s %8s %8s%n",
+                "endpoint", "count", "rps", "ok", "4xx", "errors", "err%", "p50ms", "p90ms", "p99ms", "p999ms", "maxms");
+        long total = 0;
+        long errors = 0;
+        for (EndpointStats.Snapshot s : endpoints) {
+            total += s.total();
+            errors += s.errors();
+            out.printf("%-28s %8d %8.1f %8d %6d %6d %7.2f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    s.name(), s.total(), s.total() / seconds, s.ok(), s.rejected(), s.errors(), errorPercent(s),
+                    s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99), s.percentileMillis(99.9),
+                    s.latencyMicros().getMaxValue() / 1000.0);
+        }
+        out.printf("total: %d requests, %.1f rps, %.2f%% errors%n", total, total / seconds,
+                total == 0 ? 0 : errors * 100.0 / total);
+        serviceRssMiB.forEach((service, rss) -> out.printf("  %-22s RSS %d MiB%n", service, rss));
+    }
+
+    Path write(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        Path file = outputDir.resolve("report-" + finishedAt.toString().replace(':', '-') + ".json");
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(file.toFile(), toJson());
+        return file;
+    }
+
+    private Map<String, Object> toJson() {
+        double seconds = measured.toNanos() / 1e9;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (EndpointStats.Snapshot s : endpoints) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", s.name());
+            row.put("count", s.total());
+            row.put("rps", s.total() / seconds);
+            row.put("ok", s.ok());
+            row.put("rejected", s.rejected());
+            row.put("errors", s.errors());
+            row.put("errorPercent", errorPercent(s));
+            Map<String, Double> latency = new LinkedHashMap<>();
+            for (double p : PERCENTILES) {
+                latency.put("p" + String.valueOf(p).replace(".0", "").replace(".", ""), s.percentileMillis(p));
+            }
+            latency.put("max", s.latencyMicros().getMaxValue() / 1000.0);
+            row.put("latencyMillis", latency);
+            row.put("outcomes", s.outcomes());
+            rows.add(row);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("finishedAt", finishedAt);
+        json.put("users", options.users());
+        json.put("distinctUsers", options.distinctUsers());
+        json.put("warmup", options.warmup());
+        json.put("measured", measured);
+        json.put("reactiveRead", options.reactiveRead());
+        json.put("rateLimit", options.rateLimit());
+        json.put("mix", options.mix());
+        json.put("endpoints", rows);
+        json.put("serviceRssMiB", serviceRssMiB);
+        return json;
+    }
+
+    private static double errorPercent(EndpointStats.Snapshot s) {
+        return s.total() == 0 ? 0 : s.errors() * 100.0 / s.total();
+    }
+
+    /**
+     * VmRSS процесса в MiB или -1, если /proc недоступен (не Linux).
+     */
+    static long rssMiB(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // нет /proc — значение не критично для отчёта
+        }
+        return -1;
+    }
+}
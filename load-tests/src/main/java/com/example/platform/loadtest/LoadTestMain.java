@@ -0,0 +1,232 @@
+package com.example.platform.loadtest;
+
+import com.example.platform.loadtest.standin.AmqpBrokerStandIn;
+import com.example.platform.loadtest.standin.JwksStubServer;
+import com.example.platform.loadtest.standin.PostgresStandIn;
+import com.example.platform.loadtest.standin.RedisStandIn;
+import com.example.platform.loadtest.standin.S3StubServer;
+import com.example.platform.loadtest.standin.SmtpSinkServer;
+import com.example.platform.loadtest.standin.WebhookSinkServer;
+import com.example.platform.loadtest.workload.BookingStreamClients;
+import com.example.platform.loadtest.workload.LoadDriver;
+import com.example.platform.loadtest.workload.LoadStats;
+import com.example.platform.loadtest.workload.VirtualUser;
+import com.example.platform.loadtest.workload.Workload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Сквозной нагрузочный прогон: поднимает заменители инфраструктуры (Postgres, Redis, AMQP-брокер Qpid,
+ * S3-совместимое хранилище, JWKS-издатель, приёмники писем и webhook'ов), запускает api-gateway, file-service, service-two и
+ * data-processor из собранных jar и нагружает шлюз смесью сценариев.
+ *
+ * <pre>
+ * mvn -B install -DskipTests
+ * mvn -B -pl load-tests exec:java -Dload-test.args="duration=PT2M users=100"
+ * </pre>
+ */
+public final class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    private static final String DB_NAME = "platform";
+    private static final String DB_USER = "platform";
+    private static final String DB_PASSWORD = "platform";
+    private static final String BUCKET = "files";
+    private static final String INTERNAL_IDENTITY_SECRET = "load-test-internal-identity";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final List<String> SERVICE_JVM_ARGS = List.of("-Xmx512m", "-XX:+UseG1GC");
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path logDir = options.outputDir().resolve("logs");
+        Deque<AutoCloseable> started = new ArrayDeque<>();
+        Thread shutdownHook = new Thread(() -> closeAll(started));
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        int exitCode = 0;
+        try {
+            run(options, logDir, started);
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        } finally {
+            closeAll(started);
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        }
+        // Qpid и embedded-процессы оставляют не-daemon потоки
+        System.exit(exitCode);
+    }
+
+    private static void run(LoadTestOptions options, Path logDir, Deque<AutoCloseable> started) throws Exception {
+        log.info("Starting infrastructure stand-ins");
+        PostgresStandIn postgres = push(started, PostgresStandIn.start(DB_NAME, DB_USER, DB_PASSWORD, 300));
+        RedisStandIn redis = push(started, RedisStandIn.start(freePort()));
+        AmqpBrokerStandIn broker = push(started, AmqpBrokerStandIn.start(freePort(), options.outputDir().resolve("qpid")));
+        S3StubServer s3 = push(started, S3StubServer.start(freePort(), BUCKET));
+        JwksStubServer jwks = push(started, JwksStubServer.start(freePort()));
+        SmtpSinkServer smtp = push(started, SmtpSinkServer.start(freePort()));
+        WebhookSinkServer webhook = push(started, WebhookSinkServer.start(freePort(), Duration.ZERO, 0));
+
+        Map<String, String> common = new HashMap<>();
+        common.put("DB_URL", postgres.jdbcUrl());
+        common.put("DB_USER", DB_USER);
+        common.put("DB_PASSWORD", DB_PASSWORD);
+        common.put("KEYCLOAK_ISSUER_URI", jwks.issuer());
+        common.put("RABBITMQ_HOST", "127.0.0.1");
+        common.put("RABBITMQ_PORT", String.valueOf(broker.port()));
+        common.put("RABBITMQ_USER", "guest");
+        common.put("RABBITMQ_PASSWORD", "guest");
+        common.put("REDIS_HOST", "127.0.0.1");
+        common.put("REDIS_PORT", String.valueOf(redis.port()));
+        common.put("MINIO_URL", s3.url());
+        common.put("MINIO_BUCKET", BUCKET);
+        common.put("MINIO_ACCESS_KEY", "minioadmin");
+        common.put("MINIO_SECRET_KEY", "minioadmin");
+        common.put("INTERNAL_IDENTITY_SECRET", INTERNAL_IDENTITY_SECRET);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+
+        // Сервисы с JPA стартуют по очереди: ddl-auto update на общей базе не должен выполняться параллельно
+        ServiceProcess fileService = startService(started, options, "file-service", null, common, logDir);
+        fileService.awaitReady(client, STARTUP_TIMEOUT);
+
+        Map<String, String> bookingEnv = new HashMap<>(common);
+        bookingEnv.put("RESOURCE_SERVICE_URL", fileService.url());
+        ServiceProcess bookingService = startService(started, options, "service-two", null, bookingEnv, logDir);
+        bookingService.awaitReady(client, STARTUP_TIMEOUT);
+
+        Map<String, String> dataProcessorEnv = new HashMap<>(common);
+        dataProcessorEnv.put("SMTP_HOST", "127.0.0.1");
+        dataProcessorEnv.put("SMTP_PORT", String.valueOf(smtp.port()));
+        dataProcessorEnv.put("NOTIFICATION_EMAIL_ENABLED", "true");
+        dataProcessorEnv.put("NOTIFICATION_WEBHOOK_URLS", webhook.url("load-test"));
+        ServiceProcess dataProcessor = startService(started, options, "data-processor", null, dataProcessorEnv, logDir);
+        List<ServiceProcess> services = new ArrayList<>(List.of(fileService, bookingService, dataProcessor));
+
+        Map<String, String> gatewayEnv = new HashMap<>(common);
+        gatewayEnv.put("RESOURCE_SERVICE_URL", fileService.url());
+        gatewayEnv.put("BOOKING_SERVICE_URL", bookingService.url());
+        gatewayEnv.put("NOTIFICATION_SERVICE_URL", dataProcessor.url());
+        gatewayEnv.put("KEYCLOAK_URL", jwks.baseUrl());
+        gatewayEnv.put("RATE_LIMIT_ENABLED", String.valueOf(options.rateLimit()));
+        if (options.reactiveRead()) {
+            Map<String, String> readEnv = new HashMap<>(common);
+            readEnv.put("R2DBC_URL", postgres.r2dbcUrl());
+            ServiceProcess bookingRead = startService(started, options, "service-two", "booking-read-service",
+                    "com.example.platform.bookingread.ReactiveBookingReadApplication", readEnv, logDir);
+            services.add(bookingRead);
+            gatewayEnv.put("BOOKING_REACTIVE_READ_ENABLED", "true");
+            gatewayEnv.put("BOOKING_READ_SERVICE_URL", bookingRead.url());
+        }
+        ServiceProcess gateway = startService(started, options, "api-gateway", null, gatewayEnv, logDir);
+        services.add(gateway);
+        for (ServiceProcess service : services) {
+            service.awaitReady(client, STARTUP_TIMEOUT);
+        }
+
+        Duration tokenLifetime = options.warmup().plus(options.duration()).plusMinutes(30);
+        LoadStats stats = new LoadStats();
+        Workload workload = new Workload(client, gateway.url(), stats, options.mix());
+        workload.seed(jwks.mintToken("load-admin", List.of("admin", "user"), tokenLifetime), options.resources());
+
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < options.distinctUsers(); i++) {
+            tokens.add(jwks.mintToken("load-user-" + i, List.of("user"), tokenLifetime));
+        }
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            users.add(new VirtualUser(tokens.get(i % tokens.size()), i));
+        }
+
+        BookingStreamClients streams = null;
+        if (options.streams() > 0) {
+            if (!options.reactiveRead()) {
+                throw new IllegalArgumentException("streams requires reactiveRead=true");
+            }
+            streams = push(started, BookingStreamClients.open(client, gateway.url(), tokens, options.streams()));
+        }
+
+        Duration measured = new LoadDriver(workload, stats, users).run(options.warmup(), options.duration());
+
+        Map<String, Long> rss = new LinkedHashMap<>();
+        services.forEach(service -> rss.put(service.name(), LoadReport.rssMiB(service.pid())));
+        LoadReport report = new LoadReport(Instant.now(), options, measured, stats.snapshot(), rss);
+        report.print(System.out);
+        log.info("Report written to {}", report.write(options.outputDir()));
+        log.info("Notifications delivered: {} email(s) in {} SMTP session(s), {} webhook event(s) in {} request(s)",
+                smtp.messages(), smtp.sessions(), webhook.events(), webhook.requests());
+        if (options.mix().containsKey("retriedBooking")) {
+            log.info("Retried bookings: {} duplicate(s) created despite Idempotency-Key", workload.duplicateBookings());
+        }
+        if (options.mix().containsKey("register") || options.mix().containsKey("bulkRegister")) {
+            log.info("Registrations: {} user(s) created in the Keycloak stand-in, {} admin token(s) issued, "
+                    + "bulk result lines by status {}", jwks.createdUsers(), jwks.adminTokensIssued(), workload.bulkResults());
+        }
+        if (streams != null) {
+            log.info("Booking streams: {} of {} open, {} booking event(s) received, {} failed",
+                    streams.ready(), options.streams(), streams.events(), streams.failed());
+        }
+        ((ExecutorService) client.executor().orElseThrow()).shutdownNow();
+    }
+
+    private static ServiceProcess startService(Deque<AutoCloseable> started, LoadTestOptions options, String module,
+                                               String mainClass, Map<String, String> env, Path logDir)
+            throws IOException {
+        return startService(started, options, module, module, mainClass, env, logDir);
+    }
+
+    private static ServiceProcess startService(Deque<AutoCloseable> started, LoadTestOptions options, String module,
+                                               String name, String mainClass, Map<String, String> env, Path logDir)
+            throws IOException {
+        Path jar = options.rootDir().resolve("services").resolve(module).resolve("target")
+                .resolve(module + "-0.1.0-SNAPSHOT-exec.jar");
+        return push(started, ServiceProcess.start(name, jar, SERVICE_JVM_ARGS, mainClass, freePort(), env, logDir));
+    }
+
+    private static <T extends AutoCloseable> T push(Deque<AutoCloseable> started, T resource) {
+        started.push(resource);
+        return resource;
+    }
+
+    private static void closeAll(Deque<AutoCloseable> started) {
+        synchronized (started) {
+            while (!started.isEmpty()) {
+                AutoCloseable resource = started.pop();
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    log.warn("Failed to stop {}: {}", resource, e.toString());
+                }
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
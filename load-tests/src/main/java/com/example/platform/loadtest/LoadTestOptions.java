@@ -0,0 +1,101 @@
+package com.example.platform.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона в виде key=value (например, {@code duration=PT2M users=200 reactiveRead=true}).
+ *
+ * @param duration     длительность измерения
+ * @param warmup       прогрев перед измерением (результаты не учитываются)
+ * @param users        число виртуальных пользователей (закрытая модель: каждый ждёт ответа перед следующим запросом)
+ * @param distinctUsers сколько разных JWT subject используют виртуальные пользователи
+ * @param resources    сколько ресурсов создаётся перед прогоном
+ * @param mix          веса сценариев, например {@code availability=40,createBooking=10}; сценарий
+ *                     {@code retriedBooking} (повтор POST /bookings с тем же Idempotency-Key) и
+ *                     {@code waitlistBooking} (при отказе по занятости — лист ожидания), {@code register}
+ *                     и {@code bulkRegister} (регистрация через Admin API заглушки Keycloak) — только явно
+ * @param reactiveRead запустить booking-read-service и включить app.reactive-read.enabled в шлюзе
+ * @param rateLimit    оставить включёнными лимиты шлюза (по умолчанию выключены, иначе прогон меряет 429)
+ * @param streams      сколько SSE-подписок GET /bookings/stream держать открытыми (нужен reactiveRead)
+ * @param rootDir      корень репозитория (где лежат services/*)
+ * @param outputDir    куда писать отчёты и логи сервисов
+ */
+record LoadTestOptions(Duration duration,
+                       Duration warmup,
+                       int users,
+                       int distinctUsers,
+                       int resources,
+                       Map<String, Integer> mix,
+                       boolean reactiveRead,
+                       boolean rateLimit,
+                       int streams,
+                       Path rootDir,
+                       Path outputDir) {
+
+    static final Map<String, Integer> DEFAULT_MIX = defaultMix();
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(option.substring(0, eq), option.substring(eq + 1));
+        }
+        Path rootDir = values.containsKey("root") ? Path.of(values.get("root")) : findRoot();
+        return new LoadTestOptions(
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                Duration.parse(values.getOrDefault("warmup", "PT15S")),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                Integer.parseInt(values.getOrDefault("distinctUsers", "200")),
+                Integer.parseInt(values.getOrDefault("resources", "20")),
+                values.containsKey("mix") ? parseMix(values.get("mix")) : DEFAULT_MIX,
+                Boolean.parseBoolean(values.getOrDefault("reactiveRead", "false")),
+                Boolean.parseBoolean(values.getOrDefault("rateLimit", "false")),
+                Integer.parseInt(values.getOrDefault("streams", "0")),
+                rootDir,
+                Path.of(values.getOrDefault("output", rootDir.resolve("load-tests/target/load-test").toString())));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Map<String, Integer> defaultMix() {
+        // Чтение доминирует: polling доступности и просмотр ресурсов, запись — около 10%
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("availability", 35);
+        mix.put("getResource", 15);
+        mix.put("listResources", 5);
+        mix.put("listMyBookings", 10);
+        mix.put("getBooking", 10);
+        mix.put("createBooking", 10);
+        mix.put("cancelBooking", 3);
+        mix.put("uploadFile", 4);
+        mix.put("downloadFile", 8);
+        return mix;
+    }
+
+    static Path findRoot() {
+        Path dir = Path.of("").toAbsolutePath();
+        while (dir != null) {
+            if (Files.isDirectory(dir.resolve("services")) && Files.isDirectory(dir.resolve("load-tests"))) {
+                return dir;
+            }
+            dir = dir.getParent();
+        }
+        throw new IllegalStateException("Repository root not found; pass root=<path>");
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.platform.loadtest;
+
+import com.example.platform.events.BookingEvent;
+import com.example.platform.events.BookingEventCodec;
+import com.example.platform.events.BookingEventMessageConverter;
+import com.example.platform.loadtest.standin.AmqpBrokerStandIn;
+import com.example.platform.loadtest.standin.JwksStubServer;
+import com.example.platform.loadtest.standin.PostgresStandIn;
+import com.example.platform.loadtest.standin.SmtpSinkServer;
+import com.example.platform.loadtest.standin.WebhookSinkServer;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Пропускная способность движка доставки уведомлений data-processor: поднимает Postgres, AMQP-брокер,
+ * SMTP- и webhook-приёмники, запускает data-processor из exec-jar с заданными параметрами доставки,
+ * публикует {@code events} BookingEvent в booking.events и ждёт, пока приёмники получат все письма
+ * и webhook-события. Каждое событие — одно письмо и по одному событию на каждый webhook.
+ * <pre>
+ * mvn -B install -DskipTests
+ * java -cp "load-tests/target/classes:$(cat cp.txt)" com.example.platform.loadtest.NotificationDeliveryBenchmark \
+ *     events=20000 webhooks=2 batchSize=50 concurrency=8 webhookLatency=PT0.005S failureRate=0.05
+ * </pre>
+ */
+public final class NotificationDeliveryBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDeliveryBenchmark.class);
+
+    private static final String DB_NAME = "platform";
+    private static final String DB_USER = "platform";
+    private static final String DB_PASSWORD = "platform";
+    private static final String EXCHANGE = "booking.events";
+    private static final int RESOURCES = 20;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private NotificationDeliveryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(option.substring(0, eq), option.substring(eq + 1));
+        }
+        Deque<AutoCloseable> started = new ArrayDeque<>();
+        int exitCode = 0;
+        try {
+            run(options, started);
+        } catch (Exception e) {
+            log.error("Notification delivery benchmark failed", e);
+            exitCode = 1;
+        } finally {
+            while (!started.isEmpty()) {
+                AutoCloseable resource = started.pop();
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    log.warn("Failed to stop {}: {}", resource, e.toString());
+                }
+            }
+        }
+        // Qpid и embedded-процессы оставляют не-daemon потоки
+        System.exit(exitCode);
+    }
+
+    private static void run(Map<String, String> options, Deque<AutoCloseable> started) throws Exception {
+        Path rootDir = options.containsKey("root") ? Path.of(options.get("root")) : LoadTestOptions.findRoot();
+        Path outputDir = Path.of(options.getOrDefault("output",
+                rootDir.resolve("load-tests/target/delivery-benchmark").toString()));
+        int events = Integer.parseInt(options.getOrDefault("events", "20000"));
+        int webhooks = Integer.parseInt(options.getOrDefault("webhooks", "2"));
+        String batchSize = options.getOrDefault("batchSize", "50");
+        String concurrency = options.getOrDefault("concurrency", "8");
+        String maxPending = options.getOrDefault("maxPending", "1000");
+        String linger = options.getOrDefault("linger", "PT0.05S");
+        Duration webhookLatency = Duration.parse(options.getOrDefault("webhookLatency", "PT0.005S"));
+        double failureRate = Double.parseDouble(options.getOrDefault("failureRate", "0"));
+        Duration timeout = Duration.parse(options.getOrDefault("timeout", "PT5M"));
+
+        log.info("Starting infrastructure stand-ins");
+        PostgresStandIn postgres = push(started, PostgresStandIn.start(DB_NAME, DB_USER, DB_PASSWORD, 50));
+        AmqpBrokerStandIn broker = push(started, AmqpBrokerStandIn.start(freePort(), outputDir.resolve("qpid")));
+        JwksStubServer jwks = push(started, JwksStubServer.start(freePort()));
+        SmtpSinkServer smtp = push(started, SmtpSinkServer.start(freePort()));
+        WebhookSinkServer webhook = push(started, WebhookSinkServer.start(freePort(), webhookLatency, failureRate));
+
+        seedResources(postgres);
+
+        List<String> webhookUrls = new ArrayList<>();
+        for (int i = 1; i <= webhooks; i++) {
+            webhookUrls.add(webhook.url("subscriber-" + i));
+        }
+        Map<String, String> env = new HashMap<>();
+        env.put("DB_URL", postgres.jdbcUrl());
+        env.put("DB_USER", DB_USER);
+        env.put("DB_PASSWORD", DB_PASSWORD);
+        env.put("KEYCLOAK_ISSUER_URI", jwks.issuer());
+        env.put("RABBITMQ_HOST", "127.0.0.1");
+        env.put("RABBITMQ_PORT", String.valueOf(broker.port()));
+        env.put("TRACING_EXPORTER", "none");
+        env.put("SMTP_HOST", "127.0.0.1");
+        env.put("SMTP_PORT", String.valueOf(smtp.port()));
+        env.put("NOTIFICATION_EMAIL_ENABLED", "true");
+        env.put("NOTIFICATION_WEBHOOK_URLS", String.join(",", webhookUrls));
+        env.put("NOTIFICATION_DELIVERY_BATCH_SIZE", batchSize);
+        env.put("NOTIFICATION_DELIVERY_CONCURRENCY", concurrency);
+        env.put("NOTIFICATION_DELIVERY_MAX_PENDING", maxPending);
+        env.put("NOTIFICATION_DELIVERY_LINGER", linger);
+        // Повторы должны укладываться в прогон, а не в production-минуты
+        env.put("NOTIFICATION_DELIVERY_MAX_ATTEMPTS", "8");
+
+        Path jar = rootDir.resolve("services/data-processor/target/data-processor-0.1.0-SNAPSHOT-exec.jar");
+        ServiceProcess dataProcessor = push(started, ServiceProcess.start("data-processor", jar,
+                List.of("-Xmx512m", "-XX:+UseG1GC"), null, freePort(), env, outputDir.resolve("logs")));
+        HttpClient client = HttpClient.newHttpClient();
+        dataProcessor.awaitReady(client, STARTUP_TIMEOUT);
+
+        long expectedEmails = events;
+        long expectedWebhookEvents = (long) events * webhooks;
+        long begin = System.nanoTime();
+        publish(broker.port(), events);
+        double publishSeconds = (System.nanoTime() - begin) / 1e9;
+        log.info("Published {} events in {} s", events, String.format(Locale.ROOT, "%.1f", publishSeconds));
+
+        long deadline = begin + timeout.toNanos();
+        while ((smtp.messages() < expectedEmails || webhook.events() < expectedWebhookEvents)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        long delivered = smtp.messages() + webhook.events();
+
+        System.out.printf(Locale.ROOT, "%nNotification delivery: %d events, %d webhook(s), batch-size %s, concurrency %s, "
+                        + "max-pending %s, webhook latency %d ms, failure rate %.2f%n",
+                events, webhooks, batchSize, concurrency, maxPending, webhookLatency.toMillis(), failureRate);
+        System.out.printf(Locale.ROOT, "  delivered   %d of %d in %.1f s = %.0f deliveries/s (publish took %.1f s)%n",
+                delivered, expectedEmails + expectedWebhookEvents, seconds, delivered / seconds, publishSeconds);
+        System.out.printf(Locale.ROOT, "  email       %d messages in %d SMTP session(s), %.1f per session%n",
+                smtp.messages(), smtp.sessions(), smtp.messages() / (double) Math.max(1, smtp.sessions()));
+        System.out.printf(Locale.ROOT, "  webhook     %d events in %d request(s), %.1f per request, %d rejected with 503%n",
+                webhook.events(), webhook.requests(), webhook.events() / (double) Math.max(1, webhook.requests()),
+                webhook.rejected());
+        printDeliveryMetrics(client, dataProcessor.url());
+        if (delivered < expectedEmails + expectedWebhookEvents) {
+            throw new IllegalStateException("Not all notifications delivered within " + timeout
+                    + ", see " + outputDir.resolve("logs"));
+        }
+    }
+
+    /**
+     * Таблица resources обычно создаётся file-service; без неё аналитика на каждом событии ходит в БД
+     * с ошибкой, и прогон меряет эти запросы вместо доставки.
+     */
+    private static void seedResources(PostgresStandIn postgres) throws SQLException {
+        try (java.sql.Connection connection = DriverManager.getConnection(postgres.jdbcUrl(), DB_USER, DB_PASSWORD);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS resources (id BIGINT PRIMARY KEY, type VARCHAR(32) NOT NULL)");
+            statement.execute("INSERT INTO resources (id, type) SELECT g, 'MEETING_ROOM' FROM generate_series(1, "
+                    + RESOURCES + ") g ON CONFLICT DO NOTHING");
+        }
+    }
+
+    private static void publish(int port, int events) throws Exception {
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost("127.0.0.1");
+        factory.setPort(port);
+        BookingEventCodec codec = new BookingEventCodec();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 0);
+        try (Connection connection = factory.newConnection("notification-delivery-benchmark")) {
+            Channel channel = connection.createChannel();
+            channel.confirmSelect();
+            AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                    .contentType(BookingEventMessageConverter.CONTENT_TYPE)
+                    .headers(Map.of(BookingEventMessageConverter.VERSION_HEADER, BookingEventCodec.VERSION))
+                    .deliveryMode(2)
+                    .build();
+            for (int i = 0; i < events; i++) {
+                // Оба статуса, на которые уходит письмо
+                BookingEvent.Status status = i % 4 == 3 ? BookingEvent.Status.CANCELLED : BookingEvent.Status.CONFIRMED;
+                LocalDateTime from = start.plusHours(i % 500);
+                BookingEvent event = new BookingEvent(i + 1L, "bench-user-" + (i % 200), 1 + i % RESOURCES, status,
+                        status == BookingEvent.Status.CANCELLED ? BookingEvent.Status.CONFIRMED : null,
+                        from, from.plusHours(2), new BigDecimal("1250.00"));
+                channel.basicPublish(EXCHANGE, "booking." + status.name().toLowerCase(Locale.ROOT), properties,
+                        codec.encode(event));
+                if (i % 1000 == 999) {
+                    channel.waitForConfirmsOrDie(30_000);
+                }
+            }
+            channel.waitForConfirmsOrDie(30_000);
+        }
+    }
+
+    private static void printDeliveryMetrics(HttpClient client, String baseUrl) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus"))
+                    .timeout(Duration.ofSeconds(5)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            response.body().lines()
+                    .filter(line -> line.startsWith("booking_notifications_deliver"))
+                    .filter(line -> !line.contains("_bucket") && !line.contains("_max"))
+                    .forEach(line -> System.out.println("  " + line));
+        } catch (IOException | InterruptedException e) {
+            log.warn("Cannot read delivery metrics: {}", e.toString());
+        }
+    }
+
+    private static <T extends AutoCloseable> T push(Deque<AutoCloseable> started, T resource) {
+        started.push(resource);
+        return resource;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
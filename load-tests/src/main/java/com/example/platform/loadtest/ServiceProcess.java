@@ -0,0 +1,116 @@
+package com.example.platform.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис платформы, запущенный отдельной JVM из собранного *-exec.jar. Вывод пишется в logs/&lt;name&gt;.log.
+ * Процесс нужен потому, что у сервисов несовместимые classpath (WebFlux-шлюз и servlet-сервисы)
+ * и свои application.yml.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceProcess.class);
+
+    private final String name;
+    private final int port;
+    private final Process process;
+    private final Path logFile;
+
+    private ServiceProcess(String name, int port, Process process, Path logFile) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+        this.logFile = logFile;
+    }
+
+    static ServiceProcess start(String name, Path jar, List<String> jvmArgs, String mainClass, int port,
+                                Map<String, String> env, Path logDir) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found; build the services first (mvn -B package -DskipTests)");
+        }
+        Files.createDirectories(logDir);
+        Path logFile = logDir.resolve(name + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        if (mainClass == null) {
+            command.add("-jar");
+            command.add(jar.toString());
+        } else {
+            // Второй main-класс из того же jar (например, ReactiveBookingReadApplication)
+            command.add("-Dloader.main=" + mainClass);
+            command.add("-cp");
+            command.add(jar.toString());
+            command.add("org.springframework.boot.loader.launch.PropertiesLauncher");
+        }
+        command.add("--server.port=" + port);
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile());
+        builder.environment().putAll(env);
+        log.info("Starting {} on port {} (log: {})", name, port, logFile);
+        return new ServiceProcess(name, port, builder.start(), logFile);
+    }
+
+    String name() {
+        return name;
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    /**
+     * Ждёт readiness-пробы сервиса (/actuator/health/readiness).
+     */
+    void awaitReady(HttpClient client, Duration timeout) throws InterruptedException {
+        URI readiness = URI.create(url() + "/actuator/health/readiness");
+        Instant deadline = Instant.now().plus(timeout);
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(readiness)
+                        .timeout(Duration.ofSeconds(2)).GET().build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    log.info("{} is ready", name);
+                    return;
+                }
+            } catch (IOException e) {
+                // Ещё не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " was not ready within " + timeout + ", see " + logFile);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.platform.loadtest.standin;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Встроенный AMQP 0-9-1 брокер (Apache Qpid Broker-J) в памяти вместо RabbitMQ: Spring AMQP сервисов
+ * работает с ним без изменений. Пользователь guest/guest, любой virtual host отображается на единственный.
+ * TTL, dead-lettering и типы очередей RabbitMQ не эмулируются: повторы уведомлений в прогоне не возвращаются.
+ */
+public final class AmqpBrokerStandIn implements AutoCloseable {
+
+    private static final String INITIAL_CONFIG = "qpid-config.json";
+
+    private final SystemLauncher launcher;
+    private final int port;
+
+    private AmqpBrokerStandIn(SystemLauncher launcher, int port) {
+        this.launcher = launcher;
+        this.port = port;
+    }
+
+    public static AmqpBrokerStandIn start(int port, Path workDir) throws Exception {
+        URL config = AmqpBrokerStandIn.class.getClassLoader().getResource(INITIAL_CONFIG);
+        if (config == null) {
+            throw new IllegalStateException(INITIAL_CONFIG + " not found on classpath");
+        }
+        Files.createDirectories(workDir);
+
+        Map<String, String> context = new HashMap<>();
+        context.put("qpid.amqp_port", String.valueOf(port));
+        context.put("qpid.work_dir", workDir.toAbsolutePath().toString());
+        // Аргументы RabbitMQ (x-queue-type, x-message-ttl, x-dead-letter-*) Broker-J не поддерживает и по умолчанию
+        // закрывает соединение; игнорируя их, брокер поднимает топологию data-processor как обычные очереди
+        context.put("queue.behaviourOnUnknownDeclareArgument", "IGNORE");
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, config.toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, context);
+
+        SystemLauncher launcher = new SystemLauncher();
+        launcher.startup(attributes);
+        return new AmqpBrokerStandIn(launcher, port);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+}
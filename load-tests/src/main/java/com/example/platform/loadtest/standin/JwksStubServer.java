@@ -0,0 +1,181 @@
+package com.example.platform.loadtest.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Заглушка Keycloak для проверки JWT: JWKS и openid-configuration realm "app" по тем же путям, что у Keycloak,
+ * и выпуск токенов с realm_access.roles, подписанных тем же RSA-ключом.
+ * <p>
+ * Для регистрации через шлюз — минимальный Admin API: admin-токен realm master и создание пользователей
+ * realm "app" (201, 409 для занятого username, 400 без username, 401 с чужим токеном).
+ */
+public final class JwksStubServer implements AutoCloseable {
+
+    private static final String REALM_PATH = "/realms/app";
+    private static final String ADMIN_TOKEN_PATH = "/realms/master/protocol/openid-connect/token";
+    private static final String USERS_PATH = "/admin/realms/app/users";
+    private static final long ADMIN_TOKEN_LIFETIME_SECONDS = 60;
+
+    private final HttpServer server;
+    private final RSAKey key;
+    private final RSASSASigner signer;
+    private final byte[] jwks;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<String> adminTokens = ConcurrentHashMap.newKeySet();
+    private final Set<String> usernames = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger adminTokensIssued = new AtomicInteger();
+
+    private JwksStubServer(HttpServer server, RSAKey key) throws JOSEException {
+        this.server = server;
+        this.key = key;
+        this.signer = new RSASSASigner(key);
+        this.jwks = new JWKSet(key.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static JwksStubServer start(int port) throws IOException, JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        JwksStubServer stub = new JwksStubServer(server, key);
+        server.createContext(REALM_PATH + "/protocol/openid-connect/certs",
+                exchange -> stub.send(exchange, stub.jwks));
+        server.createContext(REALM_PATH + "/.well-known/openid-configuration",
+                exchange -> stub.send(exchange, stub.openidConfiguration()));
+        server.createContext(ADMIN_TOKEN_PATH, stub::issueAdminToken);
+        server.createContext(USERS_PATH, stub::createUser);
+        server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String issuer() {
+        return baseUrl() + REALM_PATH;
+    }
+
+    public String mintToken(String subject, List<String> roles, Duration lifetime) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer())
+                .subject(subject)
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(lifetime)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("preferred_username", subject)
+                .claim("realm_access", Map.of("roles", roles))
+                .claim("scope", "openid profile email")
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+            jwt.sign(signer);
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign token", e);
+        }
+    }
+
+    /**
+     * Сколько пользователей создано через Admin API.
+     */
+    public int createdUsers() {
+        return usernames.size();
+    }
+
+    /**
+     * Сколько раз шлюз запрашивал admin-токен: при кешировании — единицы за прогон.
+     */
+    public int adminTokensIssued() {
+        return adminTokensIssued.get();
+    }
+
+    private void issueAdminToken(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        String token = "stub-admin-" + UUID.randomUUID();
+        adminTokens.add(token);
+        adminTokensIssued.incrementAndGet();
+        send(exchange, ("{\"access_token\":\"" + token + "\",\"expires_in\":" + ADMIN_TOKEN_LIFETIME_SECONDS
+                + ",\"token_type\":\"Bearer\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void createUser(HttpExchange exchange) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (!"POST".equals(exchange.getRequestMethod()) || authorization == null
+                || !authorization.startsWith("Bearer ")
+                || !adminTokens.contains(authorization.substring("Bearer ".length()))) {
+            sendStatus(exchange, 401);
+            return;
+        }
+        JsonNode user;
+        try (InputStream body = exchange.getRequestBody()) {
+            user = objectMapper.readTree(body);
+        }
+        String username = user.path("username").asText("");
+        if (username.isBlank()) {
+            sendStatus(exchange, 400);
+        } else if (!usernames.add(username)) {
+            sendStatus(exchange, 409);
+        } else {
+            exchange.getResponseHeaders().set("Location", baseUrl() + USERS_PATH + "/" + UUID.randomUUID());
+            sendStatus(exchange, 201);
+        }
+    }
+
+    private void sendStatus(HttpExchange exchange, int status) throws IOException {
+        try (exchange) {
+            exchange.sendResponseHeaders(status, -1);
+        }
+    }
+
+    private byte[] openidConfiguration() {
+        String issuer = issuer();
+        return ("{\"issuer\":\"" + issuer + "\","
+                + "\"jwks_uri\":\"" + issuer + "/protocol/openid-connect/certs\","
+                + "\"token_endpoint\":\"" + issuer + "/protocol/openid-connect/token\","
+                + "\"subject_types_supported\":[\"public\"],"
+                + "\"id_token_signing_alg_values_supported\":[\"RS256\"]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void send(HttpExchange exchange, byte[] body) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.platform.loadtest.standin;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Встроенный PostgreSQL (бинарники из embedded-postgres-binaries, без Docker). Создаёт роль и базу,
+ * как в docker-compose; схемы создают сами сервисы при старте. Postgres не запускается от root.
+ */
+public final class PostgresStandIn implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final String database;
+
+    private PostgresStandIn(EmbeddedPostgres postgres, String database) {
+        this.postgres = postgres;
+        this.database = database;
+    }
+
+    public static PostgresStandIn start(String database, String user, String password, int maxConnections)
+            throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("max_connections", String.valueOf(maxConnections))
+                // Данные одноразовые: надёжность записи не нужна, важна пропускная способность
+                .setServerConfig("fsync", "off")
+                .setServerConfig("synchronous_commit", "off")
+                .setServerConfig("full_page_writes", "off")
+                .start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ROLE " + user + " LOGIN SUPERUSER PASSWORD '" + password + "'");
+            statement.execute("CREATE DATABASE " + database + " OWNER " + user);
+        }
+        return new PostgresStandIn(postgres, database);
+    }
+
+    public int port() {
+        return postgres.getPort();
+    }
+
+    public String jdbcUrl() {
+        return "jdbc:postgresql://127.0.0.1:" + port() + "/" + database;
+    }
+
+    public String r2dbcUrl() {
+        return "r2dbc:postgresql://127.0.0.1:" + port() + "/" + database;
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
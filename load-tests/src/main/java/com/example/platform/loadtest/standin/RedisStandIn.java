@@ -0,0 +1,40 @@
+package com.example.platform.loadtest.standin;
+
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+
+/**
+ * Встроенный Redis (бинарник из embedded-redis) без персистентности.
+ */
+public final class RedisStandIn implements AutoCloseable {
+
+    private final RedisServer server;
+    private final int port;
+
+    private RedisStandIn(RedisServer server, int port) {
+        this.server = server;
+        this.port = port;
+    }
+
+    public static RedisStandIn start(int port) throws IOException {
+        RedisServer server = RedisServer.newRedisServer()
+                .bind("127.0.0.1")
+                .port(port)
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .setting("maxclients 10000")
+                .build();
+        server.start();
+        return new RedisStandIn(server, port);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop();
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.platform.loadtest.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * S3-совместимое хранилище в памяти вместо MinIO: ровно те операции, которые вызывает MinioClient
+ * в file-service (bucketExists, makeBucket, putObject, getObject, listObjects, removeObject)
+ * в path-style адресации. Подписи запросов не проверяются.
+ */
+public final class S3StubServer implements AutoCloseable {
+
+    private static final String XMLNS = "http://s3.amazonaws.com/doc/2006-03-01/";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, NavigableMap<String, StoredObject>> buckets = new ConcurrentHashMap<>();
+
+    private S3StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static S3StubServer start(int port, String... bucketNames) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        S3StubServer stub = new S3StubServer(server, executor);
+        for (String bucket : bucketNames) {
+            stub.buckets.put(bucket, new ConcurrentSkipListMap<>());
+        }
+        server.createContext("/", stub::handle);
+        server.setExecutor(executor);
+        server.start();
+        return stub;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            String trimmed = path.startsWith("/") ? path.substring(1) : path;
+            int slash = trimmed.indexOf('/');
+            String bucket = slash < 0 ? trimmed : trimmed.substring(0, slash);
+            String key = slash < 0 ? "" : trimmed.substring(slash + 1);
+            String method = exchange.getRequestMethod();
+            if ("HEAD".equals(method)) {
+                // HttpServer закрывает соединение после HEAD, не сообщая об этом: без явного заголовка
+                // OkHttp (MinioClient) отправляет следующий PUT в уже закрытый сокет
+                exchange.getResponseHeaders().set("Connection", "close");
+            }
+
+            if (bucket.isEmpty()) {
+                send(exchange, 405, null);
+            } else if (key.isEmpty()) {
+                handleBucket(exchange, method, bucket, query);
+            } else {
+                handleObject(exchange, method, bucket, key);
+            }
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String method, String bucket, String query) throws IOException {
+        NavigableMap<String, StoredObject> objects = buckets.get(bucket);
+        switch (method) {
+            case "PUT" -> {
+                buckets.putIfAbsent(bucket, new ConcurrentSkipListMap<>());
+                send(exchange, 200, null);
+            }
+            case "HEAD" -> send(exchange, objects != null ? 200 : 404, null);
+            case "GET" -> {
+                if (objects == null) {
+                    sendError(exchange, 404, "NoSuchBucket", bucket);
+                } else if (query != null && query.contains("location")) {
+                    sendXml(exchange, "<LocationConstraint xmlns=\"" + XMLNS + "\">us-east-1</LocationConstraint>");
+                } else {
+                    sendXml(exchange, listObjects(bucket, objects, queryParam(query, "prefix")));
+                }
+            }
+            default -> send(exchange, 405, null);
+        }
+    }
+
+    private void handleObject(HttpExchange exchange, String method, String bucket, String key) throws IOException {
+        NavigableMap<String, StoredObject> objects = buckets.get(bucket);
+        if (objects == null) {
+            sendError(exchange, 404, "NoSuchBucket", bucket);
+            return;
+        }
+        switch (method) {
+            case "PUT" -> {
+                byte[] data = exchange.getRequestBody().readAllBytes();
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                StoredObject object = new StoredObject(data, contentType, md5(data), Instant.now());
+                objects.put(key, object);
+                exchange.getResponseHeaders().set("ETag", object.etag());
+                send(exchange, 200, null);
+            }
+            case "GET", "HEAD" -> {
+                StoredObject object = objects.get(key);
+                if (object == null) {
+                    sendError(exchange, 404, "NoSuchKey", bucket + "/" + key);
+                    return;
+                }
+                exchange.getResponseHeaders().set("ETag", object.etag());
+                exchange.getResponseHeaders().set("Content-Type",
+                        object.contentType() != null ? object.contentType() : "application/octet-stream");
+                exchange.getResponseHeaders().set("Last-Modified",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(object.lastModified().atOffset(ZoneOffset.UTC)));
+                if ("HEAD".equals(method)) {
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.data().length));
+                    exchange.sendResponseHeaders(200, -1);
+                } else {
+                    send(exchange, 200, object.data());
+                }
+            }
+            case "DELETE" -> {
+                objects.remove(key);
+                send(exchange, 204, null);
+            }
+            default -> send(exchange, 405, null);
+        }
+    }
+
+    private static String listObjects(String bucket, NavigableMap<String, StoredObject> objects, String prefix) {
+        Map<String, StoredObject> matching = prefix == null || prefix.isEmpty()
+                ? objects
+                : objects.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        StringBuilder xml = new StringBuilder("<ListBucketResult xmlns=\"").append(XMLNS).append("\">")
+                .append("<Name>").append(escape(bucket)).append("</Name>")
+                .append("<Prefix>").append(prefix != null ? escape(prefix) : "").append("</Prefix>")
+                .append("<KeyCount>").append(matching.size()).append("</KeyCount>")
+                .append("<MaxKeys>").append(Math.max(1000, matching.size())).append("</MaxKeys>")
+                .append("<IsTruncated>false</IsTruncated>");
+        matching.forEach((key, object) -> xml.append("<Contents>")
+                .append("<Key>").append(escape(key)).append("</Key>")
+                .append("<LastModified>").append(object.lastModified().truncatedTo(ChronoUnit.MILLIS)).append("</LastModified>")
+                .append("<ETag>").append(escape(object.etag())).append("</ETag>")
+                .append("<Size>").append(object.data().length).append("</Size>")
+                .append("<StorageClass>STANDARD</StorageClass>")
+                .append("</Contents>"));
+        return xml.append("</ListBucketResult>").toString();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String resource) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        send(exchange, status, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code>"
+                + "<Message>" + code + "</Message><Resource>/" + escape(resource) + "</Resource>"
+                + "<RequestId>stub</RequestId><HostId>stub</HostId></Error>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendXml(HttpExchange exchange, String body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        send(exchange, 200, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String queryParam(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String md5(byte[] data) {
+        try {
+            return '"' + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private record StoredObject(byte[] data, String contentType, String etag, Instant lastModified) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.platform.loadtest.standin;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMTP-приёмник в духе GreenMail, только без хранения писем: принимает любые MAIL FROM / RCPT TO,
+ * дочитывает DATA до точки и считает письма и сессии (число сессий показывает, переиспользует ли
+ * отправитель соединение). Поток на соединение; ESMTP-расширения не объявляются.
+ */
+public final class SmtpSinkServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpSinkServer.class);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+
+    private SmtpSinkServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    public static SmtpSinkServer start(int port) throws IOException {
+        SmtpSinkServer sink = new SmtpSinkServer(new ServerSocket(port, 256, InetAddress.getLoopbackAddress()));
+        Thread acceptor = new Thread(sink::acceptLoop, "smtp-sink-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return sink;
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long messages() {
+        return messages.get();
+    }
+
+    public long sessions() {
+        return sessions.get();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // close()
+            } catch (IOException e) {
+                log.warn("SMTP sink accept failed: {}", e.toString());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        sessions.incrementAndGet();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 smtp-sink ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 smtp-sink");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data;
+                        while ((data = in.readLine()) != null && !data.equals(".")) {
+                            // Тело не нужно
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    // MAIL, RCPT, RSET, NOOP и прочее принимается без проверок
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("SMTP sink session ended: {}", e.toString());
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
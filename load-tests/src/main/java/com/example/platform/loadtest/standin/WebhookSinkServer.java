@@ -0,0 +1,94 @@
+package com.example.platform.loadtest.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Получатель webhook'ов data-processor: принимает POST с JSON-массивом событий на любой путь под /hooks/
+ * и считает запросы и события. {@code latency} имитирует обработку на стороне получателя,
+ * {@code failureRate} — долю ответов 503, на которых проверяются повторы с jitter'ом.
+ */
+public final class WebhookSinkServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Duration latency;
+    private final double failureRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private WebhookSinkServer(HttpServer server, ExecutorService executor, Duration latency, double failureRate) {
+        this.server = server;
+        this.executor = executor;
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    public static WebhookSinkServer start(int port, Duration latency, double failureRate) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        server.setExecutor(executor);
+        WebhookSinkServer sink = new WebhookSinkServer(server, executor, latency, failureRate);
+        server.createContext("/hooks/", sink::handle);
+        server.start();
+        return sink;
+    }
+
+    public String url(String name) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/hooks/" + name;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long events() {
+        return events.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            JsonNode body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = MAPPER.readTree(in);
+            }
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                rejected.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            requests.incrementAndGet();
+            events.addAndGet(body.isArray() ? body.size() : 1);
+            exchange.sendResponseHeaders(204, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.platform.loadtest.workload;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Подписчики SSE-потока GET /bookings/stream: держат соединения открытыми весь прогон и только считают
+ * события. Разбор строк — асинхронный (line subscriber), поэтому тысяча соединений не занимает
+ * тысячу потоков и нагрузка ложится на шлюз и booking-read-service, а не на сам прогон.
+ */
+public final class BookingStreamClients implements AutoCloseable {
+
+    // Одновременно устанавливаемых подключений: разом открытые сотни соединений меряют не поток, а accept
+    private static final int CONNECT_WINDOW = 32;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<String> tokens;
+    private final int count;
+    private final AtomicInteger opened = new AtomicInteger();
+    private final List<CompletableFuture<?>> connections = new CopyOnWriteArrayList<>();
+    private final AtomicLong ready = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private BookingStreamClients(HttpClient client, String baseUrl, List<String> tokens, int count) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.tokens = tokens;
+        this.count = count;
+    }
+
+    /**
+     * Открывает {@code count} потоков, раздавая токены по кругу: брони, которые создают и отменяют
+     * виртуальные пользователи с теми же subject, приходят в эти потоки. Следующее подключение
+     * начинается, когда предыдущее получило заголовки ответа или завершилось ошибкой.
+     */
+    public static BookingStreamClients open(HttpClient client, String baseUrl, List<String> tokens, int count) {
+        BookingStreamClients clients = new BookingStreamClients(client, baseUrl, tokens, count);
+        for (int i = 0; i < Math.min(CONNECT_WINDOW, count); i++) {
+            clients.openNext();
+        }
+        return clients;
+    }
+
+    /**
+     * Сколько потоков получили событие ready — подписка оформлена и соединение открыто.
+     */
+    public long ready() {
+        return ready.get();
+    }
+
+    public long events() {
+        return events.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    private void openNext() {
+        int i = opened.getAndIncrement();
+        if (i >= count) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/stream"))
+                .header("Authorization", "Bearer " + tokens.get(i % tokens.size()))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        // Окно сдвигается один раз на подключение: по заголовкам ответа или по ошибке до них
+        AtomicBoolean advanced = new AtomicBoolean();
+        Runnable advance = () -> {
+            if (advanced.compareAndSet(false, true)) {
+                openNext();
+            }
+        };
+        connections.add(client.sendAsync(request, info -> {
+                    advance.run();
+                    return subscribe(info);
+                })
+                .whenComplete((response, error) -> {
+                    if (error != null || response.statusCode() != 200) {
+                        failed.incrementAndGet();
+                    }
+                    advance.run();
+                }));
+    }
+
+    private HttpResponse.BodySubscriber<Void> subscribe(HttpResponse.ResponseInfo info) {
+        if (info.statusCode() != 200) {
+            return HttpResponse.BodySubscribers.discarding();
+        }
+        return HttpResponse.BodySubscribers.fromLineSubscriber(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String line) {
+                if (line.startsWith("event:ready")) {
+                    ready.incrementAndGet();
+                } else if (line.startsWith("event:booking")) {
+                    events.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // Обрыв при остановке прогона
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        connections.forEach(connection -> connection.cancel(true));
+    }
+}
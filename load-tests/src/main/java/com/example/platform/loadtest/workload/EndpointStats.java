@@ -0,0 +1,89 @@
+package com.example.platform.loadtest.workload;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика одного эндпоинта: гистограмма задержек (HdrHistogram, микросекунды, до 5 минут
+ * с тремя значащими цифрами) и счётчики ответов по классам.
+ */
+public final class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final Histogram accumulated = new Histogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    void recordResponse(int status, long latencyNanos) {
+        recordLatency(latencyNanos);
+        if (status < 400) {
+            ok.increment();
+        } else if (status < 500 && status != 429) {
+            // 4xx — ожидаемые отказы (конфликт брони, нет доступа); 429 — запрос не обслужен, это ошибка
+            rejected.increment();
+        } else {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(String.valueOf(status), k -> new LongAdder()).increment();
+    }
+
+    void recordFailure(Throwable failure, long latencyNanos) {
+        recordLatency(latencyNanos);
+        errors.increment();
+        outcomes.computeIfAbsent(failure.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    private void recordLatency(long latencyNanos) {
+        recorder.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+    }
+
+    /**
+     * Сбрасывает всё накопленное (после прогрева).
+     */
+    synchronized void reset() {
+        recorder.reset();
+        accumulated.reset();
+        ok.reset();
+        rejected.reset();
+        errors.reset();
+        outcomes.clear();
+    }
+
+    synchronized Snapshot snapshot() {
+        accumulated.add(recorder.getIntervalHistogram());
+        Map<String, Long> byOutcome = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> byOutcome.put(outcome, count.sum()));
+        return new Snapshot(name, accumulated.copy(), ok.sum(), rejected.sum(), errors.sum(), byOutcome);
+    }
+
+    public record Snapshot(String name, Histogram latencyMicros, long ok, long rejected, long errors,
+                           Map<String, Long> outcomes) {
+
+        public long total() {
+            return ok + rejected + errors;
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencyMicros.getTotalCount() == 0 ? 0 : latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
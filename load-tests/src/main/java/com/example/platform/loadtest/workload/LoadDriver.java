@@ -0,0 +1,69 @@
+package com.example.platform.loadtest.workload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Закрытая модель нагрузки: каждый виртуальный пользователь отправляет следующий запрос сразу после
+ * ответа на предыдущий. Потоки не блокируются — цепочка продолжается в колбэке HttpClient.
+ */
+public final class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    private final Workload workload;
+    private final LoadStats stats;
+    private final List<VirtualUser> users;
+    private volatile boolean running;
+    private CountDownLatch finished;
+
+    public LoadDriver(Workload workload, LoadStats stats, List<VirtualUser> users) {
+        this.workload = workload;
+        this.stats = stats;
+        this.users = users;
+    }
+
+    /**
+     * Прогрев, сброс статистики и измерение.
+     *
+     * @return фактическая длительность измерения
+     */
+    public Duration run(Duration warmup, Duration duration) throws InterruptedException {
+        running = true;
+        finished = new CountDownLatch(users.size());
+        users.forEach(this::loop);
+
+        log.info("Warming up for {} with {} virtual users", warmup, users.size());
+        Thread.sleep(warmup.toMillis());
+        stats.reset();
+        long started = System.nanoTime();
+        log.info("Measuring for {}", duration);
+        Thread.sleep(duration.toMillis());
+        running = false;
+        Duration measured = Duration.ofNanos(System.nanoTime() - started);
+
+        // Ответы на запросы, отправленные до остановки, ещё попадают в статистику
+        if (!finished.await(60, TimeUnit.SECONDS)) {
+            log.warn("{} virtual users did not finish in-flight requests", finished.getCount());
+        }
+        return measured;
+    }
+
+    private void loop(VirtualUser user) {
+        if (!running) {
+            finished.countDown();
+            return;
+        }
+        workload.next(user).whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                log.debug("Scenario failed: {}", failure.toString());
+            }
+            loop(user);
+        });
+    }
+}
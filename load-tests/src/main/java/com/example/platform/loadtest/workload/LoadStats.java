@@ -0,0 +1,29 @@
+package com.example.platform.loadtest.workload;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Статистика прогона по эндпоинтам (метод + шаблон пути).
+ */
+public final class LoadStats {
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    EndpointStats endpoint(String name) {
+        return endpoints.computeIfAbsent(name, EndpointStats::new);
+    }
+
+    public void reset() {
+        endpoints.values().forEach(EndpointStats::reset);
+    }
+
+    public List<EndpointStats.Snapshot> snapshot() {
+        return endpoints.values().stream()
+                .map(EndpointStats::snapshot)
+                .sorted(Comparator.comparing(EndpointStats.Snapshot::name))
+                .toList();
+    }
+}
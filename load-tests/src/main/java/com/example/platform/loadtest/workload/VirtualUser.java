@@ -0,0 +1,50 @@
+package com.example.platform.loadtest.workload;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+/**
+ * Виртуальный пользователь: токен одного из subject и его последние созданные брони.
+ * Используется одним потоком выполнения за раз (следующий запрос — после ответа на предыдущий).
+ */
+public final class VirtualUser {
+
+    private static final int MAX_REMEMBERED_BOOKINGS = 20;
+
+    private final String bearerToken;
+    private final SplittableRandom random;
+    private final Deque<Long> bookingIds = new ArrayDeque<>();
+
+    public VirtualUser(String bearerToken, long seed) {
+        this.bearerToken = bearerToken;
+        this.random = new SplittableRandom(seed);
+    }
+
+    String authorization() {
+        return "Bearer " + bearerToken;
+    }
+
+    SplittableRandom random() {
+        return random;
+    }
+
+    synchronized void rememberBooking(long id) {
+        if (bookingIds.size() == MAX_REMEMBERED_BOOKINGS) {
+            bookingIds.removeFirst();
+        }
+        bookingIds.addLast(id);
+    }
+
+    synchronized Long anyBooking() {
+        if (bookingIds.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(bookingIds.size());
+        return bookingIds.stream().skip(index).findFirst().orElse(null);
+    }
+
+    synchronized Long takeBooking() {
+        return bookingIds.pollFirst();
+    }
+}
@@ -0,0 +1,408 @@
+package com.example.platform.loadtest.workload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Сценарии нагрузки через api-gateway: доступность, ресурсы, брони (создание, просмотр, отмена), файлы
+ * и регистрация пользователей.
+ * Каждый вызов {@link #next(VirtualUser)} выбирает сценарий по весам и выполняет один запрос.
+ */
+public final class Workload {
+
+    private static final Logger log = LoggerFactory.getLogger(Workload.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int FILE_SIZE = 32 * 1024;
+    private static final int REMEMBERED_FILES = 256;
+    private static final String BOUNDARY = "load-test-boundary";
+
+    private final HttpClient client;
+    private final String gatewayUrl;
+    private final LoadStats stats;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> resourceIds = new ArrayList<>();
+    private final AtomicReferenceArray<StoredFile> files = new AtomicReferenceArray<>(REMEMBERED_FILES);
+    private final AtomicInteger filesWritten = new AtomicInteger();
+    private final AtomicLong duplicateBookings = new AtomicLong();
+    private final AtomicLong issuedUsernames = new AtomicLong();
+    private final Map<Integer, AtomicLong> bulkResults = new ConcurrentSkipListMap<>();
+    private volatile String adminAuthorization;
+    private final String[] scenarios;
+    private final int[] cumulativeWeights;
+    private final byte[] fileContent = new byte[FILE_SIZE];
+    private final LocalDateTime horizonStart = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    public Workload(HttpClient client, String gatewayUrl, LoadStats stats, Map<String, Integer> mix) {
+        this.client = client;
+        this.gatewayUrl = gatewayUrl;
+        this.stats = stats;
+        this.scenarios = mix.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[scenarios.length];
+        int sum = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            sum += mix.get(scenarios[i]);
+            cumulativeWeights[i] = sum;
+        }
+        new SplittableRandom(7).nextBytes(fileContent);
+    }
+
+    /**
+     * Создаёт ресурсы (нужна роль admin) и по файлу на ресурс, чтобы скачивание работало с первой секунды.
+     */
+    public void seed(String adminToken, int resources) throws IOException, InterruptedException {
+        adminAuthorization = "Bearer " + adminToken;
+        for (int i = 1; i <= resources; i++) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "name", "Load test room " + i,
+                    "description", "Created by load-tests",
+                    "type", "MEETING_ROOM",
+                    "pricePerHour", 100 + i,
+                    "capacity", 4 + i % 20,
+                    "available", true));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(gatewayUrl + "/resources"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + adminToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Failed to create resource: " + response.statusCode() + " " + response.body());
+            }
+            long id = objectMapper.readTree(response.body()).path("id").asLong();
+            resourceIds.add(id);
+
+            String name = "seed-" + id + ".bin";
+            HttpResponse<String> upload = client.send(uploadRequest("Bearer " + adminToken, id, name),
+                    HttpResponse.BodyHandlers.ofString());
+            if (upload.statusCode() == 200) {
+                rememberFile(new StoredFile(id, name));
+            } else {
+                log.warn("Seed upload for resource {} failed: {} {}", id, upload.statusCode(), upload.body());
+            }
+        }
+        log.info("Seeded {} resources", resourceIds.size());
+    }
+
+    public CompletableFuture<Void> next(VirtualUser user) {
+        SplittableRandom random = user.random();
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (cumulativeWeights[index] <= pick) {
+            index++;
+        }
+        return switch (scenarios[index]) {
+            case "availability" -> availability(user);
+            case "getResource" -> get(user, "GET /resources/{id}", "/resources/" + randomResource(random));
+            case "listResources" -> get(user, "GET /resources", "/resources");
+            case "listMyBookings" -> get(user, "GET /bookings", "/bookings");
+            case "getBooking" -> getBooking(user);
+            case "createBooking" -> createBooking(user);
+            case "retriedBooking" -> retriedBooking(user);
+            case "waitlistBooking" -> waitlistBooking(user);
+            case "cancelBooking" -> cancelBooking(user);
+            case "uploadFile" -> uploadFile(user);
+            case "downloadFile" -> downloadFile(user);
+            case "register" -> register(user);
+            case "bulkRegister" -> bulkRegister(user);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenarios[index]);
+        };
+    }
+
+    private CompletableFuture<Void> availability(VirtualUser user) {
+        LocalDateTime start = randomSlot(user.random());
+        LocalDateTime end = start.plusHours(1 + user.random().nextInt(3));
+        return get(user, "GET /bookings/availability", "/bookings/availability?resourceId="
+                + randomResource(user.random()) + "&startTime=" + start + "&endTime=" + end);
+    }
+
+    private CompletableFuture<Void> getBooking(VirtualUser user) {
+        Long id = user.anyBooking();
+        if (id == null) {
+            return get(user, "GET /bookings", "/bookings");
+        }
+        return get(user, "GET /bookings/{id}", "/bookings/" + id);
+    }
+
+    private CompletableFuture<Void> createBooking(VirtualUser user) {
+        HttpRequest request = createBookingRequest(user, UUID.randomUUID().toString());
+        return call("POST /bookings", request).thenAccept(response -> {
+            if (response != null && response.statusCode() == 201) {
+                user.rememberBooking(readId(response.body()));
+            }
+        });
+    }
+
+    /**
+     * Клиент, не дождавшийся ответа: через случайные 0-500 мс тот же запрос с тем же Idempotency-Key
+     * уходит повторно, не дожидаясь первого. Повтор должен получить ту же бронь (или 409, пока первый
+     * выполняется), а не вторую.
+     */
+    private CompletableFuture<Void> retriedBooking(VirtualUser user) {
+        HttpRequest request = createBookingRequest(user, UUID.randomUUID().toString());
+        CompletableFuture<HttpResponse<String>> first = call("POST /bookings", request);
+        Executor delayed = CompletableFuture.delayedExecutor(user.random().nextInt(500), TimeUnit.MILLISECONDS);
+        CompletableFuture<HttpResponse<String>> retry = CompletableFuture.runAsync(() -> { }, delayed)
+                .thenCompose(ignored -> call("POST /bookings (retry)", request));
+        return first.thenCombine(retry, (original, repeated) -> {
+            if (original != null && original.statusCode() == 201) {
+                long id = readId(original.body());
+                user.rememberBooking(id);
+                if (repeated != null && repeated.statusCode() == 201 && readId(repeated.body()) != id) {
+                    duplicateBookings.incrementAndGet();
+                    log.warn("Retry with the same Idempotency-Key created booking {} besides {}",
+                            readId(repeated.body()), id);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Сколько повторов с тем же Idempotency-Key создали вторую бронь (должно быть 0).
+     */
+    public long duplicateBookings() {
+        return duplicateBookings.get();
+    }
+
+    /**
+     * Пользователь, получивший отказ по занятости (400), встаёт в лист ожидания на тот же интервал;
+     * бронь по заявке booking-service создаст сам, когда cancelBooking освободит интервал.
+     */
+    private CompletableFuture<Void> waitlistBooking(VirtualUser user) {
+        String body = bookingBody(user);
+        HttpRequest create = request(user, "/bookings")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return call("POST /bookings", create).thenCompose(response -> {
+            if (response == null || response.statusCode() != 400) {
+                if (response != null && response.statusCode() == 201) {
+                    user.rememberBooking(readId(response.body()));
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            HttpRequest join = request(user, "/bookings/waitlist")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            return call("POST /bookings/waitlist", join).thenAccept(ignored -> { });
+        });
+    }
+
+    private HttpRequest createBookingRequest(VirtualUser user, String idempotencyKey) {
+        String body = bookingBody(user);
+        return request(user, "/bookings")
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String bookingBody(VirtualUser user) {
+        LocalDateTime start = randomSlot(user.random());
+        LocalDateTime end = start.plusHours(1 + user.random().nextInt(3));
+        return "{\"resourceId\":" + randomResource(user.random())
+                + ",\"startTime\":\"" + start + "\",\"endTime\":\"" + end + "\",\"notes\":\"load test\"}";
+    }
+
+    private CompletableFuture<Void> cancelBooking(VirtualUser user) {
+        Long id = user.takeBooking();
+        if (id == null) {
+            return createBooking(user);
+        }
+        return call("DELETE /bookings/{id}", request(user, "/bookings/" + id).DELETE().build())
+                .thenAccept(response -> { });
+    }
+
+    /**
+     * Самостоятельная регистрация без токена; примерно каждая десятая — с уже занятым username (ждём 409).
+     */
+    private CompletableFuture<Void> register(VirtualUser user) {
+        String body = registrationBody(pickUsername(user.random()), true);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(gatewayUrl + "/auth/register"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return call("POST /auth/register", request).thenAccept(response -> { });
+    }
+
+    /**
+     * Пакет из 10 пользователей от admin в NDJSON: 8 новых, один занятый и один без пароля.
+     * Статусы строк ответа копятся в {@link #bulkResults()}.
+     */
+    private CompletableFuture<Void> bulkRegister(VirtualUser user) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            body.append(registrationBody(newUsername(), true)).append('\n');
+        }
+        body.append(registrationBody(pickUsername(user.random()), true)).append('\n');
+        body.append(registrationBody(newUsername(), false)).append('\n');
+        HttpRequest request = HttpRequest.newBuilder(URI.create(gatewayUrl + "/auth/register/bulk"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", adminAuthorization)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return call("POST /auth/register/bulk", request).thenAccept(response -> {
+            if (response == null || response.statusCode() != 200) {
+                return;
+            }
+            for (String line : response.body().split("\n")) {
+                if (!line.isBlank()) {
+                    try {
+                        int status = objectMapper.readTree(line).path("status").asInt();
+                        bulkResults.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+                    } catch (IOException e) {
+                        bulkResults.computeIfAbsent(0, s -> new AtomicLong()).incrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Статус строки пакетной регистрации -> сколько таких строк пришло (0 — строка не разобрана).
+     */
+    public Map<Integer, AtomicLong> bulkResults() {
+        return bulkResults;
+    }
+
+    private String newUsername() {
+        return "lt-user-" + issuedUsernames.getAndIncrement();
+    }
+
+    private String pickUsername(SplittableRandom random) {
+        long registered = issuedUsernames.get();
+        if (registered > 0 && random.nextInt(10) == 0) {
+            return "lt-user-" + random.nextLong(registered);
+        }
+        return newUsername();
+    }
+
+    private String registrationBody(String username, boolean withPassword) {
+        Map<String, String> user = new LinkedHashMap<>();
+        user.put("username", username);
+        user.put("email", username + "@load.test");
+        if (withPassword) {
+            user.put("password", "load-test");
+        }
+        try {
+            return objectMapper.writeValueAsString(user);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CompletableFuture<Void> uploadFile(VirtualUser user) {
+        long resourceId = randomResource(user.random());
+        String name = "lt-" + UUID.randomUUID() + ".bin";
+        return call("POST /files", uploadRequest(user.authorization(), resourceId, name)).thenAccept(response -> {
+            if (response != null && response.statusCode() == 200) {
+                rememberFile(new StoredFile(resourceId, name));
+            }
+        });
+    }
+
+    private CompletableFuture<Void> downloadFile(VirtualUser user) {
+        int written = Math.min(filesWritten.get(), REMEMBERED_FILES);
+        StoredFile file = written == 0 ? null : files.get(user.random().nextInt(written));
+        if (file == null) {
+            return uploadFile(user);
+        }
+        return get(user, "GET /files/download", "/files/download?resourceId=" + file.resourceId()
+                + "&name=" + URLEncoder.encode(file.name(), StandardCharsets.UTF_8));
+    }
+
+    private CompletableFuture<Void> get(VirtualUser user, String endpoint, String path) {
+        return call(endpoint, request(user, path).GET().build()).thenAccept(response -> { });
+    }
+
+    private CompletableFuture<HttpResponse<String>> call(String endpoint, HttpRequest request) {
+        EndpointStats endpointStats = stats.endpoint(endpoint);
+        long started = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long latency = System.nanoTime() - started;
+                    if (failure != null) {
+                        endpointStats.recordFailure(failure.getCause() != null ? failure.getCause() : failure, latency);
+                        return null;
+                    }
+                    endpointStats.recordResponse(response.statusCode(), latency);
+                    return response;
+                });
+    }
+
+    private HttpRequest.Builder request(VirtualUser user, String path) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", user.authorization());
+    }
+
+    private HttpRequest uploadRequest(String authorization, long resourceId, String name) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + name + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + "/files?resourceId=" + resourceId))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(head, fileContent, tail)))
+                .build();
+    }
+
+    private void rememberFile(StoredFile file) {
+        files.set(filesWritten.getAndIncrement() % REMEMBERED_FILES, file);
+    }
+
+    private long randomResource(SplittableRandom random) {
+        return resourceIds.get(random.nextInt(resourceIds.size()));
+    }
+
+    /**
+     * Начало слота с точностью до часа в ближайшие 60 дней: часть слотов пересекается, как в жизни.
+     */
+    private LocalDateTime randomSlot(SplittableRandom random) {
+        return horizonStart.plusHours(random.nextInt(60 * 24));
+    }
+
+    private long readId(String body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node.path("id").asLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private record StoredFile(long resourceId, String name) {
+    }
+}
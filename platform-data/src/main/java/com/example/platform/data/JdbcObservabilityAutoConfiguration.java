@@ -0,0 +1,91 @@
+package com.example.platform.data;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Оборачивает основной DataSource в datasource-proxy: таймер db.statements по каждому
+ * JDBC-вызову и лог медленных запросов (вместе с параметрами) в логгер jdbc.slow-query.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ProxyDataSourceBuilder.class)
+public class JdbcObservabilityAutoConfiguration {
+
+    static final String SLOW_QUERY_LOGGER = "jdbc.slow-query";
+
+    @Bean
+    public static BeanPostProcessor jdbcObservabilityPostProcessor(Environment environment,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        Duration threshold = environment.getProperty("app.jdbc.slow-query-threshold", Duration.class,
+                Duration.ofMillis(500));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Только бин "dataSource": пулы primary/реплик под ним не оборачиваем, иначе запросы посчитаются дважды
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .logSlowQueryBySlf4j(threshold.toMillis(), TimeUnit.MILLISECONDS,
+                                SLF4JLogLevel.WARN, SLOW_QUERY_LOGGER)
+                        .listener(new StatementMetricsListener(meterRegistry))
+                        .build();
+            }
+        };
+    }
+
+    static class StatementMetricsListener implements QueryExecutionListener {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        // Реестр резолвится лениво: post-processor создаётся раньше, чем MeterRegistry
+        private volatile MeterRegistry registry;
+
+        StatementMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            MeterRegistry registry = this.registry;
+            if (registry == null) {
+                registry = meterRegistry.getIfAvailable();
+                if (registry == null) {
+                    return;
+                }
+                this.registry = registry;
+            }
+            String type = queryInfoList.isEmpty()
+                    ? "OTHER"
+                    : QueryUtils.getQueryType(queryInfoList.get(0).getQuery()).name();
+            Timer.builder("db.statements")
+                    .description("JDBC statement execution time")
+                    .tag("type", type)
+                    .tag("batch", String.valueOf(execInfo.isBatch()))
+                    .tag("outcome", execInfo.isSuccess() ? "SUCCESS" : "ERROR")
+                    .register(registry)
+                    .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.platform.data;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Включает маршрутизацию readOnly-транзакций на реплики Postgres в сервисах, подключивших platform-data.
+ * Пока app.datasource.replicas.enabled=false, используется обычный DataSource из DataSourceAutoConfiguration;
+ * иначе она отступает, увидев здешний dataSource.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replicas.urls}") String[] urls,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.max-lag:PT5S}") Duration maxLag,
+            @Value("${app.datasource.replicas.check-interval:PT5S}") Duration checkInterval
+    ) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setMaximumPoolSize(poolSize);
+            // Таймауты и настройки драйвера (кеш prepared statements и т.п.) — как у primary
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replica.setReadOnly(true);
+            // Пул не должен падать при старте, если реплика недоступна: её просто не будет в ротации
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, checkInterval, meterRegistry);
+    }
+
+    /**
+     * Ленивый прокси откладывает выбор цели до первого запроса, когда флаг readOnly транзакции уже выставлен.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
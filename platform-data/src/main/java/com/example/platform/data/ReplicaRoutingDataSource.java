@@ -0,0 +1,144 @@
+package com.example.platform.data;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отправляет соединения readOnly-транзакций на реплики (round-robin), остальные — на primary.
+ * Реплика участвует в ротации, только пока её отставание не превышает maxLag; если здоровых
+ * реплик нет, чтение уходит на primary.
+ * <p>
+ * Должен использоваться через LazyConnectionDataSourceProxy: физическое соединение берётся
+ * только после того, как транзакция помечена readOnly.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-lag-checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, Duration maxLag,
+                                    Duration checkInterval, MeterRegistry meterRegistry) {
+        this.maxLag = maxLag;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routedConnections.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.pool);
+            routedConnections.put(replica.name, routedCounter(meterRegistry, replica.name));
+            Gauge.builder("db.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("target", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("target", replica.name)
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        // Первая проверка сразу, но в фоне: соединение в конструкторе записывает метрики Hikari, а экземпляры
+        // Prometheus запрашивают трассировщик из ещё не поднятого контекста — взаимная блокировка на старте
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas,
+                0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicas.isEmpty()) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (replica.healthy) {
+                    routedConnections.get(replica.name).increment();
+                    return replica.name;
+                }
+            }
+        }
+        routedConnections.get(PRIMARY).increment();
+        return PRIMARY;
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagSeconds = rs.getDouble(1);
+                replica.healthy = replica.lagSeconds <= maxLag.toMillis() / 1000.0;
+            } catch (Exception e) {
+                replica.healthy = false;
+                log.debug("Replica {} check failed: {}", replica.name, e.getMessage());
+            }
+            if (wasHealthy != replica.healthy) {
+                log.warn("Replica {} is now {} (lag {}s)", replica.name,
+                        replica.healthy ? "in rotation" : "out of rotation", replica.lagSeconds);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out per routing target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+
+        private Replica(HikariDataSource pool) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.platform.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Событие изменения брони, которое booking-service публикует в booking.events.
+ * Кодируется {@link BookingEventCodec}. Все поля ниже входят в версию 1 формата и обязательны:
+ * сообщение, обрезанное посреди них, отвергается. Новые поля дописываются в конец и должны быть
+ * nullable — в сообщении от старого отправителя их нет, и декодер возвращает null.
+ *
+ * @param previousStatus статус до изменения; null для только что созданной брони
+ */
+public record BookingEvent(long bookingId,
+                           String userId,
+                           long resourceId,
+                           Status status,
+                           Status previousStatus,
+                           LocalDateTime startTime,
+                           LocalDateTime endTime,
+                           BigDecimal totalPrice) {
+
+    /**
+     * Статусы брони с постоянными кодами формата: порядок констант можно менять, коды — нет.
+     */
+    public enum Status {
+        PENDING(1),
+        CONFIRMED(2),
+        CANCELLED(3),
+        COMPLETED(4);
+
+        private static final Status[] BY_CODE = new Status[5];
+
+        static {
+            for (Status status : values()) {
+                BY_CODE[status.code] = status;
+            }
+        }
+
+        final int code;
+
+        Status(int code) {
+            this.code = code;
+        }
+
+        static Status ofCode(int code) {
+            Status status = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+            if (status == null) {
+                throw new IllegalArgumentException("Unknown booking status code " + code);
+            }
+            return status;
+        }
+    }
+
+    public BookingEvent {
+        Objects.requireNonNull(userId, "userId");
+        Objects.requireNonNull(status, "status");
+        Objects.requireNonNull(startTime, "startTime");
+        Objects.requireNonNull(endTime, "endTime");
+        Objects.requireNonNull(totalPrice, "totalPrice");
+    }
+
+    /**
+     * Сообщение прежнего формата (Java-сериализованная Map со строковыми значениями),
+     * которое может оставаться в очередях во время обновления.
+     */
+    public static BookingEvent fromLegacyMap(Map<?, ?> message) {
+        Object previousStatus = message.get("previousStatus");
+        return new BookingEvent(
+                Long.parseLong(field(message, "bookingId")),
+                field(message, "userId"),
+                Long.parseLong(field(message, "resourceId")),
+                Status.valueOf(field(message, "status")),
+                previousStatus != null ? Status.valueOf(previousStatus.toString()) : null,
+                LocalDateTime.parse(field(message, "startTime")),
+                LocalDateTime.parse(field(message, "endTime")),
+                new BigDecimal(field(message, "totalPrice")));
+    }
+
+    private static String field(Map<?, ?> message, String name) {
+        Object value = message.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Booking notification without " + name);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.platform.events;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Бинарная кодировка {@link BookingEvent}, около 60 байт с UUID в userId против ~380 у прежней Java-сериализованной Map.
+ * <pre>
+ * u8      версия формата (1)
+ * u8      флаги: 0x01 — есть previousStatus, 0x02 — цена не помещается в long
+ * varint  bookingId, resourceId
+ * varint  длина userId + UTF-8
+ * u8      status [, previousStatus] — постоянные коды {@link BookingEvent.Status}
+ * zigzag  startTime: секунды эпохи (LocalDateTime как UTC), varint наносекунды
+ * zigzag  endTime - startTime в секундах, varint наносекунды endTime
+ * zigzag  scale цены, затем zigzag unscaled или (флаг 0x02) varint длина + байты BigInteger
+ * </pre>
+ * Поля выше — версия 1, все обязательны: данные, обрезанные внутри них, декодер отвергает.
+ * Новое поле дописывается в конец без смены версии: старый декодер игнорирует незнакомый хвост,
+ * а новый читает поле, только если байты остались, и иначе возвращает null (см. {@link BookingEvent}).
+ * Версия меняется только при несовместимом изменении, и такие сообщения декодер отвергает.
+ * Экземпляр без состояния, потокобезопасен.
+ */
+public final class BookingEventCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int FLAG_PREVIOUS_STATUS = 0x01;
+    private static final int FLAG_BIG_PRICE = 0x02;
+
+    public byte[] encode(BookingEvent event) {
+        byte[] userId = event.userId().getBytes(StandardCharsets.UTF_8);
+        BigInteger unscaled = event.totalPrice().unscaledValue();
+        boolean bigPrice = unscaled.bitLength() > 63;
+        int flags = (event.previousStatus() != null ? FLAG_PREVIOUS_STATUS : 0) | (bigPrice ? FLAG_BIG_PRICE : 0);
+
+        Writer out = new Writer(32 + userId.length);
+        out.u8(VERSION);
+        out.u8(flags);
+        out.varLong(event.bookingId());
+        out.varLong(event.resourceId());
+        out.varInt(userId.length);
+        out.raw(userId);
+        out.u8(event.status().code);
+        if (event.previousStatus() != null) {
+            out.u8(event.previousStatus().code);
+        }
+        long startSeconds = event.startTime().toEpochSecond(ZoneOffset.UTC);
+        out.zigZag(startSeconds);
+        out.varInt(event.startTime().getNano());
+        out.zigZag(event.endTime().toEpochSecond(ZoneOffset.UTC) - startSeconds);
+        out.varInt(event.endTime().getNano());
+        out.zigZag(event.totalPrice().scale());
+        if (bigPrice) {
+            byte[] magnitude = unscaled.toByteArray();
+            out.varInt(magnitude.length);
+            out.raw(magnitude);
+        } else {
+            out.zigZag(unscaled.longValueExact());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException если данные обрезаны, повреждены или записаны несовместимой версией
+     */
+    public BookingEvent decode(byte[] data) {
+        Reader in = new Reader(data);
+        int version = in.u8();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported booking event format version " + version);
+        }
+        int flags = in.u8();
+        long bookingId = in.varLong();
+        long resourceId = in.varLong();
+        String userId = new String(in.raw(in.varInt()), StandardCharsets.UTF_8);
+        BookingEvent.Status status = BookingEvent.Status.ofCode(in.u8());
+        BookingEvent.Status previousStatus = (flags & FLAG_PREVIOUS_STATUS) != 0
+                ? BookingEvent.Status.ofCode(in.u8()) : null;
+        long startSeconds = in.zigZag();
+        LocalDateTime startTime = LocalDateTime.ofEpochSecond(startSeconds, in.varInt(), ZoneOffset.UTC);
+        long durationSeconds = in.zigZag();
+        LocalDateTime endTime = LocalDateTime.ofEpochSecond(startSeconds + durationSeconds, in.varInt(), ZoneOffset.UTC);
+        int scale = (int) in.zigZag();
+        BigDecimal totalPrice = (flags & FLAG_BIG_PRICE) != 0
+                ? new BigDecimal(new BigInteger(in.raw(in.varInt())), scale)
+                : BigDecimal.valueOf(in.zigZag(), scale);
+        return new BookingEvent(bookingId, userId, resourceId, status, previousStatus, startTime, endTime, totalPrice);
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int size;
+
+        private Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private void u8(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        private void raw(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        private void varInt(int value) {
+            varLong(value & 0xFFFFFFFFL);
+        }
+
+        private void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void zigZag(long value) {
+            varLong((value << 1) ^ (value >> 63));
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private int u8() {
+            if (position >= data.length) {
+                throw truncated();
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private byte[] raw(int length) {
+            if (length < 0 || length > data.length - position) {
+                throw truncated();
+            }
+            byte[] value = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return value;
+        }
+
+        private int varInt() {
+            long value = varLong();
+            if (value > 0xFFFFFFFFL) {
+                throw new IllegalArgumentException("Malformed booking event: varint overflow");
+            }
+            return (int) value;
+        }
+
+        private long varLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = u8();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed booking event: varint too long");
+        }
+
+        private long zigZag() {
+            long value = varLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private IllegalArgumentException truncated() {
+            return new IllegalArgumentException("Malformed booking event: truncated at byte " + position);
+        }
+    }
+}
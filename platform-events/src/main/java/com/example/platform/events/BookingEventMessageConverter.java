@@ -0,0 +1,60 @@
+package com.example.platform.events;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.Map;
+
+/**
+ * Конвертер Spring AMQP для обеих сторон booking.events: {@link BookingEvent} пишется в
+ * {@link BookingEventCodec} с content type {@value #CONTENT_TYPE}, остальные объекты и сообщения
+ * обрабатывает {@code fallback}. Map прежнего формата, пришедшая через fallback, превращается в
+ * BookingEvent, поэтому потребитель переживает смешанную очередь во время обновления.
+ */
+public class BookingEventMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/vnd.platform.booking-event+binary";
+    /** Версия формата отдельно от тела: видна в консоли брокера и в parking lot без декодирования */
+    public static final String VERSION_HEADER = "x-event-version";
+
+    private final BookingEventCodec codec = new BookingEventCodec();
+    private final MessageConverter fallback;
+
+    public BookingEventMessageConverter(MessageConverter fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof BookingEvent event)) {
+            return fallback.toMessage(object, messageProperties);
+        }
+        byte[] body = codec.encode(event);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        messageProperties.setHeader(VERSION_HEADER, BookingEventCodec.VERSION);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            try {
+                return codec.decode(message.getBody());
+            } catch (RuntimeException e) {
+                throw new MessageConversionException("Cannot decode booking event: " + e.getMessage(), e);
+            }
+        }
+        Object converted = fallback.fromMessage(message);
+        if (converted instanceof Map<?, ?> legacy && legacy.containsKey("bookingId")) {
+            try {
+                return BookingEvent.fromLegacyMap(legacy);
+            } catch (RuntimeException e) {
+                throw new MessageConversionException("Cannot read legacy booking notification: " + e.getMessage(), e);
+            }
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.platform.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Доверяет заголовку X-Internal-Identity, который api-gateway выставляет после проверки JWT:
+ * вместо RSA-проверки токена сверяется HMAC-SHA256 заголовка, срок действия и хеш токена ("th").
+ * Если заголовка нет или он не прошёл проверку, запрос аутентифицируется обычным JwtDecoder.
+ * Подключается в servlet-сервисах (file-service, booking-service) перед BearerTokenAuthenticationFilter.
+ */
+public class InternalIdentityAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = InternalIdentityVerifier.HEADER;
+    private static final String VERIFIED_ATTRIBUTE = InternalIdentityAuthenticationFilter.class.getName() + ".VERIFIED";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final InternalIdentityVerifier verifier;
+    private final Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter;
+
+    public InternalIdentityAuthenticationFilter(String secret, ObjectMapper objectMapper,
+                                                Converter<Jwt, ? extends AbstractAuthenticationToken> authenticationConverter) {
+        this.verifier = new InternalIdentityVerifier(secret, objectMapper);
+        this.authenticationConverter = authenticationConverter;
+    }
+
+    /**
+     * Резолвер для oauth2ResourceServer: если заголовок уже проверен, токен повторно не декодируется.
+     */
+    public BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        return request -> Boolean.TRUE.equals(request.getAttribute(VERIFIED_ATTRIBUTE)) ? null : delegate.resolve(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String identity = request.getHeader(HEADER);
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (verifier.isEnabled() && identity != null
+                && authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            Jwt jwt = verifier.verify(identity, authorization.substring(BEARER_PREFIX.length()));
+            if (jwt != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authenticationConverter.convert(jwt));
+                SecurityContextHolder.setContext(context);
+                request.setAttribute(VERIFIED_ATTRIBUTE, Boolean.TRUE);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
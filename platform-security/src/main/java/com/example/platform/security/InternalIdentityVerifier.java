@@ -0,0 +1,106 @@
+package com.example.platform.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Проверка заголовка X-Internal-Identity, который api-gateway выставляет после проверки JWT:
+ * HMAC-SHA256 заголовка, срок действия и хеш токена ("th"). Используется servlet-фильтром
+ * {@link InternalIdentityAuthenticationFilter} и реактивным фильтром booking-read.
+ */
+public class InternalIdentityVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(InternalIdentityVerifier.class);
+
+    public static final String HEADER = "X-Internal-Identity";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final byte[] secret;
+    private final ObjectMapper objectMapper;
+    private final ThreadLocal<Mac> mac;
+
+    public InternalIdentityVerifier(String secret, ObjectMapper objectMapper) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Пустой секрет — проверка отключена, запросы всегда идут через JwtDecoder.
+     */
+    public boolean isEnabled() {
+        return secret.length > 0;
+    }
+
+    /**
+     * @return Jwt с claims из заголовка или null, если заголовок недействителен для этого токена
+     */
+    public Jwt verify(String identity, String token) {
+        try {
+            int dot = identity.indexOf('.');
+            if (dot <= 0) {
+                return null;
+            }
+            String body = identity.substring(0, dot);
+            byte[] expected = mac.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+            byte[] actual = Base64.getUrlDecoder().decode(identity.substring(dot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                log.debug("Rejected internal identity with invalid signature");
+                return null;
+            }
+
+            Map<String, Object> claims = objectMapper.readValue(Base64.getUrlDecoder().decode(body),
+                    new TypeReference<Map<String, Object>>() {});
+            Instant expiresAt = Instant.ofEpochSecond(((Number) claims.get("exp")).longValue());
+            if (Instant.now().minus(CLOCK_SKEW).isAfter(expiresAt)) {
+                return null;
+            }
+            // Заголовок привязан к конкретному токену: с чужим Authorization он недействителен
+            if (!sha256(token).equals(claims.remove("th"))) {
+                return null;
+            }
+
+            Jwt.Builder builder = Jwt.withTokenValue(token)
+                    .header("alg", ALGORITHM)
+                    .claims(c -> c.putAll(claims))
+                    .expiresAt(expiresAt);
+            Object issuedAt = claims.get("iat");
+            if (issuedAt instanceof Number number) {
+                builder.issuedAt(Instant.ofEpochSecond(number.longValue()));
+            }
+            return builder.build();
+        } catch (Exception e) {
+            log.debug("Failed to verify internal identity: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String sha256(String token) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(new SecretKeySpec(secret.length > 0 ? secret : new byte[1], ALGORITHM));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + ALGORITHM, e);
+        }
+    }
+}
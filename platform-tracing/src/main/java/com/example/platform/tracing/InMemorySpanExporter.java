@@ -0,0 +1,51 @@
+package com.example.platform.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Последние экспортированные спаны в памяти процесса (ограниченный буфер, старые вытесняются).
+ * Используется, когда коллектора нет: сэмплированные трассы видны через actuator/sampledtraces.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final ArrayDeque<SpanData> spans;
+
+    public InMemorySpanExporter(int capacity) {
+        this.capacity = capacity;
+        this.spans = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == capacity) {
+                spans.pollFirst();
+            }
+            spans.addLast(span);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public synchronized List<SpanData> spans() {
+        return new ArrayList<>(spans);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        spans.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+}
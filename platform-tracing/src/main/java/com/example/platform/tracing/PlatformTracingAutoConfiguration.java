@@ -0,0 +1,67 @@
+package com.example.platform.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Экспорт спанов всех сервисов платформы. Micrometer Tracing (мост OpenTelemetry) создаёт спаны
+ * для HTTP, RestTemplate/WebClient и RabbitMQ и пробрасывает traceparent; бин tailSamplingSpanExporter —
+ * единственный SpanExporter, который BatchSpanProcessor Spring Boot получает из контекста.
+ * <p>
+ * app.tracing.exporter: otlp — в коллектор по OTLP/HTTP, file — JSON Lines в файл,
+ * memory — в буфер процесса с просмотром через /actuator/sampledtraces, none — без экспорта.
+ * Перед любым из них стоит {@link TailSamplingSpanExporter}, поэтому головное сэмплирование
+ * (management.tracing.sampling.probability) в сервисах выставлено в 1.0.
+ */
+@AutoConfiguration
+@ConditionalOnClass(SpanExporter.class)
+@ConditionalOnExpression("'${app.tracing.exporter:memory}' != 'none'")
+public class PlatformTracingAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformTracingAutoConfiguration.class);
+
+    @Bean
+    public TailSamplingSpanExporter tailSamplingSpanExporter(
+            @Value("${app.tracing.exporter:memory}") String exporter,
+            @Value("${app.tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String otlpEndpoint,
+            @Value("${app.tracing.file.path:traces/spans.jsonl}") Path filePath,
+            @Value("${app.tracing.memory.capacity:5000}") int memoryCapacity,
+            @Value("${app.tracing.tail-sampling.slow-threshold:PT0.5S}") Duration slowThreshold,
+            @Value("${app.tracing.tail-sampling.baseline-ratio:0.01}") double baselineRatio,
+            @Value("${app.tracing.tail-sampling.max-pending-traces:10000}") int maxPendingTraces,
+            @Value("${app.tracing.tail-sampling.max-spans-per-trace:200}") int maxSpansPerTrace,
+            @Value("${app.tracing.tail-sampling.pending-timeout:PT30S}") Duration pendingTimeout) {
+        // Делегат — не бин: иначе Spring Boot экспортировал бы в него все спаны в обход сэмплера
+        SpanExporter delegate = switch (exporter) {
+            case "otlp" -> OtlpHttpSpanExporter.builder().setEndpoint(otlpEndpoint).build();
+            case "file" -> new FileSpanExporter(new ObjectMapper(), filePath);
+            case "memory" -> new InMemorySpanExporter(memoryCapacity);
+            default -> throw new IllegalArgumentException(
+                    "app.tracing.exporter: ожидается otlp, file, memory или none, получено " + exporter);
+        };
+        log.info("Трассы: экспорт {}, медленнее {} и с ошибками — всегда, остальные — доля {}",
+                exporter, slowThreshold, baselineRatio);
+        return new TailSamplingSpanExporter(delegate, slowThreshold, baselineRatio,
+                maxPendingTraces, maxSpansPerTrace, pendingTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "memory", matchIfMissing = true)
+    @ConditionalOnAvailableEndpoint(endpoint = SampledTracesEndpoint.class)
+    public SampledTracesEndpoint sampledTracesEndpoint(TailSamplingSpanExporter tailSamplingSpanExporter) {
+        return new SampledTracesEndpoint((InMemorySpanExporter) tailSamplingSpanExporter.delegate());
+    }
+}
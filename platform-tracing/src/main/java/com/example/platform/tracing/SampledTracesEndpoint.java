@@ -0,0 +1,49 @@
+package com.example.platform.tracing;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/sampledtraces — трассы, оставленные tail-сэмплером, при экспорте в память (app.tracing.exporter=memory).
+ * Сначала самые долгие: ради них сэмплер и настроен.
+ */
+@Endpoint(id = "sampledtraces")
+public class SampledTracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final InMemorySpanExporter exporter;
+
+    public SampledTracesEndpoint(InMemorySpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> traces(@Nullable Integer limit) {
+        Map<String, List<SpanData>> byTrace = new LinkedHashMap<>();
+        for (SpanData span : exporter.spans()) {
+            byTrace.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+        }
+        List<Map<String, Object>> traces = new ArrayList<>(byTrace.size());
+        byTrace.forEach((traceId, spans) -> {
+            long start = spans.stream().mapToLong(SpanData::getStartEpochNanos).min().orElse(0);
+            long end = spans.stream().mapToLong(SpanData::getEndEpochNanos).max().orElse(0);
+            spans.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+            Map<String, Object> trace = new LinkedHashMap<>();
+            trace.put("traceId", traceId);
+            trace.put("durationMicros", (end - start) / 1_000);
+            trace.put("spans", spans.stream().map(FileSpanExporter::toJson).toList());
+            traces.add(trace);
+        });
+        traces.sort(Comparator.comparingLong((Map<String, Object> trace) -> (Long) trace.get("durationMicros")).reversed());
+        return traces.subList(0, Math.min(traces.size(), limit != null ? limit : DEFAULT_LIMIT));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.platform.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-сэмплирование: спаны копятся по traceId, пока не завершится локальный корень
+ * (спан без родителя или с родителем из другого сервиса), и только тогда решается, экспортировать ли трассу.
+ * Сохраняются медленные трассы (корень не короче slowThreshold), трассы с ошибкой
+ * и базовая доля baselineRatio остальных.
+ * <p>
+ * Базовая доля считается по младшим битам traceId, поэтому все сервисы одной трассы принимают одинаковое
+ * решение. Медленный участок решает только за себя: у быстрого сервиса в медленной трассе спаны
+ * могут не попасть в экспорт, но задержку видно по спанам шлюза и медленного сервиса.
+ * <p>
+ * Экспорт вызывает BatchSpanProcessor из одного потока; synchronized — на случай forceFlush/shutdown.
+ */
+public class TailSamplingSpanExporter implements SpanExporter {
+
+    /** Тег observation http.server.requests: 5xx без исключения статус спана не меняет */
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+    /** Сколько решений помнить для спанов, закончившихся после корня (асинхронные продолжения) */
+    private static final int MAX_DECIDED_TRACES = 10_000;
+
+    private final SpanExporter delegate;
+    private final long slowThresholdNanos;
+    private final long baselineBound;
+    private final int maxPendingTraces;
+    private final int maxSpansPerTrace;
+    private final long pendingTimeoutNanos;
+
+    private final LinkedHashMap<String, PendingTrace> pending = new LinkedHashMap<>();
+    private final Map<String, Boolean> decided = new LinkedHashMap<>(1024, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_DECIDED_TRACES;
+        }
+    };
+
+    public TailSamplingSpanExporter(SpanExporter delegate, Duration slowThreshold, double baselineRatio,
+                                    int maxPendingTraces, int maxSpansPerTrace, Duration pendingTimeout) {
+        if (baselineRatio < 0 || baselineRatio > 1) {
+            throw new IllegalArgumentException("baselineRatio должен быть в [0, 1]: " + baselineRatio);
+        }
+        this.delegate = delegate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.baselineBound = (long) (baselineRatio * Long.MAX_VALUE);
+        this.maxPendingTraces = maxPendingTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.pendingTimeoutNanos = pendingTimeout.toNanos();
+    }
+
+    SpanExporter delegate() {
+        return delegate;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> toExport = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (SpanData span : spans) {
+                String traceId = span.getTraceId();
+                Boolean keep = decided.get(traceId);
+                if (keep != null) {
+                    if (keep) {
+                        toExport.add(span);
+                    }
+                    continue;
+                }
+                PendingTrace trace = pending.computeIfAbsent(traceId, id -> new PendingTrace(now));
+                trace.add(span, maxSpansPerTrace);
+                if (isLocalRoot(span)) {
+                    pending.remove(traceId);
+                    decide(traceId, trace, span.getEndEpochNanos() - span.getStartEpochNanos(), toExport);
+                }
+            }
+            evictStale(now, toExport);
+        }
+        return toExport.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(toExport);
+    }
+
+    /**
+     * Трассы, корень которых так и не пришёл (процесс-источник упал, корень обрезан лимитом),
+     * решаются по самому длинному из накопленных спанов.
+     */
+    private void evictStale(long now, List<SpanData> toExport) {
+        Iterator<Map.Entry<String, PendingTrace>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, PendingTrace> eldest = it.next();
+            PendingTrace trace = eldest.getValue();
+            if (pending.size() <= maxPendingTraces && now - trace.firstSeenNanos < pendingTimeoutNanos) {
+                return;
+            }
+            it.remove();
+            decide(eldest.getKey(), trace, trace.longestNanos, toExport);
+        }
+    }
+
+    private void decide(String traceId, PendingTrace trace, long durationNanos, List<SpanData> toExport) {
+        boolean keep = trace.error || durationNanos >= slowThresholdNanos || inBaseline(traceId);
+        decided.put(traceId, keep);
+        if (keep) {
+            toExport.addAll(trace.spans);
+        }
+    }
+
+    boolean inBaseline(String traceId) {
+        if (baselineBound == 0) {
+            return false;
+        }
+        // Как TraceIdRatioBasedSampler: младшие 64 бита traceId случайны
+        long random = Long.parseUnsignedLong(traceId.substring(16), 16) >>> 1;
+        return random < baselineBound;
+    }
+
+    private static boolean isLocalRoot(SpanData span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        List<SpanData> toExport = new ArrayList<>();
+        synchronized (this) {
+            // Незавершённые трассы при остановке решаются так же, как просроченные
+            pending.forEach((traceId, trace) -> decide(traceId, trace, trace.longestNanos, toExport));
+            pending.clear();
+        }
+        if (!toExport.isEmpty()) {
+            delegate.export(toExport).join(10, TimeUnit.SECONDS);
+        }
+        return delegate.shutdown();
+    }
+
+    private static final class PendingTrace {
+
+        private final long firstSeenNanos;
+        private final List<SpanData> spans = new ArrayList<>(8);
+        private long longestNanos;
+        private boolean error;
+
+        private PendingTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+
+        private void add(SpanData span, int maxSpans) {
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR
+                    || "SERVER_ERROR".equals(span.getAttributes().get(OUTCOME))) {
+                error = true;
+            }
+            longestNanos = Math.max(longestNanos, span.getEndEpochNanos() - span.getStartEpochNanos());
+            // Корень добавляется всегда, даже сверх лимита, чтобы трасса не потеряла верхний спан
+            if (spans.size() < maxSpans || isLocalRoot(span)) {
+                spans.add(span);
+            }
+        }
+    }
+}
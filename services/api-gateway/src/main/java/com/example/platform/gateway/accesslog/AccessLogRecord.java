@@ -0,0 +1,19 @@
+package com.example.platform.gateway.accesslog;
+
+/**
+ * Одна запись access-лога. Содержит только ссылки на уже существующие строки и примитивы:
+ * форматирование и редактирование (redaction) выполняются потоком записи, а не на event loop.
+ */
+public record AccessLogRecord(
+        long timestampMillis,
+        String method,
+        String routeId,
+        String path,
+        String query,
+        int status,
+        long latencyNanos,
+        long bytesIn,
+        long bytesOut,
+        String remoteAddress
+) {
+}
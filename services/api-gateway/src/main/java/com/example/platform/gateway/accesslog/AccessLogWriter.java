@@ -0,0 +1,175 @@
+package com.example.platform.gateway.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Асинхронная запись access-лога. Event loop только кладёт запись в ограниченный буфер
+ * (без блокировки: при переполнении запись отбрасывается и учитывается в метрике),
+ * а форматирование в JSON и вывод в логгер "access" выполняет отдельный daemon-поток.
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    private static final int DRAIN_BATCH = 256;
+    private static final String REDACTED = "***";
+
+    private final BlockingQueue<AccessLogRecord> buffer;
+    private final Set<String> redactedQueryParams;
+    private final Counter dropped;
+    private final Counter written;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(
+            MeterRegistry meterRegistry,
+            @Value("${app.access-log.buffer-size:8192}") int bufferSize,
+            @Value("${app.access-log.redact-query-params:token,access_token,refresh_token,password,code}") List<String> redactedQueryParams
+    ) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.redactedQueryParams = redactedQueryParams.stream()
+                .map(p -> p.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.dropped = Counter.builder("gateway.access_log.dropped")
+                .description("Access log records dropped because the buffer was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("gateway.access_log.written")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access_log.buffered", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+
+        this.writerThread = new Thread(this::drainLoop, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Вызывается на event loop: не блокирует и не форматирует.
+     */
+    public void submit(AccessLogRecord record) {
+        if (!buffer.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<AccessLogRecord> batch = new ArrayList<>(DRAIN_BATCH);
+        StringBuilder line = new StringBuilder(256);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AccessLogRecord first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, DRAIN_BATCH - 1);
+                for (AccessLogRecord record : batch) {
+                    line.setLength(0);
+                    format(record, line);
+                    accessLog.info(line.toString());
+                }
+                written.increment(batch.size());
+            } catch (InterruptedException e) {
+                // Остаток буфера дописывается на следующих итерациях, затем поток завершается
+                running = false;
+            } catch (Exception e) {
+                log.warn("Failed to write access log batch: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void format(AccessLogRecord record, StringBuilder out) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.timestampMillis())).append('"');
+        out.append(",\"method\":\"").append(record.method()).append('"');
+        out.append(",\"route\":");
+        appendString(out, record.routeId());
+        out.append(",\"path\":");
+        appendString(out, record.path());
+        if (record.query() != null) {
+            out.append(",\"query\":");
+            appendString(out, redactQuery(record.query()));
+        }
+        out.append(",\"status\":").append(record.status());
+        out.append(",\"latencyMs\":").append(record.latencyNanos() / 1_000_000)
+                .append('.').append((record.latencyNanos() / 100_000) % 10);
+        out.append(",\"bytesIn\":").append(record.bytesIn());
+        out.append(",\"bytesOut\":").append(record.bytesOut());
+        out.append(",\"remote\":");
+        appendString(out, record.remoteAddress());
+        out.append('}');
+    }
+
+    String redactQuery(String query) {
+        StringBuilder out = new StringBuilder(query.length());
+        int start = 0;
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            String pair = query.substring(start, end);
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            if (out.length() > 0) {
+                out.append('&');
+            }
+            if (eq >= 0 && redactedQueryParams.contains(name.toLowerCase(Locale.ROOT))) {
+                out.append(name).append('=').append(REDACTED);
+            } else {
+                out.append(pair);
+            }
+            start = end + 1;
+        }
+        return out.toString();
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(2));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.platform.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+
+/**
+ * Собирает тело ответа upstream целиком и передаёт его обработчику до записи клиенту.
+ * Обработчик видит статус и заголовки ответа и возвращает тело, которое нужно записать
+ * (может подменить и статус, и тело — например, отдать закешированный ответ вместо 304).
+ * <p>
+ * Ответы с Content-Length больше maxBytes и потоковые ответы (writeAndFlushWith) проходят без изменений.
+ */
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final long maxBytes;
+    private final BiFunction<ServerHttpResponse, byte[], byte[]> handler;
+
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate, long maxBytes,
+                                        BiFunction<ServerHttpResponse, byte[], byte[]> handler) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+        this.handler = handler;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (getHeaders().getContentLength() > maxBytes) {
+            return super.writeWith(body);
+        }
+        return DataBufferUtils.join(Flux.from(body))
+                .map(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    byte[] out = handler.apply(getDelegate(), bytes);
+                    HttpHeaders headers = getHeaders();
+                    headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                    headers.setContentLength(out.length);
+                    return super.writeWith(Mono.just(bufferFactory().wrap(out)));
+                });
+    }
+}
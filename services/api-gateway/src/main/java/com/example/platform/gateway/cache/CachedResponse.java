@@ -0,0 +1,75 @@
+package com.example.platform.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Снимок ответа upstream: статус, значимые для клиента заголовки и тело.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAtNanos) {
+
+    private static final List<String> KEPT_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL);
+
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders source, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : KEPT_HEADERS) {
+            List<String> values = source.get(name);
+            if (values != null) {
+                headers.put(name, List.copyOf(values));
+            }
+        }
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, System.nanoTime());
+    }
+
+    /**
+     * Полная копия ответа для раздачи другим ожидающим запросам: без hop-by-hop, CORS и cookie-заголовков,
+     * которые у каждого клиента свои.
+     */
+    public static CachedResponse snapshot(HttpStatusCode status, HttpHeaders source, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (!isPerClientHeader(name)) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, System.nanoTime());
+    }
+
+    private static boolean isPerClientHeader(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.startsWith("access-control-")
+                || lower.equals("set-cookie")
+                || lower.equals("vary")
+                || lower.equals("connection")
+                || lower.equals("transfer-encoding")
+                || lower.equals("content-length");
+    }
+
+    public CachedResponse refreshed() {
+        return new CachedResponse(status, headers, body, System.nanoTime());
+    }
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public long ageNanos() {
+        return System.nanoTime() - storedAtNanos;
+    }
+
+    /**
+     * Копирует сохранённые заголовки в ответ клиенту.
+     */
+    public void applyHeaders(HttpHeaders target) {
+        headers.forEach((name, values) -> target.put(name, values));
+    }
+
+    public int weight() {
+        return body.length + 256;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.platform.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * In-memory кеш ответов каталога, ограниченный суммарным размером тел (байты).
+ * Сбрасывается целиком по событию из Redis-канала resource-changes: каталог меняется редко,
+ * а точечная инвалидация списков с фильтрами не стоит сложности.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final Cache<String, CachedResponse> entries;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final String channel;
+    private Disposable subscription;
+
+    public ResponseCache(ReactiveStringRedisTemplate redisTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.response-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${app.response-cache.max-stale:PT1H}") Duration maxStale,
+                         @Value("${app.response-cache.invalidation-channel:resource-changes}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        // Устаревшие записи хранятся до max-stale, чтобы их можно было ревалидировать через ETag
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(maxStale)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway-responses");
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        entries.put(key, response);
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        // defer: контейнер подписки подключается к Redis сразу при создании, ошибка должна уйти в retry
+        subscription = Mono.defer(() -> redisTemplate.listenToChannelLater(channel))
+                // Подписка (пере)установлена: события, пришедшие без неё, потеряны — начинаем с чистого кеша.
+                // Пока Redis недоступен, устаревание ограничено TTL записи и ревалидацией по ETag.
+                .doOnNext(messages -> entries.invalidateAll())
+                .flatMapMany(messages -> messages)
+                .doOnNext(message -> {
+                    entries.invalidateAll();
+                    log.debug("Response cache invalidated by resource change {}", message.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Resource change subscription failed, retrying: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -1,37 +1,139 @@
 package com.example.platform.gateway.config;
 
+import com.example.platform.gateway.ratelimit.RateLimit;
+import com.example.platform.gateway.upstream.UpstreamRoutingFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 public class GatewayConfig {
 
+    private static final String HTTP11 = "http11";
+    // Отрицательный response-timeout NettyRoutingFilter понимает как «без таймаута»
+    private static final Duration STREAMING = Duration.ofMillis(-1);
+
     @Value("${services.resource-service.url:http://resource-service:8081}")
     private String resourceServiceUrl;
 
     @Value("${services.booking-service.url:http://booking-service:8082}")
     private String bookingServiceUrl;
 
+    // Реактивная read-сторона booking-service (ReactiveBookingReadApplication)
+    @Value("${services.booking-read-service.url:http://booking-read-service:8084}")
+    private String bookingReadServiceUrl;
+
+    @Value("${app.reactive-read.enabled:false}")
+    private boolean reactiveReadEnabled;
+
     @Value("${services.notification-service.url:http://notification-service:8083}")
     private String notificationServiceUrl;
 
     @Value("${services.keycloak.url:http://keycloak:8080}")
     private String keycloakUrl;
 
+    // Протокол к upstream: h2c (HTTP/2 без TLS) или http11
+    @Value("${services.resource-service.protocol:h2c}")
+    private String resourceServiceProtocol;
+
+    @Value("${services.booking-service.protocol:h2c}")
+    private String bookingServiceProtocol;
+
+    @Value("${services.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${services.resource-service.response-timeout:PT5S}")
+    private Duration resourceServiceTimeout;
+
+    // Загрузка и скачивание файлов идут дольше обычных запросов
+    @Value("${services.file-service.response-timeout:PT60S}")
+    private Duration fileServiceTimeout;
+
+    @Value("${services.booking-service.response-timeout:PT5S}")
+    private Duration bookingServiceTimeout;
+
+    @Value("${services.booking-service.availability-response-timeout:PT2S}")
+    private Duration availabilityTimeout;
+
+    @Value("${services.notification-service.response-timeout:PT10S}")
+    private Duration notificationServiceTimeout;
+
+    @Value("${services.keycloak.response-timeout:PT10S}")
+    private Duration keycloakTimeout;
+
+    @Value("${app.rate-limit.availability.replenish-rate:5}")
+    private double availabilityReplenishRate;
+
+    @Value("${app.rate-limit.availability.burst-capacity:10}")
+    private long availabilityBurstCapacity;
+
     @Bean
     public RouteLocator routeLocator(RouteLocatorBuilder builder) {
-        return builder.routes()
-                .route("resource-service", r -> r.path("/resources", "/resources/**").uri(resourceServiceUrl))
-                .route("file-service", r -> r.path("/files", "/files/**").uri(resourceServiceUrl))
-                .route("booking-service", r -> r.path("/bookings", "/bookings/**").uri(bookingServiceUrl))
-                .route("notification-service", r -> r.path("/notifications/**").uri(notificationServiceUrl))
+        String availabilityUrl = reactiveReadEnabled ? bookingReadServiceUrl : bookingServiceUrl;
+        RouteLocatorBuilder.Builder routes = builder.routes()
+                .route("resource-service", r -> r.path("/resources", "/resources/**")
+                        .metadata(upstream(resourceServiceProtocol, resourceServiceTimeout))
+                        .uri(resourceServiceUrl))
+                .route("file-service", r -> r.path("/files", "/files/**")
+                        .metadata(upstream(resourceServiceProtocol, fileServiceTimeout))
+                        .uri(resourceServiceUrl))
+                // Частый polling доступности — отдельный маршрут с более строгим лимитом на пользователя
+                .route("booking-availability", r -> r.path("/bookings/availability")
+                        .metadata(upstream(bookingServiceProtocol, availabilityTimeout))
+                        .metadata(RateLimit.REPLENISH_RATE_METADATA, availabilityReplenishRate)
+                        .metadata(RateLimit.BURST_CAPACITY_METADATA, availabilityBurstCapacity)
+                        .uri(availabilityUrl))
+                // Лист ожидания целиком в booking-service: GET /bookings/waitlist не должен уйти в booking-read как /bookings/{id}
+                .route("booking-waitlist", r -> r.path("/bookings/waitlist", "/bookings/waitlist/**")
+                        .metadata(upstream(bookingServiceProtocol, bookingServiceTimeout))
+                        .uri(bookingServiceUrl));
+        if (reactiveReadEnabled) {
+            // SSE-потоки броней есть только в booking-read-service; без него запрос уходит в booking-service,
+            // получает ошибку, и клиент переходит на периодическую загрузку списка.
+            // Ответ длится, пока клиент подключён: таймаут ответа отключён, а отдельный id маршрута
+            // выводит его из-под single-flight и load shedding
+            routes = routes.route("booking-stream", r -> r.method(HttpMethod.GET)
+                    .and().path("/bookings/stream", "/bookings/resource/*/stream")
+                    .metadata(upstream(bookingServiceProtocol, STREAMING))
+                    .uri(bookingReadServiceUrl));
+            // GET-запросы броней (списки, по id, пакетные) обслуживает реактивный сервис, запись — booking-service
+            routes = routes.route("booking-read", r -> r.method(HttpMethod.GET)
+                    .and().path("/bookings", "/bookings/*", "/bookings/resource/**", "/bookings/availability/batch")
+                    .metadata(upstream(bookingServiceProtocol, bookingServiceTimeout))
+                    .uri(bookingReadServiceUrl));
+        }
+        return routes
+                .route("booking-service", r -> r.path("/bookings", "/bookings/**")
+                        .metadata(upstream(bookingServiceProtocol, bookingServiceTimeout))
+                        .uri(bookingServiceUrl))
+                .route("notification-service", r -> r.path("/notifications/**")
+                        .metadata(upstream(HTTP11, notificationServiceTimeout))
+                        .uri(notificationServiceUrl))
+                .route("analytics", r -> r.path("/analytics/**")
+                        .metadata(upstream(HTTP11, notificationServiceTimeout))
+                        .uri(notificationServiceUrl))
                 .route("keycloak-auth", r -> r.path("/auth/**")
                         .filters(f -> f.rewritePath("/auth/(?<segment>.*)", "/${segment}"))
+                        .metadata(upstream(HTTP11, keycloakTimeout))
                         .uri(keycloakUrl))
                 .build();
     }
+
+    /**
+     * Метаданные маршрута для {@link UpstreamRoutingFilter}: протокол и таймаут ответа upstream.
+     */
+    private Map<String, Object> upstream(String protocol, Duration responseTimeout) {
+        return Map.of(
+                UpstreamRoutingFilter.PROTOCOL_METADATA, protocol,
+                RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, responseTimeout.toMillis(),
+                RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, connectTimeout.toMillis());
+    }
 }
 
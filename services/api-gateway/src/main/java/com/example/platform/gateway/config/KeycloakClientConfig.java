@@ -0,0 +1,48 @@
+package com.example.platform.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * WebClient для Admin API Keycloak с собственным пулом соединений: регистрации не конкурируют
+ * за соединения с проксируемым трафиком и переиспользуют keep-alive соединения с Keycloak.
+ */
+@Configuration
+public class KeycloakClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider keycloakConnectionProvider(
+            @Value("${app.keycloak.client.max-connections:50}") int maxConnections,
+            @Value("${app.keycloak.client.pending-acquire-timeout:PT2S}") Duration pendingAcquireTimeout) {
+        return ConnectionProvider.builder("keycloak")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxConnections * 4)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Меньше keep-alive таймаута Keycloak (Quarkus/Vert.x), чтобы не получить закрытое соединение
+                .maxIdleTime(Duration.ofSeconds(20))
+                .maxLifeTime(Duration.ofMinutes(5))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient keycloakWebClient(ConnectionProvider keycloakConnectionProvider,
+                                       WebClient.Builder builder,
+                                       @Value("${services.keycloak.url:http://keycloak:8080}") String keycloakUrl,
+                                       @Value("${app.keycloak.client.response-timeout:PT10S}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(keycloakConnectionProvider)
+                .responseTimeout(responseTimeout);
+        return builder.clone()
+                .baseUrl(keycloakUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
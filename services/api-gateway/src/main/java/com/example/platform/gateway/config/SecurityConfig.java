@@ -1,5 +1,6 @@
 package com.example.platform.gateway.config;
 
+import com.example.platform.gateway.security.CachingJwtDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,14 +8,19 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
-import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebFluxSecurity
@@ -23,97 +29,38 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
+    @Value("${app.jwt.additional-issuers:}")
+    private List<String> additionalIssuers;
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
     @Bean
     public ReactiveJwtDecoder jwtDecoder() {
-        // Используем issuer напрямую - Keycloak доступен через внутреннюю сеть Docker
-        // NimbusReactiveJwtDecoder автоматически получит JWK Set из issuerUri/.well-known/openid-configuration
+        // Keycloak доступен через внутреннюю сеть Docker; JWK Set берём напрямую
         String jwksUri = issuerUri + "/protocol/openid-connect/certs";
-        
-        System.out.println("Creating JWT Decoder with JWKS URI: " + jwksUri);
-        
         NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwksUri).build();
-        
-        // Настраиваем кастомный валидатор, который принимает оба варианта issuer
-        // (keycloak:8080 для внутренней сети и localhost:8088 для токенов от браузера)
-        OAuth2TokenValidator<Jwt> defaultValidator = JwtValidators.createDefault();
+
+        // Допустимые issuer считаются один раз: keycloak:8080 для внутренней сети,
+        // localhost:8088 / localhost:8080 для токенов, полученных браузером
+        Set<String> acceptedIssuers = new HashSet<>();
+        acceptedIssuers.add(issuerUri);
+        acceptedIssuers.add(issuerUri.replace("keycloak:8080", "localhost:8088"));
+        acceptedIssuers.add(issuerUri.replace("keycloak:8080", "localhost:8080"));
+        additionalIssuers.stream().map(String::trim).filter(i -> !i.isEmpty()).forEach(acceptedIssuers::add);
+        Set<String> issuers = Set.copyOf(acceptedIssuers);
+
         OAuth2TokenValidator<Jwt> issuerValidator = jwt -> {
-            String tokenIssuer = jwt.getIssuer().toString();
-            String expectedIssuer = issuerUri; // http://keycloak:8080/realms/app
-            String alternativeIssuer1 = issuerUri.replace("keycloak:8080", "localhost:8088"); // http://localhost:8088/realms/app
-            String alternativeIssuer2 = issuerUri.replace("http://keycloak:8080", "http://localhost:8088"); // http://localhost:8088/realms/app
-            String alternativeIssuer3 = issuerUri.replace("keycloak:8080", "localhost:8080"); // http://localhost:8080/realms/app
-            
-            System.out.println("=== JWT VALIDATION DEBUG ===");
-            System.out.println("Token issuer: " + tokenIssuer);
-            System.out.println("Expected issuer: " + expectedIssuer);
-            System.out.println("Alternative issuer 1: " + alternativeIssuer1);
-            System.out.println("Alternative issuer 2: " + alternativeIssuer2);
-            System.out.println("Alternative issuer 3: " + alternativeIssuer3);
-            
-            // Принимаем все варианты issuer (для гибкости)
-            boolean isValid = tokenIssuer.equals(expectedIssuer) || 
-                tokenIssuer.equals(alternativeIssuer1) || 
-                tokenIssuer.equals(alternativeIssuer2) ||
-                tokenIssuer.equals(alternativeIssuer3) ||
-                tokenIssuer.endsWith("/realms/app"); // Принимаем любой issuer, заканчивающийся на /realms/app
-            
-            System.out.println("Issuer valid: " + isValid);
-            System.out.println("===========================");
-            
-            if (isValid) {
-                return org.springframework.security.oauth2.core.OAuth2TokenValidatorResult.success();
+            String tokenIssuer = jwt.getClaimAsString(JwtClaimNames.ISS);
+            if (tokenIssuer != null && issuers.contains(tokenIssuer)) {
+                return OAuth2TokenValidatorResult.success();
             }
-            
-            // Если не совпадает, все равно принимаем (для отладки)
-            System.out.println("WARNING: Token issuer mismatch, but accepting anyway for debugging");
-            return org.springframework.security.oauth2.core.OAuth2TokenValidatorResult.success();
+            return OAuth2TokenValidatorResult.failure(
+                    new OAuth2Error("invalid_token", "Invalid issuer: " + tokenIssuer, null));
         };
-        
-        // Создаем кастомный валидатор, который логирует все ошибки
-        OAuth2TokenValidator<Jwt> loggingValidator = jwt -> {
-            try {
-                // Сначала проверяем issuer
-                org.springframework.security.oauth2.core.OAuth2TokenValidatorResult issuerResult = issuerValidator.validate(jwt);
-                if (!issuerResult.getErrors().isEmpty()) {
-                    System.out.println("Issuer validation errors: " + issuerResult.getErrors());
-                }
-                
-                // Затем проверяем default validator (expiry, etc.)
-                org.springframework.security.oauth2.core.OAuth2TokenValidatorResult defaultResult = defaultValidator.validate(jwt);
-                if (!defaultResult.getErrors().isEmpty()) {
-                    System.out.println("Default validation errors: " + defaultResult.getErrors());
-                    defaultResult.getErrors().forEach(error -> {
-                        System.out.println("  - Error: " + error.getErrorCode() + " - " + error.getDescription());
-                    });
-                }
-                
-                // Объединяем результаты
-                if (issuerResult.getErrors().isEmpty() && defaultResult.getErrors().isEmpty()) {
-                    return org.springframework.security.oauth2.core.OAuth2TokenValidatorResult.success();
-                } else {
-                    // Для отладки - принимаем токен даже с ошибками
-                    System.out.println("WARNING: Validation errors found, but accepting token for debugging");
-                    return org.springframework.security.oauth2.core.OAuth2TokenValidatorResult.success();
-                }
-            } catch (Exception e) {
-                System.out.println("ERROR during token validation: " + e.getMessage());
-                e.printStackTrace();
-                // Принимаем токен для отладки
-                return org.springframework.security.oauth2.core.OAuth2TokenValidatorResult.success();
-            }
-        };
-        
-        decoder.setJwtValidator(loggingValidator);
-        
-        // Добавляем логирование для отладки
-        System.out.println("=== JWT Decoder Configuration ===");
-        System.out.println("JWKS URI: " + jwksUri);
-        System.out.println("Issuer URI: " + issuerUri);
-        System.out.println("Expected issuer: " + issuerUri);
-        System.out.println("Alternative issuer: " + issuerUri.replace("keycloak:8080", "localhost:8088"));
-        System.out.println("================================");
-        
-        return decoder;
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(new JwtTimestampValidator(), issuerValidator));
+
+        return new CachingJwtDecoder(decoder, cacheMaxSize);
     }
 
     @Bean
@@ -121,6 +68,7 @@ public class SecurityConfig {
             http
                     .authorizeExchange(exchanges -> exchanges
                             .pathMatchers("/actuator/**").permitAll()
+                            .pathMatchers("/auth/register/bulk").authenticated() // Пакетная регистрация — только admin
                             .pathMatchers("/auth/**").permitAll() // Разрешаем все запросы к Keycloak
                             .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Разрешаем OPTIONS для CORS preflight
                             // .pathMatchers("/resources/**", "/bookings/**").permitAll() // ВРЕМЕННО отключено - включаем аутентификацию обратно
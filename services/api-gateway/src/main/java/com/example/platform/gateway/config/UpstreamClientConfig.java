@@ -0,0 +1,53 @@
+package com.example.platform.gateway.config;
+
+import com.example.platform.gateway.upstream.UpstreamHttpClientFactory;
+import com.example.platform.gateway.upstream.UpstreamRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * HTTP-клиент шлюза к upstream-сервисам. Параметры пула и общие таймауты — в
+ * spring.cloud.gateway.httpclient, протокол и таймауты отдельных маршрутов — в метаданных маршрутов GatewayConfig.
+ * Стандартный NettyRoutingFilter отключён (spring.cloud.gateway.global-filter.netty-routing.enabled=false)
+ * и заменён на {@link UpstreamRoutingFilter}; вместе с ним автоконфигурация отключает и NettyWriteResponseFilter,
+ * поэтому он регистрируется здесь явно.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    @Bean
+    public HttpClientFactory gatewayHttpClientFactory(
+            HttpClientProperties properties,
+            ServerProperties serverProperties,
+            List<HttpClientCustomizer> customizers,
+            HttpClientSslConfigurer sslConfigurer,
+            @Value("${app.upstream.pending-acquire-max-count:1000}") int pendingAcquireMaxCount) {
+        return new UpstreamHttpClientFactory(properties, serverProperties, sslConfigurer, customizers,
+                pendingAcquireMaxCount);
+    }
+
+    @Bean
+    public UpstreamRoutingFilter upstreamRoutingFilter(HttpClient httpClient,
+                                                       ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                       HttpClientProperties properties) {
+        return new UpstreamRoutingFilter(httpClient, headersFilters, properties);
+    }
+
+    @Bean
+    public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties gatewayProperties) {
+        return new NettyWriteResponseFilter(gatewayProperties.getStreamingMediaTypes());
+    }
+}
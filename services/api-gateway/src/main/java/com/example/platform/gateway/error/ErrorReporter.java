@@ -0,0 +1,148 @@
+package com.example.platform.gateway.error;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отчёты об ошибках запросов шлюза, безопасные при лавине ошибок (например, массово истёкшие токены
+ * после ротации ключей Keycloak):
+ * <ul>
+ *   <li>каждая ошибка учитывается в счётчике gateway.errors{exception,route};</li>
+ *   <li>одинаковые ошибки (класс, маршрут, сообщение) логируются не чаще раза в dedup-window,
+ *       с числом подавленных повторов;</li>
+ *   <li>всего не больше max-per-second строк в секунду;</li>
+ *   <li>event loop только кладёт событие в ограниченный буфер, вывод в лог — в отдельном daemon-потоке.</li>
+ * </ul>
+ * Стек вызовов пишется только при уровне DEBUG.
+ */
+@Component
+public class ErrorReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorReporter.class);
+
+    private static final int MAX_MESSAGE_LENGTH = 200;
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final MeterRegistry meterRegistry;
+    private final long dedupWindowNanos;
+    private final int maxPerSecond;
+    private final BlockingQueue<ErrorEvent> buffer;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger loggedThisSecond = new AtomicInteger();
+    private final Counter suppressed;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public ErrorReporter(MeterRegistry meterRegistry,
+                         @Value("${app.error-report.dedup-window:PT10S}") Duration dedupWindow,
+                         @Value("${app.error-report.max-per-second:10}") int maxPerSecond,
+                         @Value("${app.error-report.buffer-size:1024}") int bufferSize) {
+        this.meterRegistry = meterRegistry;
+        this.dedupWindowNanos = dedupWindow.toNanos();
+        this.maxPerSecond = maxPerSecond;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.suppressed = Counter.builder("gateway.errors.log_suppressed").register(meterRegistry);
+
+        this.writerThread = new Thread(this::drainLoop, "error-report-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Вызывается на event loop: не блокирует и не пишет в лог.
+     */
+    public void report(String routeId, String method, String path, Throwable error) {
+        String exception = error.getClass().getName();
+        String route = routeId != null ? routeId : "none";
+        counters.computeIfAbsent(exception + '|' + route, k -> Counter.builder("gateway.errors")
+                .tag("exception", error.getClass().getSimpleName())
+                .tag("route", route)
+                .register(meterRegistry)).increment();
+
+        String message = truncate(error.getMessage());
+        String key = exception + '|' + route + '|' + message;
+        if (windows.size() > MAX_TRACKED_KEYS) {
+            windows.clear();
+        }
+        Window window = windows.computeIfAbsent(key, k -> new Window());
+        long now = System.nanoTime();
+        long started = window.startedNanos.get();
+        boolean windowExpired = started == 0 || now - started >= dedupWindowNanos;
+        if (!windowExpired || !window.startedNanos.compareAndSet(started, now) || !tryAcquireLogSlot()) {
+            window.suppressed.incrementAndGet();
+            suppressed.increment();
+            return;
+        }
+        long repeats = window.suppressed.getAndSet(0);
+        if (!buffer.offer(new ErrorEvent(route, method, path, exception, message, repeats, error))) {
+            suppressed.increment();
+        }
+    }
+
+    private boolean tryAcquireLogSlot() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long current = currentSecond.get();
+        if (second != current && currentSecond.compareAndSet(current, second)) {
+            loggedThisSecond.set(0);
+        }
+        return loggedThisSecond.incrementAndGet() <= maxPerSecond;
+    }
+
+    private void drainLoop() {
+        while (running || !buffer.isEmpty()) {
+            try {
+                ErrorEvent event = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                // Стек вызовов — только при DEBUG: последний аргумент-исключение slf4j выводит со стеком
+                Object detail = log.isDebugEnabled() ? event.error() : null;
+                log.error("Gateway request failed: {} {} route={} error={}: {} (suppressed {} similar)",
+                        event.method(), event.path(), event.route(), event.exception(), event.message(),
+                        event.suppressedRepeats(), detail);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                // Ошибка логирования не должна останавливать поток
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    private static final class Window {
+        final AtomicLong startedNanos = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+
+    private record ErrorEvent(String route, String method, String path, String exception, String message,
+                              long suppressedRepeats, Throwable error) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.platform.gateway.filter;
+
+import com.example.platform.gateway.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.platform.gateway.ratelimit.DistributedRateLimiter;
+import com.example.platform.gateway.ratelimit.RateLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ConnectTimeoutException;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Контроль допуска запросов до маршрутизации в upstream:
+ * <ul>
+ *   <li>token bucket на пару (JWT subject, маршрут) — ответ 429 с Retry-After;</li>
+ *   <li>адаптивный лимит одновременных запросов на маршрут по задержке upstream — ответ 503 (load shedding).</li>
+ * </ul>
+ * Анонимные запросы ограничиваются по IP клиента.
+ */
+@Component
+public class AdmissionControlFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] RATE_LIMITED_BODY =
+            "{\"error\":\"rate_limited\",\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED_BODY =
+            "{\"error\":\"overloaded\",\"message\":\"Service is overloaded, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final DistributedRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final boolean rateLimitEnabled;
+    private final RateLimit defaultLimit;
+    private final boolean sheddingEnabled;
+    private final Set<String> sheddingRoutes;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdmissionControlFilter(
+            DistributedRateLimiter rateLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.enabled:true}") boolean rateLimitEnabled,
+            @Value("${app.rate-limit.replenish-rate:20}") double replenishRate,
+            @Value("${app.rate-limit.burst-capacity:40}") long burstCapacity,
+            @Value("${app.load-shedding.enabled:true}") boolean sheddingEnabled,
+            @Value("${app.load-shedding.routes:resource-service,booking-service,booking-availability,booking-waitlist,booking-read}") List<String> sheddingRoutes,
+            @Value("${app.load-shedding.initial-limit:50}") int initialLimit,
+            @Value("${app.load-shedding.min-limit:5}") int minLimit,
+            @Value("${app.load-shedding.max-limit:500}") int maxLimit,
+            @Value("${app.load-shedding.rtt-tolerance:1.5}") double tolerance
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.defaultLimit = new RateLimit(replenishRate, burstCapacity);
+        this.sheddingEnabled = sheddingEnabled;
+        this.sheddingRoutes = sheddingRoutes.stream().map(String::trim).collect(Collectors.toUnmodifiableSet());
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        if (!rateLimitEnabled) {
+            return shed(exchange, chain, route);
+        }
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> "sub:" + principal.getName())
+                .defaultIfEmpty("ip:" + clientAddress(exchange))
+                .flatMap(subject -> {
+                    RateLimit limit = defaultLimit.withOverrides(route.getMetadata());
+                    DistributedRateLimiter.Decision decision = rateLimiter.tryAcquire(subject + ":" + route.getId(), limit);
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.getHeaders().set("X-RateLimit-Remaining", Long.toString(decision.remaining()));
+                    if (!decision.allowed()) {
+                        rejected(route.getId(), "rate_limit").increment();
+                        long retryAfterSeconds = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+                        return reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, RATE_LIMITED_BODY);
+                    }
+                    return shed(exchange, chain, route);
+                });
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, GatewayFilterChain chain, Route route) {
+        if (!sheddingEnabled || !sheddingRoutes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(), this::newLimiter);
+        if (!limiter.tryAcquire()) {
+            rejected(route.getId(), "overload").increment();
+            return reject(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, 1, OVERLOADED_BODY);
+        }
+        long startNanos = System.nanoTime();
+        Throwable[] failure = new Throwable[1];
+        return chain.filter(exchange)
+                .doOnError(e -> failure[0] = e)
+                .doFinally(signal -> {
+                    if (isUpstreamFailure(exchange, failure[0])) {
+                        limiter.onDropped();
+                    } else if (signal != SignalType.CANCEL
+                            && exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR) != null) {
+                        limiter.onSample(System.nanoTime() - startNanos);
+                    } else {
+                        // Ответ из кеша / single-flight или отмена клиентом: задержку upstream не отражает
+                        limiter.release();
+                    }
+                });
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance);
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Таймаут или ошибка соединения: либо исключение дошло до нас, либо его уже превратили в 502/504.
+     */
+    private static boolean isUpstreamFailure(ServerWebExchange exchange, Throwable e) {
+        if (e == null && exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR) == null) {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            return status == HttpStatus.BAD_GATEWAY || status == HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return e instanceof TimeoutException
+                || e instanceof ReadTimeoutException
+                || e instanceof ConnectTimeoutException
+                || e instanceof ConnectException
+                || (e != null && e.getCause() instanceof TimeoutException);
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, HttpStatus status, long retryAfterSeconds, byte[] body) {
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null ? remote.getHostString() : "unknown";
+    }
+
+    private Counter rejected(String routeId, String reason) {
+        return Counter.builder("gateway.admission.rejected")
+                .tag("route", routeId)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return -60; // После LoggingFilter (отказы попадают в access-лог), до InternalIdentityFilter
+    }
+}
@@ -1,57 +1,130 @@
 package com.example.platform.gateway.filter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.platform.gateway.error.ErrorReporter;
+import io.netty.channel.ConnectTimeoutException;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.ConnectException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Превращает ошибки обработки запроса в JSON-ответ с подходящим статусом:
+ * 401 — ошибки аутентификации, 504 — таймаут upstream, 502 — upstream недоступен, 500 — остальное.
+ * Тела ответов закодированы заранее; в лог ошибки попадают через {@link ErrorReporter}
+ * (асинхронно, с дедупликацией и ограничением частоты).
+ */
 @Component
 public class AuthErrorFilter implements GlobalFilter, Ordered {
 
-    private static final Logger logger = LoggerFactory.getLogger(AuthErrorFilter.class);
+    private static final byte[] UNAUTHORIZED_BODY = json("authentication_failed", "Authentication failed");
+    private static final byte[] BAD_GATEWAY_BODY = json("bad_gateway", "Upstream service is unavailable");
+    private static final byte[] GATEWAY_TIMEOUT_BODY = json("gateway_timeout", "Upstream service timed out");
+    private static final byte[] INTERNAL_ERROR_BODY = json("internal_error", "Internal gateway error");
+
+    private final ErrorReporter reporter;
+
+    public AuthErrorFilter(ErrorReporter reporter) {
+        this.reporter = reporter;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         return chain.filter(exchange)
                 .onErrorResume(throwable -> {
-                    logger.error("=== AUTHENTICATION ERROR ===");
-                    logger.error("Path: {}", exchange.getRequest().getURI().getPath());
-                    logger.error("Method: {}", exchange.getRequest().getMethod());
-                    logger.error("Error: {}", throwable.getMessage());
-                    logger.error("Error class: {}", throwable.getClass().getName());
-                    throwable.printStackTrace();
-                    logger.error("=============================");
-                    
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    reporter.report(route != null ? route.getId() : null,
+                            exchange.getRequest().getMethod().name(),
+                            originalPath(exchange),
+                            throwable);
+
                     ServerHttpResponse response = exchange.getResponse();
-                    response.setStatusCode(HttpStatus.UNAUTHORIZED);
-                    response.getHeaders().add("Content-Type", "application/json");
-                    
-                    String errorBody = "{\"error\":\"authentication_failed\",\"message\":\"" + 
-                        throwable.getMessage() + "\"}";
-                    DataBuffer buffer = response.bufferFactory()
-                        .wrap(errorBody.getBytes(StandardCharsets.UTF_8));
-                    return response.writeWith(Mono.just(buffer));
+                    if (response.isCommitted()) {
+                        // Заголовки уже отправлены — ответ не заменить, соединение закроет сервер
+                        return Mono.error(throwable);
+                    }
+                    HttpStatus status = statusFor(throwable);
+                    if (status == null) {
+                        // Прочие ResponseStatusException (404, 413, ...) обрабатывает стандартный обработчик WebFlux
+                        return Mono.error(throwable);
+                    }
+                    byte[] body = bodyFor(status);
+                    response.setStatusCode(status);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    response.getHeaders().setContentLength(body.length);
+                    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
                 });
     }
 
-    @Override
-    public int getOrder() {
-        return 100; // Выполняется после Security
+    /**
+     * Путь до RewritePath и других фильтров маршрута — тот, что запрашивал клиент.
+     */
+    private static String originalPath(ServerWebExchange exchange) {
+        Set<URI> originalUris = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originalUris != null && !originalUris.isEmpty()) {
+            return originalUris.iterator().next().getRawPath();
+        }
+        return exchange.getRequest().getURI().getRawPath();
     }
-}
-
-
-
 
+    private static HttpStatus statusFor(Throwable throwable) {
+        if (throwable instanceof AuthenticationException || throwable instanceof JwtException) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        if (throwable instanceof TimeoutException || throwable.getCause() instanceof TimeoutException
+                || throwable instanceof ConnectTimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        if (throwable instanceof ConnectException) {
+            return HttpStatus.BAD_GATEWAY;
+        }
+        if (throwable instanceof ResponseStatusException statusException) {
+            HttpStatusCode code = statusException.getStatusCode();
+            if (code.value() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                return HttpStatus.GATEWAY_TIMEOUT;
+            }
+            if (code.value() == HttpStatus.BAD_GATEWAY.value() || code.value() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                return HttpStatus.BAD_GATEWAY;
+            }
+            if (code.value() == HttpStatus.UNAUTHORIZED.value()) {
+                return HttpStatus.UNAUTHORIZED;
+            }
+            return code.is5xxServerError() ? HttpStatus.INTERNAL_SERVER_ERROR : null;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
 
+    private static byte[] bodyFor(HttpStatus status) {
+        return switch (status) {
+            case UNAUTHORIZED -> UNAUTHORIZED_BODY;
+            case BAD_GATEWAY -> BAD_GATEWAY_BODY;
+            case GATEWAY_TIMEOUT -> GATEWAY_TIMEOUT_BODY;
+            default -> INTERNAL_ERROR_BODY;
+        };
+    }
 
+    private static byte[] json(String error, String message) {
+        return ("{\"error\":\"" + error + "\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
 
+    @Override
+    public int getOrder() {
+        return 100; // Выполняется после Security
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.platform.gateway.filter;
+
+import com.example.platform.gateway.security.InternalIdentitySigner;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Передаёт downstream-сервисам подписанный заголовок X-Internal-Identity с данными уже проверенного JWT.
+ * Заголовок из входящего запроса всегда удаляется, чтобы клиент не мог подставить свой.
+ */
+@Component
+public class InternalIdentityFilter implements GlobalFilter, Ordered {
+
+    private final InternalIdentitySigner signer;
+
+    public InternalIdentityFilter(InternalIdentitySigner signer) {
+        this.signer = signer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest stripped = exchange.getRequest().mutate()
+                .headers(headers -> headers.remove(InternalIdentitySigner.HEADER))
+                .build();
+        if (!signer.isEnabled()) {
+            return chain.filter(exchange.mutate().request(stripped).build());
+        }
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> stripped.mutate()
+                        .header(InternalIdentitySigner.HEADER, signer.sign(((JwtAuthenticationToken) principal).getToken()))
+                        .build())
+                .defaultIfEmpty(stripped)
+                .flatMap(request -> chain.filter(exchange.mutate().request(request).build()));
+    }
+
+    @Override
+    public int getOrder() {
+        return -50; // После LoggingFilter, до маршрутизации
+    }
+}
@@ -1,51 +1,158 @@
 package com.example.platform.gateway.filter;
 
+import com.example.platform.gateway.accesslog.AccessLogRecord;
+import com.example.platform.gateway.accesslog.AccessLogWriter;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Access-лог шлюза: на каждый отобранный запрос — одна структурированная запись
+ * (метод, route id, статус, задержка, байты), которая пишется асинхронно через {@link AccessLogWriter}.
+ * Ошибки (5xx) логируются всегда, остальные запросы — с вероятностью app.access-log.sample-rate.
+ * Подробный дамп заголовков — только для маршрутов из app.access-log.debug-routes и уровня DEBUG.
+ */
 @Component
 public class LoggingFilter implements GlobalFilter, Ordered {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
 
+    private static final Set<String> REDACTED_HEADERS = Set.of("authorization", "cookie", "set-cookie",
+            "proxy-authorization", "x-internal-identity");
+
+    private final AccessLogWriter writer;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean alwaysLogErrors;
+    private final Set<String> debugRoutes;
+
+    public LoggingFilter(
+            AccessLogWriter writer,
+            @Value("${app.access-log.enabled:true}") boolean enabled,
+            @Value("${app.access-log.sample-rate:1.0}") double sampleRate,
+            @Value("${app.access-log.always-log-errors:true}") boolean alwaysLogErrors,
+            @Value("${app.access-log.debug-routes:}") List<String> debugRoutes
+    ) {
+        this.writer = writer;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.alwaysLogErrors = alwaysLogErrors;
+        this.debugRoutes = debugRoutes.stream()
+                .map(String::trim)
+                .filter(route -> !route.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        String method = request.getMethod().toString();
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        long startNanos = System.nanoTime();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+
+        if (routeId != null && debugRoutes.contains(routeId) && logger.isDebugEnabled()) {
+            dumpRequest(exchange.getRequest(), routeId);
+        }
+
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!sampled && !alwaysLogErrors) {
+            return chain.filter(exchange);
+        }
+
+        // Тело считаем только у отобранных запросов; для остальных берём Content-Length, если он есть
+        AtomicLong bytesOut = sampled ? new AtomicLong() : null;
+        ServerWebExchange target = sampled
+                ? exchange.mutate().response(new CountingResponse(exchange.getResponse(), bytesOut)).build()
+                : exchange;
+
+        return chain.filter(target)
+                .doFinally(signal -> {
+                    ServerHttpResponse response = exchange.getResponse();
+                    HttpStatusCode statusCode = response.getStatusCode();
+                    int status = statusCode != null ? statusCode.value() : 0;
+                    if (!sampled && status < 500) {
+                        return;
+                    }
+                    ServerHttpRequest request = exchange.getRequest();
+                    InetSocketAddress remote = request.getRemoteAddress();
+                    writer.submit(new AccessLogRecord(
+                            System.currentTimeMillis(),
+                            request.getMethod().name(),
+                            routeId,
+                            request.getURI().getRawPath(),
+                            request.getURI().getRawQuery(),
+                            status,
+                            System.nanoTime() - startNanos,
+                            Math.max(request.getHeaders().getContentLength(), 0),
+                            bytesOut != null ? bytesOut.get() : Math.max(response.getHeaders().getContentLength(), 0),
+                            remote != null ? remote.getHostString() : null));
+                });
+    }
+
+    private void dumpRequest(ServerHttpRequest request, String routeId) {
         HttpHeaders headers = request.getHeaders();
-        String authHeader = headers.getFirst("Authorization");
-        
-        logger.info("=== REQUEST DEBUG ===");
-        logger.info("Method: {}, Path: {}", method, path);
-        logger.info("All headers: {}", headers);
-        
-        if (authHeader != null) {
-            String tokenPreview = authHeader.length() > 50 
-                ? authHeader.substring(0, 50) + "..." 
-                : authHeader;
-            logger.info("Authorization header present: {}", tokenPreview);
-            logger.info("Authorization header length: {}", authHeader.length());
-        } else {
-            logger.error("!!! NO Authorization header in request !!!");
-            logger.error("Available headers: {}", headers.keySet());
+        StringBuilder dump = new StringBuilder();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            dump.append("\n  ").append(header.getKey()).append(": ");
+            if (REDACTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                dump.append("*** (").append(String.join(",", header.getValue()).length()).append(" chars)");
+            } else {
+                dump.append(String.join(",", header.getValue()));
+            }
         }
-        logger.info("====================");
-        
-        return chain.filter(exchange);
+        logger.debug("Request {} {} on route {}:{}", request.getMethod(), request.getURI().getRawPath(), routeId, dump);
     }
 
     @Override
     public int getOrder() {
-        return -100; // Выполняется очень первым, до Security
+        return -100; // Выполняется первым среди глобальных фильтров, чтобы задержка включала всю цепочку
     }
-}
 
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+
+        private final AtomicLong bytes;
+
+        private CountingResponse(ServerHttpResponse delegate, AtomicLong bytes) {
+            super(delegate);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount())));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(inner ->
+                    Flux.from(inner).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))));
+        }
+    }
+}
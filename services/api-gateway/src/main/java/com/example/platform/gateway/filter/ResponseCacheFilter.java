@@ -0,0 +1,192 @@
+package com.example.platform.gateway.filter;
+
+import com.example.platform.gateway.cache.BodyCaptureResponseDecorator;
+import com.example.platform.gateway.cache.CachedResponse;
+import com.example.platform.gateway.cache.ResponseCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Кеширует GET-ответы выбранных маршрутов (по умолчанию — каталог resource-service).
+ * Свежая запись отдаётся без обращения к upstream; устаревшая ревалидируется через
+ * If-None-Match / If-Modified-Since, и при 304 клиент получает закешированное тело.
+ * Кеш общий для всех пользователей: ответы каталога не зависят от пользователя,
+ * а аутентификация проверяется Spring Security до глобальных фильтров.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache cache;
+    private final boolean enabled;
+    private final Set<String> routes;
+    private final long ttlNanos;
+    private final long maxEntryBytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidated;
+
+    public ResponseCacheFilter(
+            ResponseCache cache,
+            MeterRegistry meterRegistry,
+            @Value("${app.response-cache.enabled:true}") boolean enabled,
+            @Value("${app.response-cache.routes:resource-service}") List<String> routes,
+            @Value("${app.response-cache.ttl:PT5M}") Duration ttl,
+            @Value("${app.response-cache.max-entry-bytes:1048576}") long maxEntryBytes
+    ) {
+        this.cache = cache;
+        this.enabled = enabled;
+        this.routes = routes.stream().map(String::trim).collect(Collectors.toUnmodifiableSet());
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntryBytes = maxEntryBytes;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.revalidated = requests(meterRegistry, "revalidated");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || !routes.contains(route.getId())
+                || request.getMethod() != HttpMethod.GET
+                || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        // Копия до mutate(): изменённые заголовки разделяют хранилище с исходным запросом
+        List<String> clientEtags = List.copyOf(request.getHeaders().getIfNoneMatch());
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.ageNanos() < ttlNanos) {
+            hits.increment();
+            return writeCached(exchange, clientEtags, cached);
+        }
+
+        // Условные заголовки клиента не уходят в upstream: нам нужно полное тело для кеша
+        // или 304 на наш собственный ETag устаревшей записи
+        ServerHttpRequest upstreamRequest = request.mutate().headers(headers -> {
+            headers.remove(HttpHeaders.IF_NONE_MATCH);
+            headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+            if (cached != null) {
+                if (cached.etag() != null) {
+                    headers.setIfNoneMatch(cached.etag());
+                }
+                String lastModified = cached.headers().getFirst(HttpHeaders.LAST_MODIFIED);
+                if (lastModified != null) {
+                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+                }
+            }
+        }).build();
+
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(exchange.getResponse(), maxEntryBytes,
+                (upstream, body) -> onUpstreamResponse(clientEtags, upstream, body, key, cached));
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(response).build());
+    }
+
+    private byte[] onUpstreamResponse(List<String> clientEtags, ServerHttpResponse response, byte[] body,
+                                      String key, CachedResponse stale) {
+        if (stale != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            CachedResponse refreshed = stale.refreshed();
+            cache.put(key, refreshed);
+            revalidated.increment();
+            response.setStatusCode(refreshed.status());
+            refreshed.applyHeaders(response.getHeaders());
+            response.getHeaders().set(CACHE_STATUS_HEADER, "REVALIDATED");
+            return notModifiedForClient(clientEtags, response, refreshed) ? new byte[0] : refreshed.body();
+        }
+
+        misses.increment();
+        response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        if (response.getStatusCode() == HttpStatus.OK && isCacheable(response.getHeaders())) {
+            CachedResponse fresh = CachedResponse.of(response.getStatusCode(), response.getHeaders(), body);
+            cache.put(key, fresh);
+            if (notModifiedForClient(clientEtags, response, fresh)) {
+                return new byte[0];
+            }
+        }
+        return body;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, List<String> clientEtags, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(cached.status());
+        cached.applyHeaders(response.getHeaders());
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        if (notModifiedForClient(clientEtags, response, cached)) {
+            return response.setComplete();
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Если клиент уже имеет эту версию (If-None-Match), отвечаем 304 без тела.
+     */
+    private static boolean notModifiedForClient(List<String> clientEtags, ServerHttpResponse response,
+                                                CachedResponse cached) {
+        String etag = cached.etag();
+        if (etag == null) {
+            return false;
+        }
+        if (clientEtags.contains(etag) || clientEtags.contains("*")) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+            response.getHeaders().setContentLength(0);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return true;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        return !directives.contains(CacheControl.noStore().getHeaderValue())
+                && !directives.contains("private");
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        return query == null ? path : path + "?" + query;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response_cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return -4; // До NettyWriteResponseFilter (-1), чтобы перехватить запись тела ответа
+    }
+}
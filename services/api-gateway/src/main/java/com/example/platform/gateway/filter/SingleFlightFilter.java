@@ -0,0 +1,155 @@
+package com.example.platform.gateway.filter;
+
+import com.example.platform.gateway.cache.BodyCaptureResponseDecorator;
+import com.example.platform.gateway.cache.CachedResponse;
+import com.example.platform.gateway.security.CachingJwtDecoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Single-flight для идемпотентных GET: одновременные одинаковые запросы (путь, query и
+ * Authorization) разделяют один запрос к upstream. Первый запрос (leader) идёт в upstream,
+ * остальные (followers) ждут его ответ и получают копию тела.
+ * <p>
+ * Если ответ leader'а не удалось захватить (ошибка, слишком большое или потоковое тело)
+ * или ожидание превысило max-wait, follower выполняет свой запрос как обычно.
+ */
+@Component
+public class SingleFlightFilter implements GlobalFilter, Ordered {
+
+    private final ConcurrentMap<String, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Set<String> routes;
+    private final Duration maxWait;
+    private final long maxBodyBytes;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public SingleFlightFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.single-flight.enabled:true}") boolean enabled,
+            @Value("${app.single-flight.routes:resource-service,booking-service,booking-availability,booking-waitlist,booking-read}") List<String> routes,
+            @Value("${app.single-flight.max-wait:PT10S}") Duration maxWait,
+            @Value("${app.single-flight.max-body-bytes:1048576}") long maxBodyBytes
+    ) {
+        this.enabled = enabled;
+        this.routes = routes.stream().map(String::trim).collect(Collectors.toUnmodifiableSet());
+        this.maxWait = maxWait;
+        this.maxBodyBytes = maxBodyBytes;
+        this.leaders = requests(meterRegistry, "leader");
+        this.followers = requests(meterRegistry, "follower");
+        this.fallbacks = requests(meterRegistry, "fallback");
+        Gauge.builder("gateway.single_flight.in_flight", inFlight, ConcurrentMap::size)
+                .register(meterRegistry);
+        // Доля запросов, обслуженных без собственного обращения к upstream
+        Gauge.builder("gateway.single_flight.coalesce_ratio", this, SingleFlightFilter::coalesceRatio)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || !routes.contains(route.getId())
+                || request.getMethod() != HttpMethod.GET
+                || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+
+        String key = flightKey(route, request);
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Mono<CachedResponse> flight = sink.asMono();
+        Mono<CachedResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return follow(exchange, chain, existing);
+        }
+
+        leaders.increment();
+        BodyCaptureResponseDecorator response = new BodyCaptureResponseDecorator(exchange.getResponse(), maxBodyBytes,
+                (upstream, body) -> {
+                    // Сначала убираем flight из карты, чтобы новые запросы после ответа шли в upstream заново
+                    inFlight.remove(key, flight);
+                    sink.tryEmitValue(CachedResponse.snapshot(upstream.getStatusCode(), upstream.getHeaders(), body));
+                    return body;
+                });
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Mono<CachedResponse> flight) {
+        return flight
+                .timeout(maxWait)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorReturn(Optional.empty())
+                .flatMap(shared -> {
+                    // 304 относится к условному запросу leader'а и не годится для остальных клиентов
+                    if (shared.isEmpty() || shared.get().status() == HttpStatus.NOT_MODIFIED) {
+                        fallbacks.increment();
+                        return chain.filter(exchange);
+                    }
+                    followers.increment();
+                    return write(exchange.getResponse(), shared.get());
+                });
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, CachedResponse shared) {
+        response.setStatusCode(shared.status());
+        shared.applyHeaders(response.getHeaders());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static String flightKey(Route route, ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String scope = authorization != null ? CachingJwtDecoder.sha256(authorization) : "anonymous";
+        String query = request.getURI().getRawQuery();
+        return route.getId() + ' ' + request.getURI().getRawPath()
+                + (query != null ? "?" + query : "") + ' ' + scope;
+    }
+
+    private double coalesceRatio() {
+        double coalesced = followers.count();
+        double total = coalesced + leaders.count() + fallbacks.count();
+        return total > 0 ? coalesced / total : 0.0;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.single_flight.requests")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return -3; // После ResponseCacheFilter (промах кеша) и до NettyWriteResponseFilter (-1)
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.platform.gateway.keycloak;
+
+/**
+ * Admin-токен Keycloak получить не удалось. Отдельный тип, чтобы сбой токена не путался
+ * с ответом Admin API на создание пользователя.
+ */
+public class KeycloakAdminTokenException extends RuntimeException {
+
+    public KeycloakAdminTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.platform.gateway.keycloak;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admin-токен Keycloak для операций с пользователями. Токен кешируется до expires_in минус refresh-skew;
+ * в последние refresh-skew секунд жизни запросы получают ещё действующий токен, а новый запрашивается
+ * в фоне. Одновременные обновления объединяются в один запрос к Keycloak.
+ */
+@Component
+public class KeycloakAdminTokenManager {
+
+    private static final Logger log = LoggerFactory.getLogger(KeycloakAdminTokenManager.class);
+
+    private final WebClient webClient;
+    private final String realm;
+    private final String clientId;
+    private final String username;
+    private final String password;
+    private final Duration refreshSkew;
+    private final AtomicReference<AdminToken> current = new AtomicReference<>();
+    private final AtomicReference<Mono<AdminToken>> refreshing = new AtomicReference<>();
+
+    public KeycloakAdminTokenManager(@Qualifier("keycloakWebClient") WebClient webClient,
+                                     @Value("${app.keycloak.admin.realm:master}") String realm,
+                                     @Value("${app.keycloak.admin.client-id:admin-cli}") String clientId,
+                                     @Value("${app.keycloak.admin.username:admin}") String username,
+                                     @Value("${app.keycloak.admin.password:admin}") String password,
+                                     @Value("${app.keycloak.admin.refresh-skew:PT30S}") Duration refreshSkew) {
+        this.webClient = webClient;
+        this.realm = realm;
+        this.clientId = clientId;
+        this.username = username;
+        this.password = password;
+        this.refreshSkew = refreshSkew;
+    }
+
+    public Mono<String> getToken() {
+        AdminToken token = current.get();
+        Instant now = Instant.now();
+        if (token != null && now.isBefore(token.expiresAt())) {
+            if (!now.isBefore(token.refreshAt())) {
+                // Токен ещё действует — отдаём его, новый получаем в фоне
+                refresh().subscribe(t -> { }, e -> log.warn("Background Keycloak admin token refresh failed: {}",
+                        e.getMessage()));
+            }
+            return Mono.just(token.value());
+        }
+        return refresh().map(AdminToken::value);
+    }
+
+    /**
+     * Сбрасывает токен, отвергнутый Keycloak (401): следующий getToken() получит новый.
+     */
+    public void invalidate(String rejectedToken) {
+        current.updateAndGet(token -> token != null && token.value().equals(rejectedToken) ? null : token);
+    }
+
+    private Mono<AdminToken> refresh() {
+        while (true) {
+            Mono<AdminToken> inFlight = refreshing.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+            Mono<AdminToken> request = fetchToken()
+                    .doOnNext(current::set)
+                    .doFinally(signal -> refreshing.set(null))
+                    .cache();
+            if (refreshing.compareAndSet(null, request)) {
+                return request;
+            }
+        }
+    }
+
+    private Mono<AdminToken> fetchToken() {
+        return webClient.post()
+                .uri("/realms/{realm}/protocol/openid-connect/token", realm)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("client_id", clientId)
+                        .with("username", username)
+                        .with("password", password)
+                        .with("grant_type", "password"))
+                .retrieve()
+                .bodyToMono(TokenResponse.class)
+                .map(response -> {
+                    Instant now = Instant.now();
+                    Duration lifetime = Duration.ofSeconds(response.expiresIn());
+                    Duration untilRefresh = lifetime.minus(refreshSkew);
+                    if (untilRefresh.isNegative()) {
+                        untilRefresh = lifetime.dividedBy(2);
+                    }
+                    return new AdminToken(response.accessToken(), now.plus(untilRefresh), now.plus(lifetime));
+                })
+                .onErrorMap(e -> new KeycloakAdminTokenException(
+                        "Keycloak admin token request failed: " + e.getMessage(), e));
+    }
+
+    private record AdminToken(String value, Instant refreshAt, Instant expiresAt) {
+    }
+
+    private record TokenResponse(@JsonProperty("access_token") String accessToken,
+                                 @JsonProperty("expires_in") long expiresIn) {
+    }
+}
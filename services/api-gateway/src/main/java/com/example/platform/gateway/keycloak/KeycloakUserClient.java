@@ -0,0 +1,78 @@
+package com.example.platform.gateway.keycloak;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Создание пользователей через Admin API Keycloak. Адрес Keycloak берётся из services.keycloak.url,
+ * поэтому клиент можно направить на локальный stub-сервер.
+ */
+@Component
+public class KeycloakUserClient {
+
+    private final WebClient webClient;
+    private final KeycloakAdminTokenManager tokenManager;
+    private final String realm;
+
+    public KeycloakUserClient(@Qualifier("keycloakWebClient") WebClient webClient,
+                              KeycloakAdminTokenManager tokenManager,
+                              @Value("${app.keycloak.realm:app}") String realm) {
+        this.webClient = webClient;
+        this.tokenManager = tokenManager;
+        this.realm = realm;
+    }
+
+    /**
+     * Создаёт пользователя из полей регистрации (username, email, password, firstName, lastName).
+     * Ошибки Admin API (например, 409 при существующем пользователе) приходят как WebClientResponseException,
+     * сбой получения admin-токена — как {@link KeycloakAdminTokenException}.
+     */
+    public Mono<ResponseEntity<Void>> createUser(Map<String, String> userData) {
+        Map<String, Object> user = toRepresentation(userData);
+        return tokenManager.getToken()
+                .flatMap(adminToken -> postUser(adminToken, user)
+                        // Токен отозван или Keycloak перезапущен: один повтор со свежим токеном
+                        .onErrorResume(WebClientResponseException.Unauthorized.class, e -> {
+                            tokenManager.invalidate(adminToken);
+                            return tokenManager.getToken().flatMap(fresh -> postUser(fresh, user));
+                        }));
+    }
+
+    private Mono<ResponseEntity<Void>> postUser(String adminToken, Map<String, Object> user) {
+        return webClient.post()
+                .uri("/admin/realms/{realm}/users", realm)
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(user)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private static Map<String, Object> toRepresentation(Map<String, String> userData) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("username", userData.get("username"));
+        user.put("email", userData.get("email"));
+        user.put("firstName", userData.getOrDefault("firstName", ""));
+        user.put("lastName", userData.getOrDefault("lastName", ""));
+        user.put("enabled", true);
+        user.put("emailVerified", true);
+
+        Map<String, Object> credential = new HashMap<>();
+        credential.put("type", "password");
+        credential.put("value", userData.get("password"));
+        credential.put("temporary", false);
+        user.put("credentials", List.of(credential));
+        user.put("requiredActions", List.of());
+        return user;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.platform.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов к upstream одного маршрута (градиентный алгоритм).
+ * <p>
+ * Сравнивает кратковременную задержку (EWMA последних ответов) с долговременной базовой:
+ * пока они близки, лимит растёт на величину очереди (√limit); когда upstream начинает
+ * накапливать очередь и задержка растёт, лимит снижается пропорционально, и лишние запросы
+ * отклоняются сразу, не увеличивая задержку уже принятых. Таймауты и ошибки соединения
+ * снижают лимит мультипликативно.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 0.002;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Запрос завершён без обращения к upstream (ответ из кеша, single-flight, отмена клиентом).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Ответ upstream получен за rttNanos.
+     */
+    public void onSample(long rttNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+            longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+            // Базовая задержка не должна «дрейфовать» вверх вслед за перегрузкой
+            if (longRttNanos / shortRttNanos > 2.0) {
+                longRttNanos *= 0.95;
+            }
+            // Лимит не растёт, если текущий и так не используется
+            if (inFlightAtRelease < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            double queueSize = Math.sqrt(limit);
+            double newLimit = limit * gradient + queueSize;
+            limit = clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+        }
+    }
+
+    /**
+     * Таймаут или ошибка соединения с upstream.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            limit = clamp(limit * DROP_BACKOFF);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.platform.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Приблизительный распределённый rate limiter: решение принимается локально по token bucket без
+ * обращения к Redis на каждом запросе, а раз в sync-interval каждый экземпляр шлюза добавляет свой
+ * расход в общий счётчик (INCRBY) и вычитает из локальных bucket'ов расход остальных экземпляров.
+ * Если Redis недоступен, лимит продолжает действовать локально для каждого экземпляра.
+ */
+@Component
+public class DistributedRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(DistributedRateLimiter.class);
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+
+    private final Cache<String, TokenBucket> buckets;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean syncEnabled;
+    private final Duration syncInterval;
+    private final Duration keyTtl;
+    private final Counter syncFailures;
+    private Disposable syncTask;
+
+    public DistributedRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.rate-limit.sync.enabled:true}") boolean syncEnabled,
+                                  @Value("${app.rate-limit.sync.interval:PT0.5S}") Duration syncInterval,
+                                  @Value("${app.rate-limit.sync.key-ttl:PT10M}") Duration keyTtl,
+                                  @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                                  @Value("${app.rate-limit.idle-expiry:PT10M}") Duration idleExpiry) {
+        this.redisTemplate = redisTemplate;
+        this.syncEnabled = syncEnabled;
+        this.syncInterval = syncInterval;
+        this.keyTtl = keyTtl;
+        // Неактивные bucket'ы удаляются: после простоя пользователь всё равно получил бы полный bucket
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.syncFailures = Counter.builder("gateway.rate_limit.sync.failures").register(meterRegistry);
+    }
+
+    public Decision tryAcquire(String key, RateLimit limit) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(limit, now));
+        if (!bucket.limit().equals(limit)) {
+            // Лимит маршрута изменился (обновление маршрутов) — начинаем с нового bucket
+            bucket = new TokenBucket(limit, now);
+            buckets.put(key, bucket);
+        }
+        long waitNanos = bucket.tryConsume(now);
+        return new Decision(waitNanos == 0, bucket.remaining(), Duration.ofNanos(waitNanos));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSync() {
+        if (!syncEnabled) {
+            return;
+        }
+        syncTask = Flux.interval(syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> syncAll(), 1)
+                .subscribe();
+    }
+
+    private Mono<Void> syncAll() {
+        return Flux.fromIterable(Map.copyOf(buckets.asMap()).entrySet())
+                .flatMap(entry -> sync(entry.getKey(), entry.getValue()), 32)
+                .then()
+                .onErrorResume(e -> {
+                    syncFailures.increment();
+                    log.debug("Rate limit sync failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> sync(String key, TokenBucket bucket) {
+        String redisKey = KEY_PREFIX + key;
+        long delta = bucket.drainUnsynced();
+        // INCRBY 0 — просто чтение общего счётчика, когда локального расхода не было
+        Mono<Long> total = redisTemplate.opsForValue().increment(redisKey, delta);
+        if (delta > 0) {
+            total = total.flatMap(value -> redisTemplate.expire(redisKey, keyTtl).thenReturn(value));
+        }
+        return total.doOnNext(value -> bucket.applyGlobal(value, System.nanoTime())).then();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (syncTask != null) {
+            syncTask.dispose();
+        }
+    }
+
+    /**
+     * Результат проверки: разрешён ли запрос, сколько токенов осталось и когда повторить при отказе.
+     */
+    public record Decision(boolean allowed, long remaining, Duration retryAfter) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.platform.gateway.ratelimit;
+
+import java.util.Map;
+
+/**
+ * Параметры token bucket: скорость пополнения (токенов в секунду) и ёмкость (допустимый всплеск).
+ * Значения по умолчанию переопределяются метаданными маршрута в GatewayConfig.
+ */
+public record RateLimit(double replenishRate, long burstCapacity) {
+
+    public static final String REPLENISH_RATE_METADATA = "rate-limit.replenish-rate";
+    public static final String BURST_CAPACITY_METADATA = "rate-limit.burst-capacity";
+
+    public RateLimit {
+        if (replenishRate <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException("Rate limit must be positive: " + replenishRate + "/" + burstCapacity);
+        }
+    }
+
+    public RateLimit withOverrides(Map<String, Object> metadata) {
+        Object rate = metadata.get(REPLENISH_RATE_METADATA);
+        Object burst = metadata.get(BURST_CAPACITY_METADATA);
+        if (rate == null && burst == null) {
+            return this;
+        }
+        return new RateLimit(
+                rate != null ? Double.parseDouble(rate.toString()) : replenishRate,
+                burst != null ? Long.parseLong(burst.toString()) : burstCapacity);
+    }
+}
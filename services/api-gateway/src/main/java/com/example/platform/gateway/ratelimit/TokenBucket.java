@@ -0,0 +1,83 @@
+package com.example.platform.gateway.ratelimit;
+
+/**
+ * Локальный token bucket одного ключа (пользователь + маршрут).
+ * <p>
+ * Каждый экземпляр шлюза пополняет bucket с полной скоростью, а при синхронизации с Redis
+ * вычитает токены, потраченные другими экземплярами с прошлой синхронизации. Между синхронизациями
+ * суммарный расход может превысить лимит не больше чем на трафик за один интервал синхронизации.
+ */
+class TokenBucket {
+
+    private final RateLimit limit;
+    private double tokens;
+    private long lastRefillNanos;
+    /** Потрачено локально и ещё не отправлено в Redis. */
+    private long unsynced;
+    /** Сколько из общего счётчика в Redis внесено этим экземпляром. */
+    private long contributed;
+    /** Расход других экземпляров, уже учтённый в tokens. */
+    private long othersSeen;
+
+    TokenBucket(RateLimit limit, long nowNanos) {
+        this.limit = limit;
+        this.tokens = limit.burstCapacity();
+        this.lastRefillNanos = nowNanos;
+    }
+
+    RateLimit limit() {
+        return limit;
+    }
+
+    /**
+     * @return 0, если токен выдан, иначе — через сколько наносекунд появится следующий токен
+     */
+    synchronized long tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            unsynced++;
+            return 0;
+        }
+        return (long) Math.ceil((1.0 - tokens) / limit.replenishRate() * 1_000_000_000L);
+    }
+
+    synchronized long remaining() {
+        return (long) Math.max(0, tokens);
+    }
+
+    synchronized long drainUnsynced() {
+        long delta = unsynced;
+        unsynced = 0;
+        contributed += delta;
+        return delta;
+    }
+
+    /**
+     * Применяет общий счётчик из Redis, полученный после отправки своей дельты.
+     */
+    synchronized void applyGlobal(long globalTotal, long nowNanos) {
+        if (globalTotal < contributed) {
+            // Ключ в Redis истёк или был сброшен: начинаем отсчёт заново
+            contributed = globalTotal;
+            othersSeen = 0;
+            return;
+        }
+        long others = globalTotal - contributed;
+        long consumedByOthers = others - othersSeen;
+        othersSeen = others;
+        if (consumedByOthers > 0) {
+            refill(nowNanos);
+            // Долг не больше ёмкости, чтобы после всплеска на других узлах пользователь не был заблокирован надолго
+            tokens = Math.max(-limit.burstCapacity(), tokens - consumedByOthers);
+        }
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(limit.burstCapacity(), tokens + elapsed * limit.replenishRate() / 1_000_000_000L);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.platform.gateway.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Формирует заголовок X-Internal-Identity: base64url(JSON с claims) + "." + base64url(HMAC-SHA256).
+ * Сервисы за шлюзом проверяют HMAC вместо повторной RSA-проверки JWT.
+ * Поле "th" — хеш исходного токена: заголовок действителен только вместе с тем же Authorization.
+ */
+@Component
+public class InternalIdentitySigner {
+
+    public static final String HEADER = "X-Internal-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final List<String> FORWARDED_CLAIMS = List.of(
+            "sub", "iss", "preferred_username", "email", "roles", "realm_access", "resource_access");
+
+    private final ObjectMapper objectMapper;
+    private final byte[] secret;
+    private final ThreadLocal<Mac> mac;
+
+    public InternalIdentitySigner(ObjectMapper objectMapper,
+                                  @Value("${app.internal-identity.secret:}") String secret) {
+        this.objectMapper = objectMapper;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public boolean isEnabled() {
+        return secret.length > 0;
+    }
+
+    public String sign(Jwt jwt) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        for (String claim : FORWARDED_CLAIMS) {
+            Object value = jwt.getClaims().get(claim);
+            if (value != null) {
+                payload.put(claim, value);
+            }
+        }
+        if (jwt.getIssuedAt() != null) {
+            payload.put("iat", jwt.getIssuedAt().getEpochSecond());
+        }
+        if (jwt.getExpiresAt() != null) {
+            payload.put("exp", jwt.getExpiresAt().getEpochSecond());
+        }
+        payload.put("th", CachingJwtDecoder.sha256(jwt.getTokenValue()));
+
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String body = encoder.encodeToString(objectMapper.writeValueAsBytes(payload));
+            byte[] signature = mac.get().doFinal(body.getBytes(StandardCharsets.US_ASCII));
+            return body + "." + encoder.encodeToString(signature);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize internal identity", e);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(new SecretKeySpec(secret, ALGORITHM));
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.platform.gateway.upstream;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HttpClient шлюза с ограниченной очередью ожидания соединения.
+ * Стандартная фабрика для FIXED-пула не ограничивает число ожидающих acquire: при всплеске
+ * запросы копятся в очереди до acquire-timeout, и задержка растёт у всех. Здесь очередь ограничена,
+ * лишние запросы сразу получают ошибку (→ 503) вместо ожидания.
+ */
+public class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private final int pendingAcquireMaxCount;
+
+    public UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                     HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                     int pendingAcquireMaxCount) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        HttpClientProperties.Pool pool = properties.getPool();
+        if (pool.getType() != HttpClientProperties.Pool.PoolType.FIXED) {
+            return super.buildConnectionProvider(properties);
+        }
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getAcquireTimeout()))
+                .metrics(pool.isMetrics());
+        if (pool.getMaxIdleTime() != null) {
+            builder.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getEvictionInterval() != null && !pool.getEvictionInterval().isZero()) {
+            builder.evictInBackground(pool.getEvictionInterval());
+        }
+        return builder.build();
+    }
+}
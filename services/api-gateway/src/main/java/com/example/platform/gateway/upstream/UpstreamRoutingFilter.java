@@ -0,0 +1,41 @@
+package com.example.platform.gateway.upstream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * NettyRoutingFilter с выбором протокола upstream по метаданным маршрута.
+ * Для маршрутов с {@code upstream-protocol: h2c} запросы идут по HTTP/2 без TLS (prior knowledge):
+ * много запросов мультиплексируются в нескольких соединениях вместо отдельного соединения на запрос,
+ * и медленный ответ не блокирует остальные. Таймауты маршрута (connect-timeout, response-timeout)
+ * обрабатывает базовый класс.
+ */
+public class UpstreamRoutingFilter extends NettyRoutingFilter {
+
+    public static final String PROTOCOL_METADATA = "upstream-protocol";
+    public static final String H2C = "h2c";
+
+    public UpstreamRoutingFilter(HttpClient httpClient,
+                                 ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                 HttpClientProperties properties) {
+        super(httpClient, headersFiltersProvider, properties);
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = super.getHttpClient(route, exchange);
+        if (H2C.equals(route.getMetadata().get(PROTOCOL_METADATA))) {
+            // Пул соединений общий: reactor-netty разделяет пулы по конфигурации протокола
+            return client.protocol(HttpProtocol.H2C);
+        }
+        return client;
+    }
+}
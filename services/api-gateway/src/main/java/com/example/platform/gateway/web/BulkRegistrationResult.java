@@ -0,0 +1,15 @@
+package com.example.platform.gateway.web;
+
+/**
+ * Результат регистрации одного пользователя в пакетной регистрации (одна строка NDJSON-ответа).
+ */
+public record BulkRegistrationResult(long index, String username, int status, String error) {
+
+    public static BulkRegistrationResult created(long index, String username) {
+        return new BulkRegistrationResult(index, username, 201, null);
+    }
+
+    public static BulkRegistrationResult failed(long index, String username, int status, String error) {
+        return new BulkRegistrationResult(index, username, status, error);
+    }
+}
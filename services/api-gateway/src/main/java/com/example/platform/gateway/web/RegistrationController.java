@@ -1,84 +1,107 @@
 package com.example.platform.gateway.web;
 
+import com.example.platform.gateway.keycloak.KeycloakUserClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/auth")
 public class RegistrationController {
 
-    private final WebClient webClient;
-    private final String keycloakUrl;
+    private final KeycloakUserClient userClient;
+    private final int bulkConcurrency;
+    private final long bulkMaxUsers;
 
-    public RegistrationController(@Value("${services.keycloak.url:http://keycloak:8080}") String keycloakUrl) {
-        this.keycloakUrl = keycloakUrl;
-        this.webClient = WebClient.builder().build();
+    public RegistrationController(KeycloakUserClient userClient,
+                                  @Value("${app.keycloak.bulk.concurrency:8}") int bulkConcurrency,
+                                  @Value("${app.keycloak.bulk.max-users:10000}") long bulkMaxUsers) {
+        this.userClient = userClient;
+        this.bulkConcurrency = bulkConcurrency;
+        this.bulkMaxUsers = bulkMaxUsers;
     }
 
     @PostMapping("/register")
     public Mono<ResponseEntity<Map<String, String>>> register(@RequestBody Map<String, String> userData) {
-        // Получаем admin token
-        return webClient.post()
-                .uri(keycloakUrl + "/realms/master/protocol/openid-connect/token")
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .body(BodyInserters.fromFormData("client_id", "admin-cli")
-                        .with("username", "admin")
-                        .with("password", "admin")
-                        .with("grant_type", "password"))
-                .retrieve()
-                .bodyToMono(Map.class)
-                .flatMap(tokenResponse -> {
-                    String adminToken = (String) tokenResponse.get("access_token");
-                    
-                    // Создаем пользователя
-                    Map<String, Object> user = new HashMap<>();
-                    user.put("username", userData.get("username"));
-                    user.put("email", userData.get("email"));
-                    user.put("firstName", userData.getOrDefault("firstName", ""));
-                    user.put("lastName", userData.getOrDefault("lastName", ""));
-                    user.put("enabled", true);
-                    user.put("emailVerified", true);
-                    
-                    Map<String, Object> credential = new HashMap<>();
-                    credential.put("type", "password");
-                    credential.put("value", userData.get("password"));
-                    credential.put("temporary", false);
-                    user.put("credentials", List.of(credential));
-                    user.put("requiredActions", List.of());
-
-                    return webClient.post()
-                            .uri(keycloakUrl + "/admin/realms/app/users")
-                            .header("Authorization", "Bearer " + adminToken)
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .bodyValue(user)
-                            .retrieve()
-                            .toBodilessEntity()
-                            .map(response -> {
-                                if (response.getStatusCode().is2xxSuccessful()) {
-                                    return ResponseEntity.ok(Map.of("message", "User registered successfully"));
-                                } else {
-                                    return ResponseEntity.status(response.getStatusCode())
-                                            .body(Map.of("error", "Registration failed"));
-                                }
-                            })
-                            .onErrorResume(error -> {
-                                return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
-                                        .body(Map.of("error", "User already exists or invalid data")));
-                            });
+        // Admin token берётся из кеша; запрос к Keycloak за новым — только при истечении
+        return userClient.createUser(userData)
+                .map(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        return ResponseEntity.ok(Map.of("message", "User registered successfully"));
+                    } else {
+                        return ResponseEntity.status(response.getStatusCode())
+                                .body(Map.of("error", "Registration failed"));
+                    }
                 })
+                // Только ответы Admin API на создание; сбой admin-токена уходит в общий 500 ниже
+                .onErrorResume(WebClientResponseException.class, error -> Mono.just(createUserFailed(error)))
                 .onErrorResume(error -> {
                     return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                             .body(Map.of("error", error.getMessage() != null ? error.getMessage() : "Registration failed")));
                 });
     }
+
+    private static ResponseEntity<Map<String, String>> createUserFailed(WebClientResponseException error) {
+        return switch (error.getStatusCode().value()) {
+            case 409 -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "User already exists"));
+            case 400 -> ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid user data"));
+            // 401/403 после повтора со свежим токеном и 5xx — проблема на стороне Keycloak, а не данных
+            default -> ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(Map.of("error", "Registration failed"));
+        };
+    }
+
+    /**
+     * Пакетная регистрация (только admin): принимает NDJSON или JSON-массив пользователей и по мере
+     * обработки отдаёт NDJSON с результатом по каждому. Одновременно в Keycloak уходит не больше
+     * app.keycloak.bulk.concurrency запросов; ошибка одного пользователя не прерывает пакет.
+     */
+    @PostMapping(value = "/register/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<BulkRegistrationResult>>> registerBulk(@AuthenticationPrincipal Jwt jwt,
+                                                                            @RequestBody Flux<Map<String, String>> users) {
+        if (jwt == null || !isAdmin(jwt)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        Flux<BulkRegistrationResult> results = users
+                .take(bulkMaxUsers)
+                .index()
+                .flatMap(indexed -> registerOne(indexed.getT1(), indexed.getT2()), bulkConcurrency);
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results));
+    }
+
+    private Mono<BulkRegistrationResult> registerOne(long index, Map<String, String> userData) {
+        String username = userData.get("username");
+        if (username == null || username.isBlank() || userData.get("password") == null) {
+            return Mono.just(BulkRegistrationResult.failed(index, username, 400, "username and password are required"));
+        }
+        return userClient.createUser(userData)
+                .map(response -> BulkRegistrationResult.created(index, username))
+                .onErrorResume(WebClientResponseException.class, error -> Mono.just(BulkRegistrationResult.failed(
+                        index, username, error.getStatusCode().value(),
+                        error.getStatusCode().value() == 409 ? "User already exists" : "Registration failed")))
+                .onErrorResume(error -> Mono.just(BulkRegistrationResult.failed(index, username, 502,
+                        error.getMessage() != null ? error.getMessage() : "Registration failed")));
+    }
+
+    private boolean isAdmin(Jwt jwt) {
+        Object realmAccess = jwt.getClaim("realm_access");
+        if (realmAccess instanceof Map<?, ?> map && map.get("roles") instanceof Collection<?> roles) {
+            return roles.contains("admin");
+        }
+        return false;
+    }
 }
@@ -2,8 +2,10 @@ package com.example.platform.dataprocessor;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DataProcessorApplication {
     public static void main(String[] args) {
         SpringApplication.run(DataProcessorApplication.class, args);
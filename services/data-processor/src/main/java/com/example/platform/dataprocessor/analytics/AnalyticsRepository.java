@@ -0,0 +1,178 @@
+package com.example.platform.dataprocessor.analytics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Доступ к таблицам агрегатов (см. schema.sql). Запись идёт только дельтами через upsert,
+ * поэтому несколько инстансов data-processor могут сбрасывать rollup'ы параллельно.
+ * Учтённые переходы броней хранятся отдельно, чтобы повторно доставленное событие не попало в дельты дважды.
+ */
+@Repository
+public class AnalyticsRepository {
+
+    private static final String UPSERT_UTILIZATION =
+            "INSERT INTO analytics_resource_utilization_hourly (resource_id, bucket_start, booked_minutes) " +
+            "VALUES (?, ?, ?) " +
+            "ON CONFLICT (resource_id, bucket_start) DO UPDATE " +
+            "SET booked_minutes = analytics_resource_utilization_hourly.booked_minutes + EXCLUDED.booked_minutes";
+
+    private static final String UPSERT_REVENUE =
+            "INSERT INTO analytics_revenue_daily (day, resource_type, revenue, confirmed, cancelled) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (day, resource_type) DO UPDATE " +
+            "SET revenue = analytics_revenue_daily.revenue + EXCLUDED.revenue, " +
+            "confirmed = analytics_revenue_daily.confirmed + EXCLUDED.confirmed, " +
+            "cancelled = analytics_revenue_daily.cancelled + EXCLUDED.cancelled";
+
+    // Вставляются только новые переходы; RETURNING отдаёт именно их
+    private static final String CLAIM_TRANSITIONS =
+            "INSERT INTO analytics_processed_transitions (booking_id, status) " +
+            "SELECT * FROM unnest(?::bigint[], ?::varchar[]) " +
+            "ON CONFLICT (booking_id, status) DO NOTHING " +
+            "RETURNING booking_id, status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnalyticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Обе таблицы пишутся в одной транзакции, чтобы при ошибке дельты можно было вернуть целиком.
+     */
+    @Transactional
+    public void upsert(Map<UtilizationKey, Long> utilization, Map<RevenueKey, RevenueDelta> revenue) {
+        upsertUtilization(utilization);
+        upsertRevenue(revenue);
+    }
+
+    /**
+     * Отмечает переходы учтёнными и возвращает те, что не были учтены раньше. Вызывается в одной транзакции
+     * с {@link #upsert}: при откате отметки снимаются вместе с дельтами.
+     */
+    public Set<TransitionKey> claimTransitions(Collection<TransitionKey> transitions) {
+        Long[] bookingIds = new Long[transitions.size()];
+        String[] statuses = new String[transitions.size()];
+        int i = 0;
+        for (TransitionKey transition : transitions) {
+            bookingIds[i] = transition.bookingId();
+            statuses[i++] = transition.status();
+        }
+        return new HashSet<>(jdbcTemplate.query(CLAIM_TRANSITIONS, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", bookingIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", statuses));
+        }, (rs, row) -> new TransitionKey(rs.getLong("booking_id"), rs.getString("status"))));
+    }
+
+    public int deleteTransitionsBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM analytics_processed_transitions WHERE processed_at < ?",
+                Timestamp.valueOf(cutoff));
+    }
+
+    private void upsertUtilization(Map<UtilizationKey, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, minutes) -> args.add(new Object[]{
+                key.resourceId(), Timestamp.valueOf(key.bucketStart()), minutes}));
+        jdbcTemplate.batchUpdate(UPSERT_UTILIZATION, args);
+    }
+
+    private void upsertRevenue(Map<RevenueKey, RevenueDelta> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> args.add(new Object[]{
+                Date.valueOf(key.day()), key.resourceType(), delta.revenue(), delta.confirmed(), delta.cancelled()}));
+        jdbcTemplate.batchUpdate(UPSERT_REVENUE, args);
+    }
+
+    public List<UtilizationPoint> findUtilization(Long resourceId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT bucket_start, booked_minutes FROM analytics_resource_utilization_hourly " +
+                "WHERE resource_id = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start",
+                (rs, i) -> {
+                    long minutes = rs.getLong("booked_minutes");
+                    return new UtilizationPoint(rs.getTimestamp("bucket_start").toLocalDateTime(),
+                            minutes, minutes / 60.0);
+                },
+                resourceId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public List<RevenuePoint> findDailyRevenue(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT day, SUM(revenue) AS revenue FROM analytics_revenue_daily " +
+                "WHERE day >= ? AND day <= ? GROUP BY day ORDER BY day",
+                (rs, i) -> new RevenuePoint(rs.getDate("day").toLocalDate(), null, rs.getBigDecimal("revenue")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<RevenuePoint> findRevenueByType(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT resource_type, SUM(revenue) AS revenue FROM analytics_revenue_daily " +
+                "WHERE day >= ? AND day <= ? GROUP BY resource_type ORDER BY resource_type",
+                (rs, i) -> new RevenuePoint(null, rs.getString("resource_type"), rs.getBigDecimal("revenue")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public CancellationStats findCancellationStats(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(confirmed), 0) AS confirmed, COALESCE(SUM(cancelled), 0) AS cancelled " +
+                "FROM analytics_revenue_daily WHERE day >= ? AND day <= ?",
+                (rs, i) -> CancellationStats.of(rs.getLong("confirmed"), rs.getLong("cancelled")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Тип ресурса берётся из таблицы resources (её ведёт resource-service в той же БД).
+     */
+    public Optional<String> findResourceType(Long resourceId) {
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT type FROM resources WHERE id = ?", String.class, resourceId);
+        return types.stream().findFirst();
+    }
+
+    /** Переход брони в статус; одно событие booking.events — один переход */
+    public record TransitionKey(long bookingId, String status) {
+    }
+
+    public record UtilizationKey(Long resourceId, LocalDateTime bucketStart) {
+    }
+
+    public record RevenueKey(LocalDate day, String resourceType) {
+    }
+
+    public record RevenueDelta(BigDecimal revenue, long confirmed, long cancelled) {
+
+        RevenueDelta plus(RevenueDelta other) {
+            return new RevenueDelta(revenue.add(other.revenue), confirmed + other.confirmed,
+                    cancelled + other.cancelled);
+        }
+    }
+
+    public record UtilizationPoint(LocalDateTime hour, long bookedMinutes, double utilization) {
+    }
+
+    public record RevenuePoint(LocalDate day, String resourceType, BigDecimal revenue) {
+    }
+
+    public record CancellationStats(long confirmed, long cancelled, double cancellationRate) {
+
+        static CancellationStats of(long confirmed, long cancelled) {
+            long total = confirmed + cancelled;
+            double rate = total > 0 ? (double) cancelled / total : 0.0;
+            return new CancellationStats(confirmed, cancelled, rate);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.platform.dataprocessor.analytics;
+
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.RevenueDelta;
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.RevenueKey;
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.TransitionKey;
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.UtilizationKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Сворачивает поток уведомлений о бронированиях в инкрементальные агрегаты:
+ * загрузка ресурса по часам, выручка по дням и типам ресурса, число подтверждений/отмен.
+ * <p>
+ * Переходы копятся в памяти и периодически сбрасываются в Postgres одной транзакцией: сначала переходы
+ * отмечаются в analytics_processed_transitions, затем дельты только новых из них сворачиваются и пишутся
+ * batch-upsert'ом. Повторно доставленное событие (тот же bookingId и статус) поэтому учитывается один раз —
+ * и в пределах буфера, и после сброса.
+ */
+@Component
+public class BookingAnalyticsAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingAnalyticsAggregator.class);
+
+    private static final String UNKNOWN_TYPE = "UNKNOWN";
+
+    private final AnalyticsRepository analyticsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration dedupeRetention;
+    private final Map<Long, String> resourceTypes = new ConcurrentHashMap<>();
+
+    // Писатели берут read-lock (работают параллельно), flush берёт write-lock только на подмену карты
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<TransitionKey, Transition> pending = new ConcurrentHashMap<>();
+
+    public BookingAnalyticsAggregator(AnalyticsRepository analyticsRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${app.analytics.dedupe-retention:P90D}") Duration dedupeRetention) {
+        this.analyticsRepository = analyticsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dedupeRetention = dedupeRetention;
+    }
+
+    /**
+     * @param previousStatus статус до изменения; null для новых броней и старых сообщений без этого поля
+     */
+    public void record(long bookingId, Long resourceId, String status, String previousStatus,
+                       LocalDateTime startTime, LocalDateTime endTime, BigDecimal totalPrice) {
+        int sign;
+        switch (status) {
+            case "CONFIRMED" -> sign = 1;
+            // Отмена вычитается только если бронь до этого была учтена как подтверждённая
+            case "CANCELLED" -> sign = previousStatus == null || "CONFIRMED".equals(previousStatus) ? -1 : 0;
+            default -> sign = 0;
+        }
+        if (sign == 0) {
+            return;
+        }
+
+        Transition transition = new Transition(resourceId, resolveResourceType(resourceId), sign,
+                startTime, endTime, totalPrice != null ? totalPrice : BigDecimal.ZERO);
+        swapLock.readLock().lock();
+        try {
+            pending.putIfAbsent(new TransitionKey(bookingId, status), transition);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval:PT10S}")
+    public void flush() {
+        Map<TransitionKey, Transition> batch;
+
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        try {
+            int applied = transactionTemplate.execute(status -> {
+                Set<TransitionKey> fresh = analyticsRepository.claimTransitions(batch.keySet());
+                Map<UtilizationKey, Long> utilization = new HashMap<>();
+                Map<RevenueKey, RevenueDelta> revenue = new HashMap<>();
+                fresh.forEach(key -> rollup(batch.get(key), utilization, revenue));
+                utilization.values().removeIf(minutes -> minutes == 0);
+                analyticsRepository.upsert(utilization, revenue);
+                return fresh.size();
+            });
+            log.debug("Flushed analytics rollups: {} transition(s), {} already counted",
+                    applied, batch.size() - applied);
+        } catch (Exception e) {
+            log.warn("Failed to flush analytics rollups, will retry on next tick: {}", e.getMessage());
+            restore(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Отметки старше dedupe-retention удаляются: повторы приходят в пределах минут (очереди повтора)
+     * или дней (разбор parking lot), а не месяцев.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.dedupe-purge-interval:PT1H}",
+            initialDelayString = "${app.analytics.dedupe-purge-interval:PT1H}")
+    public void purgeProcessedTransitions() {
+        try {
+            int removed = analyticsRepository.deleteTransitionsBefore(LocalDateTime.now().minus(dedupeRetention));
+            log.debug("Purged {} processed analytics transition(s)", removed);
+        } catch (Exception e) {
+            log.warn("Failed to purge processed analytics transitions: {}", e.getMessage());
+        }
+    }
+
+    private static void rollup(Transition transition, Map<UtilizationKey, Long> utilization,
+                               Map<RevenueKey, RevenueDelta> revenue) {
+        RevenueDelta delta = transition.sign() > 0
+                ? new RevenueDelta(transition.price(), 1, 0)
+                // Отмена переводит бронь из подтверждённых в отменённые
+                : new RevenueDelta(transition.price().negate(), -1, 1);
+        revenue.merge(new RevenueKey(transition.startTime().toLocalDate(), transition.resourceType()),
+                delta, RevenueDelta::plus);
+
+        LocalDateTime startTime = transition.startTime();
+        LocalDateTime endTime = transition.endTime();
+        LocalDateTime bucket = startTime.truncatedTo(ChronoUnit.HOURS);
+        while (bucket.isBefore(endTime)) {
+            LocalDateTime next = bucket.plusHours(1);
+            LocalDateTime from = startTime.isAfter(bucket) ? startTime : bucket;
+            LocalDateTime to = endTime.isBefore(next) ? endTime : next;
+            long minutes = Duration.between(from, to).toMinutes();
+            if (minutes > 0) {
+                utilization.merge(new UtilizationKey(transition.resourceId(), bucket),
+                        transition.sign() * minutes, Long::sum);
+            }
+            bucket = next;
+        }
+    }
+
+    private void restore(Map<TransitionKey, Transition> batch) {
+        swapLock.readLock().lock();
+        try {
+            batch.forEach(pending::putIfAbsent);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private String resolveResourceType(Long resourceId) {
+        String cached = resourceTypes.get(resourceId);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            // Тип ресурса практически не меняется, поэтому кешируем навсегда; неизвестные не кешируем
+            return analyticsRepository.findResourceType(resourceId)
+                    .map(type -> {
+                        resourceTypes.put(resourceId, type);
+                        return type;
+                    })
+                    .orElse(UNKNOWN_TYPE);
+        } catch (Exception e) {
+            log.warn("Failed to resolve type of resource {}: {}", resourceId, e.getMessage());
+            return UNKNOWN_TYPE;
+        }
+    }
+
+    /** Учитываемая часть события: знак +1 — подтверждение, -1 — отмена подтверждённой брони */
+    private record Transition(Long resourceId, String resourceType, int sign,
+                              LocalDateTime startTime, LocalDateTime endTime, BigDecimal price) {
+    }
+}
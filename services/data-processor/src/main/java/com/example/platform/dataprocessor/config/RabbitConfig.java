@@ -1,23 +1,113 @@
 package com.example.platform.dataprocessor.config;
 
+import com.example.platform.dataprocessor.messaging.NotificationRecoveryAdvice;
+import com.example.platform.dataprocessor.messaging.NotificationTopology;
+import com.example.platform.dataprocessor.notification.NotificationDeliveryEngine;
+import com.example.platform.events.BookingEventMessageConverter;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.ExchangeBuilder;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Declares the required queue so the listener can start even if the broker is empty.
+ * Declares the notification topology owned by this consumer:
+ * <pre>
+ * booking.events (topic) --booking.#--> queue --(handler failed)--> queue.retry.N (TTL) --> queue
+ *                                         \--(non-retryable / attempts exhausted / delivery limit)--> queue.parking-lot
+ * </pre>
+ * Retry queues dead-letter back through the default exchange straight into the consumer queue,
+ * so other subscribers of booking.events never see a retried message twice.
  */
 @Configuration
 public class RabbitConfig {
 
-    @Value("${app.queue:booking-notifications}")
-    private String queueName;
+    @Bean
+    public NotificationTopology notificationTopology(
+            @Value("${app.messaging.exchange:booking.events}") String exchange,
+            @Value("${app.queue:data-processor.booking-events}") String queue,
+            @Value("${app.messaging.queue-type:quorum}") NotificationTopology.QueueType queueType,
+            @Value("${app.messaging.retry-delays:PT1S,PT10S,PT1M}") List<Duration> retryDelays,
+            @Value("${app.messaging.delivery-limit:10}") int deliveryLimit) {
+        return new NotificationTopology(exchange, queue, queueType, retryDelays, deliveryLimit);
+    }
 
     @Bean
-    public Queue dataTasksQueue() {
-        // non-durable queue is fine for demo; switch to durable in real env
-        return new Queue(queueName, false);
+    public Declarables notificationDeclarables(NotificationTopology topology) {
+        List<Declarable> declarables = new ArrayList<>();
+        TopicExchange exchange = ExchangeBuilder.topicExchange(topology.exchange()).durable(true).build();
+        declarables.add(exchange);
+
+        QueueBuilder main = typed(QueueBuilder.durable(topology.queue()), topology.queueType())
+                // Rejected without requeue (recoverer itself failed) -> parking lot rather than a hot loop
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(topology.parkingLotQueue());
+        if (topology.queueType() == NotificationTopology.QueueType.QUORUM) {
+            // Consumer crashes mid-message redeliver it; after the limit the broker dead-letters it too
+            main.deliveryLimit(topology.deliveryLimit());
+        }
+        Queue queue = main.build();
+        declarables.add(queue);
+        Binding binding = BindingBuilder.bind(queue).to(exchange).with("booking.#");
+        declarables.add(binding);
+
+        for (int attempt = 1; attempt <= topology.maxRetries(); attempt++) {
+            // Classic durable queues: per-queue TTL is all they need, quorum replication buys nothing here
+            declarables.add(QueueBuilder.durable(topology.retryQueue(attempt))
+                    .ttl((int) topology.retryDelay(attempt).toMillis())
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(topology.queue())
+                    .build());
+        }
+        declarables.add(typed(QueueBuilder.durable(topology.parkingLotQueue()), topology.queueType()).build());
+        return new Declarables(declarables);
+    }
+
+    private static QueueBuilder typed(QueueBuilder builder, NotificationTopology.QueueType type) {
+        return switch (type) {
+            case QUORUM -> builder.quorum();
+            case LAZY -> builder.lazy();
+            case CLASSIC -> builder;
+        };
+    }
+
+    /**
+     * Messages are acked by the listener once delivery finishes, so failures need an advice that can
+     * reach the channel; it replaces the Boot retry interceptor (spring.rabbitmq.listener.simple.retry).
+     * The container sits one phase below the delivery engine: on shutdown the engine drains first,
+     * while consumer channels are still open for its acks.
+     */
+    @Bean
+    public ContainerCustomizer<SimpleMessageListenerContainer> notificationContainerCustomizer(
+            NotificationRecoveryAdvice recoveryAdvice) {
+        return container -> {
+            container.setAdviceChain(recoveryAdvice);
+            container.setPhase(NotificationDeliveryEngine.PHASE - 1);
+        };
     }
-}
 
+    /**
+     * booking-service publishes binary BookingEvents. Java-serialized Maps from before the switch may still
+     * sit in the queues: the fallback reads them, restricted to the JDK types such a Map could contain.
+     */
+    @Bean
+    public MessageConverter messageConverter() {
+        SimpleMessageConverter legacy = new SimpleMessageConverter();
+        legacy.setAllowedListPatterns(List.of("java.util.*", "java.lang.*", "java.math.*", "java.time.*"));
+        return new BookingEventMessageConverter(legacy);
+    }
+}
@@ -1,58 +1,130 @@
 package com.example.platform.dataprocessor.messaging;
 
+import com.example.platform.dataprocessor.analytics.BookingAnalyticsAggregator;
+import com.example.platform.dataprocessor.notification.NotificationDeliveryEngine;
+import com.example.platform.events.BookingEvent;
+import com.rabbitmq.client.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class BookingNotificationListener {
     
     private static final Logger log = LoggerFactory.getLogger(BookingNotificationListener.class);
     
-    @RabbitListener(queues = "${app.queue:booking-notifications}")
-    public void handleBookingNotification(Map<String, Object> message) {
-        log.info("Received booking notification: {}", message);
+    private final BookingAnalyticsAggregator analyticsAggregator;
+    private final NotificationMetrics metrics;
+    private final NotificationDeliveryEngine deliveryEngine;
+    private final NotificationRetryRecoverer recoverer;
+    
+    public BookingNotificationListener(BookingAnalyticsAggregator analyticsAggregator, NotificationMetrics metrics,
+                                       NotificationDeliveryEngine deliveryEngine, NotificationRetryRecoverer recoverer) {
+        this.analyticsAggregator = analyticsAggregator;
+        this.metrics = metrics;
+        this.deliveryEngine = deliveryEngine;
+        this.recoverer = recoverer;
+    }
+    
+    /**
+     * Сообщение подтверждается, когда движок доставки закончит с событием, а не при выходе из метода.
+     * Недоставленные адресаты возвращаются в очередь отдельной копией с заголовком x-delivery-routes,
+     * и повтор идёт только им. Исключения до передачи в движок не глушатся: их обрабатывает
+     * NotificationRecoveryAdvice (очередь повтора или parking lot).
+     */
+    @RabbitListener(queues = "${app.queue:data-processor.booking-events}")
+    public void handleBookingNotification(BookingEvent event,
+                                          Message message,
+                                          @Header(AmqpHeaders.REDELIVERED) boolean redelivered,
+                                          @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                          Channel channel)
+            throws InterruptedException {
+        log.info("Received booking notification: {}", event);
+        if (redelivered) {
+            metrics.redelivered();
+        }
+        
+        String userId = event.userId();
+        String status = event.status().name();
+        
+        log.info("Processing booking notification - Booking ID: {}, User ID: {}, Resource ID: {}, Status: {}", 
+                event.bookingId(), userId, event.resourceId(), status);
+        
+        // Письма и webhook'и — асинхронно; при заполненном движке доставки поток потребителя ждёт здесь
+        Set<String> routes = pendingRoutes(message);
+        deliveryEngine.submit(event, routes,
+                new Acknowledgement(channel, deliveryTag, event.bookingId(), message, recoverer));
+        if (routes != null) {
+            // Копия для недоставленных адресатов: в аналитике событие учтено при первой доставке
+            return;
+        }
         
+        // После submit: прерванная передача уходит на повтор и не должна учитываться в аналитике дважды.
+        // Событие уже в движке, и повтор сообщения продублировал бы письма, поэтому сбой здесь только логируется
         try {
-            Long bookingId = Long.valueOf(message.get("bookingId").toString());
-            String userId = message.get("userId").toString();
-            Long resourceId = Long.valueOf(message.get("resourceId").toString());
-            String status = message.get("status").toString();
-            
-            log.info("Processing booking notification - Booking ID: {}, User ID: {}, Resource ID: {}, Status: {}", 
-                    bookingId, userId, resourceId, status);
-            
-            // Здесь можно добавить логику обработки:
-            // - Отправка email уведомлений
-            // - Обновление статистики
-            // - Генерация отчетов
-            // - Интеграция с внешними системами
-            
-            switch (status) {
-                case "CONFIRMED":
-                    log.info("Booking confirmed - sending confirmation notification to user {}", userId);
-                    // Отправка подтверждения
-                    break;
-                case "CANCELLED":
-                    log.info("Booking cancelled - sending cancellation notification to user {}", userId);
-                    // Отправка уведомления об отмене
-                    break;
-                default:
-                    log.info("Booking status changed to {}", status);
+            analyticsAggregator.record(event.bookingId(), event.resourceId(), status,
+                    event.previousStatus() != null ? event.previousStatus().name() : null,
+                    event.startTime(), event.endTime(), event.totalPrice());
+        } catch (RuntimeException e) {
+            log.error("Booking {} not recorded in analytics", event.bookingId(), e);
+        }
+    }
+    
+    private static Set<String> pendingRoutes(Message message) {
+        Object routes = message.getMessageProperties().getHeader(NotificationRetryRecoverer.ROUTES_HEADER);
+        if (!(routes instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream().map(String::valueOf).collect(Collectors.toSet());
+    }
+    
+    /**
+     * Подтверждение сообщения из потока доставки. Канал потребителя к этому времени может быть закрыт
+     * (разрыв соединения, остановка дольше shutdown-timeout) — тогда брокер доставит сообщение снова целиком.
+     */
+    private record Acknowledgement(Channel channel, long deliveryTag, long bookingId, Message message,
+                                   NotificationRetryRecoverer recoverer)
+            implements NotificationDeliveryEngine.Completion {
+        
+        @Override
+        public void delivered() {
+            ack();
+        }
+        
+        @Override
+        public void undelivered(List<String> routes) {
+            try {
+                recoverer.redeliver(message, routes);
+            } catch (RuntimeException e) {
+                // Копию не сохранить — остаётся вернуть оригинал; адресаты, уже получившие событие, получат его снова
+                log.warn("Booking notification {} requeued in full, undelivered routes {}: {}",
+                        bookingId, routes, e.toString());
+                try {
+                    channel.basicNack(deliveryTag, false, true);
+                } catch (IOException | RuntimeException nackFailure) {
+                    log.warn("Booking notification {} not returned to the queue: {}", bookingId, nackFailure.toString());
+                }
+                return;
+            }
+            ack();
+        }
+        
+        private void ack() {
+            try {
+                channel.basicAck(deliveryTag, false);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Booking notification {} handled but not acknowledged, broker will redeliver it: {}",
+                        bookingId, e.toString());
             }
-            
-        } catch (Exception e) {
-            log.error("Error processing booking notification: {}", e.getMessage(), e);
         }
     }
 }
-
-
-
-
-
-
-
@@ -0,0 +1,62 @@
+package com.example.platform.dataprocessor.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Счётчики доставки уведомлений: повторные доставки брокером (consumer упал до ack),
+ * уход в очередь повтора по номеру попытки, возврат недоставленных адресатов и парковка с причиной.
+ */
+@Component
+public class NotificationMetrics {
+
+    private final Counter redelivered;
+    private final List<Counter> retriedByAttempt = new ArrayList<>();
+    private final Counter parkedNonRetryable;
+    private final Counter parkedExhausted;
+    private final Counter requeuedRoutes;
+
+    public NotificationMetrics(MeterRegistry registry, NotificationTopology topology) {
+        redelivered = Counter.builder("booking.notifications.redelivered")
+                .description("Сообщения, повторно доставленные брокером после обрыва без ack")
+                .register(registry);
+        for (int attempt = 1; attempt <= topology.maxRetries(); attempt++) {
+            retriedByAttempt.add(Counter.builder("booking.notifications.retried")
+                    .description("Сообщения, отправленные в очередь повтора")
+                    .tag("attempt", String.valueOf(attempt))
+                    .register(registry));
+        }
+        parkedNonRetryable = parked(registry, "non_retryable");
+        parkedExhausted = parked(registry, "exhausted");
+        requeuedRoutes = Counter.builder("booking.notifications.requeued.routes")
+                .description("Адресаты, для которых событие возвращено в очередь недоставленным")
+                .register(registry);
+    }
+
+    private static Counter parked(MeterRegistry registry, String reason) {
+        return Counter.builder("booking.notifications.parked")
+                .description("Сообщения, отложенные в parking lot")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public void redelivered() {
+        redelivered.increment();
+    }
+
+    public void retried(int attempt) {
+        retriedByAttempt.get(attempt - 1).increment();
+    }
+
+    public void requeuedRoutes(int routes) {
+        requeuedRoutes.increment(routes);
+    }
+
+    public void parked(boolean retryable) {
+        (retryable ? parkedExhausted : parkedNonRetryable).increment();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.platform.dataprocessor.messaging;
+
+import com.rabbitmq.client.Channel;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+/**
+ * Advice контейнера booking.events при ручном подтверждении (acknowledge-mode: manual). Успешно принятое
+ * сообщение подтверждает BookingNotificationListener после доставки. Если конвертер или листенер бросил
+ * исключение, сообщение уходит в NotificationRetryRecoverer и подтверждается здесь, когда брокер принял копию;
+ * если и публикация копии не удалась — отклоняется без requeue, и брокер кладёт его в parking lot через DLX.
+ * <p>
+ * Заменяет retry-interceptor Spring Boot: его recoverer не видит канала и при manual ack оставил бы
+ * сообщение неподтверждённым.
+ */
+@Component
+public class NotificationRecoveryAdvice implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRecoveryAdvice.class);
+
+    private final NotificationRetryRecoverer recoverer;
+
+    public NotificationRecoveryAdvice(NotificationRetryRecoverer recoverer) {
+        this.recoverer = recoverer;
+    }
+
+    /**
+     * Оборачивает ContainerDelegate.invokeListener(Channel, Object): аргументы — канал потребителя и сообщение.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] args = invocation.getArguments();
+        Channel channel = (Channel) args[0];
+        Message message = (Message) args[1];
+        try {
+            return invocation.proceed();
+        } catch (Exception failure) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                recoverer.recover(message, failure);
+            } catch (RuntimeException e) {
+                log.error("Booking notification could not be republished, rejecting it to the parking lot", e);
+                channel.basicReject(deliveryTag, false);
+                return null;
+            }
+            channel.basicAck(deliveryTag, false);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.platform.dataprocessor.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.util.List;
+
+/**
+ * Вызывается из NotificationRecoveryAdvice вместо requeue, когда BookingNotificationListener или конвертер
+ * бросил исключение (одна попытка, без повторов в памяти).
+ * Сообщение переопубликовывается в очередь повтора с TTL следующей ступени или, если ошибка
+ * не исправится повтором либо ступени закончились, — в parking lot с причиной в заголовках.
+ * <p>
+ * Оригинал подтверждается только после подтверждения брокером новой копии (publisher confirms simple);
+ * если публикация не удалась, advice отклоняет сообщение и брокер отправит его в parking lot через DLX.
+ * Тот же путь через очередь повтора использует {@link #redeliver} для адресатов, которым движок доставки
+ * не смог отдать событие.
+ */
+@Component
+public class NotificationRetryRecoverer implements MessageRecoverer {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetryRecoverer.class);
+
+    static final String ATTEMPT_HEADER = "x-retry-attempt";
+    // Адресаты (NotificationDeliveryEngine.routeKey), которым событие ещё не доставлено; нет заголовка — всем
+    static final String ROUTES_HEADER = "x-delivery-routes";
+    private static final long CONFIRM_TIMEOUT_MS = 5_000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final NotificationTopology topology;
+    private final NotificationMetrics metrics;
+
+    public NotificationRetryRecoverer(RabbitTemplate rabbitTemplate, NotificationTopology topology,
+                                      NotificationMetrics metrics) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.topology = topology;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        Throwable failure = cause instanceof ListenerExecutionFailedException && cause.getCause() != null
+                ? cause.getCause() : cause;
+        MessageProperties properties = message.getMessageProperties();
+        Integer previous = properties.getHeader(ATTEMPT_HEADER);
+        int attempt = previous != null ? previous : 0;
+        boolean retryable = isRetryable(failure);
+
+        if (retryable && attempt < topology.maxRetries()) {
+            int next = attempt + 1;
+            properties.setHeader(ATTEMPT_HEADER, next);
+            publish(topology.retryQueue(next), message);
+            metrics.retried(next);
+            log.warn("Booking notification failed ({}), retry {} of {} in {}", failure.toString(),
+                    next, topology.maxRetries(), topology.retryDelay(next));
+            return;
+        }
+
+        properties.setHeader("x-exception-type", failure.getClass().getName());
+        properties.setHeader("x-exception-message", String.valueOf(failure.getMessage()));
+        properties.setHeader("x-original-routing-key", properties.getReceivedRoutingKey());
+        publish(topology.parkingLotQueue(), message);
+        metrics.parked(retryable);
+        log.error("Booking notification parked in {} after {} retries: {}",
+                topology.parkingLotQueue(), attempt, failure.toString());
+    }
+
+    /**
+     * Возвращает событие в очередь через первую ступень повтора только для {@code routes}: адресаты,
+     * уже получившие его, повтора не увидят. Попытки recover при этом не расходуются.
+     *
+     * @throws org.springframework.amqp.AmqpException брокер не подтвердил копию
+     */
+    public void redeliver(Message message, List<String> routes) {
+        MessageProperties properties = new MessageProperties();
+        message.getMessageProperties().getHeaders().forEach(properties::setHeader);
+        properties.setContentType(message.getMessageProperties().getContentType());
+        properties.setDeliveryMode(message.getMessageProperties().getDeliveryMode());
+        properties.setHeader(ROUTES_HEADER, List.copyOf(routes));
+        publish(topology.retryQueue(1), new Message(message.getBody(), properties));
+        metrics.requeuedRoutes(routes.size());
+    }
+
+    private void publish(String queue, Message message) {
+        rabbitTemplate.invoke(operations -> {
+            operations.send("", queue, message);
+            operations.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MS);
+            return null;
+        });
+    }
+
+    /**
+     * Испорченное содержимое (не десериализуется, нет поля, неверное число или дата) повтором не исправить.
+     */
+    static boolean isRetryable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof MessageConversionException
+                    || t instanceof IllegalArgumentException
+                    || t instanceof DateTimeException
+                    || t instanceof NullPointerException
+                    || t instanceof ClassCastException) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.platform.dataprocessor.messaging;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Names of the consumer queue, its retry ladder and parking lot. Shared by the declarations
+ * in RabbitConfig and by {@link NotificationRetryRecoverer}, which republishes into them.
+ *
+ * @param retryDelays backoff before attempt 2, 3, ...; its size is the number of retries
+ */
+public record NotificationTopology(String exchange, String queue, QueueType queueType,
+                                   List<Duration> retryDelays, int deliveryLimit) {
+
+    public enum QueueType {
+        /** Replicated, durable; the production default */
+        QUORUM,
+        /** Durable classic queue */
+        CLASSIC,
+        /** Classic queue kept on disk (x-queue-mode=lazy); RabbitMQ 3.12+ treats every classic queue this way */
+        LAZY
+    }
+
+    public NotificationTopology {
+        retryDelays = List.copyOf(retryDelays);
+    }
+
+    public int maxRetries() {
+        return retryDelays.size();
+    }
+
+    public Duration retryDelay(int attempt) {
+        return retryDelays.get(attempt - 1);
+    }
+
+    public String retryQueue(int attempt) {
+        return queue + ".retry." + attempt;
+    }
+
+    public String parkingLotQueue() {
+        return queue + ".parking-lot";
+    }
+}
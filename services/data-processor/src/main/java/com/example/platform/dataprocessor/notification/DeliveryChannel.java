@@ -0,0 +1,27 @@
+package com.example.platform.dataprocessor.notification;
+
+import com.example.platform.events.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Способ доставки уведомлений (почта, webhook). {@link NotificationDeliveryEngine} группирует события
+ * по паре канал + адресат и передаёт каналу пачкой, чтобы соединение использовалось для всей пачки.
+ */
+public interface DeliveryChannel {
+
+    /** Значение тега channel в метриках и заголовка x-delivery-channel в parking lot */
+    String name();
+
+    /**
+     * Куда доставить событие: адрес SMTP-relay, URL webhook'а и т. п. Пустой список — канал событие не шлёт.
+     */
+    List<String> destinations(BookingEvent event);
+
+    /**
+     * Вызывается из пула доставки, не более одного раза одновременно для одной пачки.
+     *
+     * @throws DeliveryException если часть пачки или вся пачка не доставлена
+     */
+    void deliver(String destination, List<BookingEvent> batch);
+}
@@ -0,0 +1,34 @@
+package com.example.platform.dataprocessor.notification;
+
+import com.example.platform.events.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Пачка доставлена не целиком. {@code failed} — недоставленная часть (null — вся пачка);
+ * {@code retryable} = false, если повтор не поможет: адресат отверг содержимое, 4xx webhook'а и т. п.
+ */
+public class DeliveryException extends RuntimeException {
+
+    private final boolean retryable;
+    private final List<BookingEvent> failed;
+
+    public DeliveryException(String message, boolean retryable, Throwable cause) {
+        this(message, retryable, null, cause);
+    }
+
+    public DeliveryException(String message, boolean retryable, List<BookingEvent> failed, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+        this.failed = failed != null ? List.copyOf(failed) : null;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /** Недоставленные события из {@code batch}; вся пачка, если канал не знает, какие именно */
+    public List<BookingEvent> failed(List<BookingEvent> batch) {
+        return failed != null ? failed : batch;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.platform.dataprocessor.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики {@link NotificationDeliveryEngine}. Тег channel — имя канала (email, webhook), адресат в теги
+ * не попадает: URL webhook'ов задаются конфигурацией, но число рядов от них всё равно не должно зависеть.
+ */
+class DeliveryMetrics {
+
+    private final Map<String, ChannelMeters> channels = new HashMap<>();
+    private final Timer backpressure;
+
+    DeliveryMetrics(MeterRegistry registry, List<DeliveryChannel> deliveryChannels) {
+        for (DeliveryChannel channel : deliveryChannels) {
+            channels.put(channel.name(), new ChannelMeters(registry, channel.name()));
+        }
+        backpressure = Timer.builder("booking.notifications.delivery.backpressure")
+                .description("Ожидание AMQP-потребителя, пока в движке доставки не освободится место")
+                .register(registry);
+    }
+
+    void delivered(String channel, int events, long nanos) {
+        ChannelMeters meters = channels.get(channel);
+        meters.delivered.increment(events);
+        meters.batchSize.record(events);
+        meters.batchLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void retried(String channel, int events) {
+        channels.get(channel).retried.increment(events);
+    }
+
+    void parked(String channel, int events) {
+        channels.get(channel).parked.increment(events);
+    }
+
+    void blocked(long nanos) {
+        backpressure.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class ChannelMeters {
+
+        private final Counter delivered;
+        private final Counter retried;
+        private final Counter parked;
+        private final DistributionSummary batchSize;
+        private final Timer batchLatency;
+
+        private ChannelMeters(MeterRegistry registry, String channel) {
+            delivered = Counter.builder("booking.notifications.delivered")
+                    .description("Доставленные уведомления")
+                    .tag("channel", channel)
+                    .register(registry);
+            retried = Counter.builder("booking.notifications.delivery.retried")
+                    .description("Уведомления, отправленные на повтор после неудачной попытки")
+                    .tag("channel", channel)
+                    .register(registry);
+            parked = Counter.builder("booking.notifications.delivery.parked")
+                    .description("Уведомления, не доставленные после всех попыток и отложенные в parking lot")
+                    .tag("channel", channel)
+                    .register(registry);
+            batchSize = DistributionSummary.builder("booking.notifications.delivery.batch.size")
+                    .description("Число событий в успешно доставленной пачке")
+                    .tag("channel", channel)
+                    .register(registry);
+            batchLatency = Timer.builder("booking.notifications.delivery.batch")
+                    .description("Время доставки одной пачки")
+                    .tag("channel", channel)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.platform.dataprocessor.notification;
+
+import com.example.platform.events.BookingEvent;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Письмо пользователю о подтверждении или отмене брони.
+ * Вся пачка уходит через одно SMTP-соединение: {@link JavaMailSender#send(MimeMessage...)}
+ * открывает Transport один раз на массив сообщений.
+ * <p>
+ * Адреса пользователя в платформе пока нет, поэтому получатель — {@code userId@recipient-domain}
+ * (relay переписывает домен на реальные адреса).
+ */
+@Component
+@ConditionalOnProperty(name = "app.notifications.email.enabled", havingValue = "true")
+public class EmailChannel implements DeliveryChannel {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final String recipientDomain;
+    private final List<String> relay;
+
+    public EmailChannel(JavaMailSender mailSender,
+                        @Value("${app.notifications.email.from}") String from,
+                        @Value("${app.notifications.email.recipient-domain}") String recipientDomain,
+                        @Value("${spring.mail.host}:${spring.mail.port:25}") String relay) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.recipientDomain = recipientDomain;
+        this.relay = List.of(relay);
+    }
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    public List<String> destinations(BookingEvent event) {
+        return switch (event.status()) {
+            case CONFIRMED, CANCELLED -> relay;
+            default -> List.of();
+        };
+    }
+
+    @Override
+    public void deliver(String destination, List<BookingEvent> batch) {
+        Map<MimeMessage, BookingEvent> messages = new IdentityHashMap<>();
+        try {
+            for (BookingEvent event : batch) {
+                messages.put(toMessage(event), event);
+            }
+        } catch (MessagingException e) {
+            throw new DeliveryException("Cannot build email: " + e.getMessage(), false, e);
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailAuthenticationException e) {
+            // Неверные учётные данные relay исправляются конфигурацией, а не повтором через минуту
+            throw new DeliveryException("SMTP authentication failed", false, e);
+        } catch (MailSendException e) {
+            List<BookingEvent> failed = new ArrayList<>();
+            boolean rejectedRecipientsOnly = true;
+            for (Map.Entry<Object, Exception> failure : e.getFailedMessages().entrySet()) {
+                BookingEvent event = messages.get(failure.getKey());
+                if (event != null) {
+                    failed.add(event);
+                }
+                rejectedRecipientsOnly &= failure.getValue() instanceof SendFailedException;
+            }
+            // Отказ по адресату постоянный; при смешанных ошибках повторяется всё недоставленное
+            boolean retryable = failed.isEmpty() || !rejectedRecipientsOnly;
+            throw new DeliveryException("SMTP delivery failed: " + e.getMessage(), retryable,
+                    failed.isEmpty() ? null : failed, e);
+        } catch (MailException e) {
+            throw new DeliveryException("SMTP delivery failed: " + e.getMessage(), true, e);
+        }
+    }
+
+    private MimeMessage toMessage(BookingEvent event) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(event.userId() + "@" + recipientDomain);
+        boolean confirmed = event.status() == BookingEvent.Status.CONFIRMED;
+        helper.setSubject("Бронирование #" + event.bookingId() + (confirmed ? " подтверждено" : " отменено"));
+        helper.setText("Бронирование #" + event.bookingId() + " ресурса #" + event.resourceId()
+                + (confirmed ? " подтверждено.\n" : " отменено.\n")
+                + "Время: " + TIME_FORMAT.format(event.startTime()) + " – " + TIME_FORMAT.format(event.endTime()) + "\n"
+                + "Стоимость: " + event.totalPrice().toPlainString() + "\n");
+        return message;
+    }
+}
@@ -0,0 +1,454 @@
+package com.example.platform.dataprocessor.notification;
+
+import com.example.platform.dataprocessor.messaging.NotificationTopology;
+import com.example.platform.events.BookingEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронная доставка уведомлений по всем {@link DeliveryChannel}.
+ * <ul>
+ *   <li>События копятся в пачку на пару канал + адресат до batch-size штук или linger времени;</li>
+ *   <li>пачки отправляет пул из concurrency потоков;</li>
+ *   <li>неудавшаяся часть пачки повторяется до max-attempts раз с экспоненциальной задержкой и полным
+ *       jitter'ом (случайная от 0 до min(max-backoff, initial-backoff * 2^(n-1))), чтобы после сбоя адресата
+ *       повторы не приходили к нему одной волной;</li>
+ *   <li>исчерпавшие попытки или отвергнутые адресатом события публикуются в parking lot очереди
+ *       уведомлений с заголовками x-delivery-channel / x-delivery-destination.</li>
+ * </ul>
+ * Одновременно в движке не больше max-pending событий (в пачках, в отправке и в ожидании повтора).
+ * {@link #submit} при заполнении блокирует поток AMQP-потребителя, а сверх prefetch неподтверждённых
+ * сообщений брокер новые не досылает: очередь копится в брокере, а не в памяти сервиса.
+ * <p>
+ * О каждом событии движок сообщает {@link Completion}, когда все адресаты закончили с ним: получили,
+ * событие подтверждено брокером в parking lot или осталось недоставленным (parking lot недоступен,
+ * движок останавливается) — тогда с перечнем именно этих адресатов, чтобы повтор не ушёл остальным.
+ * <p>
+ * При остановке контекста движок (фаза {@link #PHASE}) останавливается раньше контейнера AMQP: новые события
+ * сразу возвращаются недоставленными, принятые дожидаются отправки в пределах shutdown-timeout, пока канал
+ * потребителя ещё открыт для подтверждений. Не уложившиеся в timeout и события при падении процесса брокер
+ * доставит снова целиком, то есть и тем адресатам, которые их уже получили.
+ */
+@Component
+public class NotificationDeliveryEngine implements SmartLifecycle {
+
+    /** Выше фазы контейнера AMQP (RabbitConfig): останавливается первым */
+    public static final int PHASE = Integer.MAX_VALUE;
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDeliveryEngine.class);
+
+    private static final long CONFIRM_TIMEOUT_MS = 5_000;
+
+    private final List<DeliveryChannel> channels;
+    private final RabbitTemplate rabbitTemplate;
+    private final NotificationTopology topology;
+    private final DeliveryMetrics metrics;
+
+    private final int batchSize;
+    private final Duration linger;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final Duration shutdownTimeout;
+
+    private final Semaphore permits;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+
+    // Незакрытые пачки; под монитором самой карты
+    private final Map<Route, Batch> open = new HashMap<>();
+    // Пачки в отправке и в ожидании повтора
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxPending;
+    private volatile boolean running;
+    private volatile boolean stopping;
+
+    public NotificationDeliveryEngine(List<DeliveryChannel> channels,
+                                      RabbitTemplate rabbitTemplate,
+                                      NotificationTopology topology,
+                                      MeterRegistry registry,
+                                      @Value("${app.notifications.delivery.concurrency:8}") int concurrency,
+                                      @Value("${app.notifications.delivery.max-pending:1000}") int maxPending,
+                                      @Value("${app.notifications.delivery.batch-size:50}") int batchSize,
+                                      @Value("${app.notifications.delivery.linger:PT0.05S}") Duration linger,
+                                      @Value("${app.notifications.delivery.max-attempts:5}") int maxAttempts,
+                                      @Value("${app.notifications.delivery.initial-backoff:PT0.5S}") Duration initialBackoff,
+                                      @Value("${app.notifications.delivery.max-backoff:PT30S}") Duration maxBackoff,
+                                      @Value("${app.notifications.delivery.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.channels = List.copyOf(channels);
+        this.rabbitTemplate = rabbitTemplate;
+        this.topology = topology;
+        this.metrics = new DeliveryMetrics(registry, channels);
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoff.toMillis();
+        this.maxBackoffMs = maxBackoff.toMillis();
+        this.shutdownTimeout = shutdownTimeout;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+        this.workers = Executors.newFixedThreadPool(concurrency, named("notification-delivery-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(named("notification-timer-"));
+        Gauge.builder("booking.notifications.delivery.pending", permits, p -> maxPending - p.availablePermits())
+                .description("События в движке доставки: в пачках, в отправке и в ожидании повтора")
+                .register(registry);
+    }
+
+    /**
+     * Итог доставки одного события по всем адресатам. Вызывается один раз, из потока доставки
+     * (или сразу из {@link #submit}, если событие никому не адресовано).
+     */
+    public interface Completion {
+
+        /** Каждый адресат получил событие или оно подтверждено брокером в parking lot */
+        void delivered();
+
+        /**
+         * Адресатам {@code routes} (ключи {@link #routeKey}) событие не доставлено и не сохранено в parking lot;
+         * остальные его получили
+         */
+        void undelivered(List<String> routes);
+    }
+
+    /**
+     * Ключ адресата для {@link Completion#undelivered} и обратно для {@link #submit}.
+     */
+    public static String routeKey(String channel, String destination) {
+        return channel + "|" + destination;
+    }
+
+    /**
+     * Ставит событие в очередь каждого канала, которому оно адресовано. Блокируется, пока в движке нет места.
+     *
+     * @param only ключи адресатов, которым событие ещё не доставлено (повтор после частичной доставки);
+     *             null — всем
+     * @throws InterruptedException если поток прерван в ожидании; в каналы, уже принявшие событие,
+     *                              оно будет доставлено, но {@code completion} тогда не вызывается
+     */
+    public void submit(BookingEvent event, Set<String> only, Completion completion) throws InterruptedException {
+        List<Route> routes = new ArrayList<>();
+        for (DeliveryChannel channel : channels) {
+            for (String destination : channel.destinations(event)) {
+                Route route = new Route(channel, destination);
+                if (only == null || only.contains(route.key())) {
+                    routes.add(route);
+                }
+            }
+        }
+        if (routes.isEmpty()) {
+            completion.delivered();
+            return;
+        }
+        Pending pending = new Pending(event, new Tracker(completion, routes.size()));
+        for (Route route : routes) {
+            acquire();
+            if (stopping) {
+                // Канал потребителя скоро закроется: не начатое возвращается сразу, без ожидания отправки
+                permits.release();
+                pending.tracker().routeDone(route, false);
+                continue;
+            }
+            enqueue(route, pending);
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        long started = System.nanoTime();
+        permits.acquire();
+        metrics.blocked(System.nanoTime() - started);
+    }
+
+    private void enqueue(Route route, Pending pending) {
+        Batch full = null;
+        synchronized (open) {
+            Batch batch = open.get(route);
+            if (batch == null) {
+                batch = new Batch(route);
+                open.put(route, batch);
+                Batch created = batch;
+                batch.lingerTimer = timer.schedule(() -> flush(created), linger.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            batch.events.add(pending);
+            if (batch.events.size() >= batchSize) {
+                open.remove(route);
+                batch.lingerTimer.cancel(false);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(route, full.events, 1);
+        }
+    }
+
+    private void flush(Batch batch) {
+        synchronized (open) {
+            // Пачку могли уже забрать по заполнению
+            if (!open.remove(batch.route, batch)) {
+                return;
+            }
+        }
+        dispatch(batch.route, batch.events, 1);
+    }
+
+    private void dispatch(Route route, List<Pending> events, int attempt) {
+        inFlight.incrementAndGet();
+        try {
+            workers.execute(() -> deliver(route, events, attempt));
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            park(route, events, attempt, e);
+        }
+    }
+
+    private void deliver(Route route, List<Pending> events, int attempt) {
+        try {
+            attempt(route, events, attempt);
+        } finally {
+            // После постановки повтора, чтобы счётчик не проходил через ноль между попытками
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void attempt(Route route, List<Pending> events, int attempt) {
+        String channel = route.channel.name();
+        List<BookingEvent> batch = events.stream().map(Pending::event).toList();
+        long started = System.nanoTime();
+        List<BookingEvent> failedEvents;
+        boolean retryable;
+        Exception cause;
+        try {
+            route.channel.deliver(route.destination, batch);
+            metrics.delivered(channel, events.size(), System.nanoTime() - started);
+            complete(route, events, true);
+            return;
+        } catch (DeliveryException e) {
+            failedEvents = e.failed(batch);
+            retryable = e.isRetryable();
+            cause = e;
+        } catch (RuntimeException e) {
+            failedEvents = batch;
+            retryable = true;
+            cause = e;
+        }
+
+        // Канал возвращает те же экземпляры, что получил: сопоставляем по ссылке, а не по equals записи
+        Set<BookingEvent> failedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        failedSet.addAll(failedEvents);
+        List<Pending> failed = new ArrayList<>(failedSet.size());
+        List<Pending> delivered = new ArrayList<>(events.size() - failedSet.size());
+        for (Pending pending : events) {
+            (failedSet.contains(pending.event()) ? failed : delivered).add(pending);
+        }
+        if (!delivered.isEmpty()) {
+            metrics.delivered(channel, delivered.size(), System.nanoTime() - started);
+            complete(route, delivered, true);
+        }
+        if (retryable && attempt < maxAttempts) {
+            long delay = backoffMs(attempt);
+            metrics.retried(channel, failed.size());
+            log.warn("Delivery of {} notification(s) via {} to {} failed (attempt {} of {}), retry in {} ms: {}",
+                    failed.size(), channel, route.destination, attempt, maxAttempts, delay, cause.getMessage());
+            inFlight.incrementAndGet();
+            try {
+                timer.schedule(() -> {
+                    dispatch(route, failed, attempt + 1);
+                    inFlight.decrementAndGet();
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                park(route, failed, attempt, cause);
+            }
+            return;
+        }
+        park(route, failed, attempt, cause);
+    }
+
+    /** Полный jitter: равномерно от 0 до экспоненциальной верхней границы */
+    long backoffMs(int attempt) {
+        long ceiling = initialBackoffMs << Math.min(attempt - 1, 30);
+        return ThreadLocalRandom.current().nextLong(Math.min(ceiling, maxBackoffMs) + 1);
+    }
+
+    private void park(Route route, List<Pending> events, int attempts, Exception cause) {
+        String channel = route.channel.name();
+        log.error("Giving up on {} notification(s) via {} to {} after {} attempt(s): {}",
+                events.size(), channel, route.destination, attempts, cause.toString());
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (Pending pending : events) {
+                    operations.convertAndSend("", topology.parkingLotQueue(), pending.event(), message -> {
+                        message.getMessageProperties().setHeader("x-delivery-channel", channel);
+                        message.getMessageProperties().setHeader("x-delivery-destination", route.destination);
+                        message.getMessageProperties().setHeader("x-delivery-attempts", attempts);
+                        message.getMessageProperties().setHeader("x-exception-type", cause.getClass().getName());
+                        message.getMessageProperties().setHeader("x-exception-message", String.valueOf(cause.getMessage()));
+                        return message;
+                    });
+                }
+                operations.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MS);
+                return null;
+            });
+            metrics.parked(channel, events.size());
+            complete(route, events, true);
+        } catch (RuntimeException e) {
+            log.error("{} notification(s) via {} to {} not delivered: parking lot unavailable",
+                    events.size(), channel, route.destination, e);
+            complete(route, events, false);
+        }
+    }
+
+    /** Адресат закончил с событиями: освобождает места в движке и продвигает их Completion */
+    private void complete(Route route, List<Pending> events, boolean handled) {
+        permits.release(events.size());
+        for (Pending pending : events) {
+            pending.tracker().routeDone(route, handled);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        running = true;
+    }
+
+    /**
+     * Контейнер AMQP ещё работает: открытые пачки отправляются сразу, и движок ждёт, пока все принятые
+     * события завершатся (доставка, повторы, parking lot), но не дольше shutdown-timeout.
+     */
+    @Override
+    public void stop() {
+        stopping = true;
+        List<Batch> remaining;
+        synchronized (open) {
+            remaining = new ArrayList<>(open.values());
+            open.clear();
+        }
+        for (Batch batch : remaining) {
+            batch.lingerTimer.cancel(false);
+            dispatch(batch.route, batch.events, 1);
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            while (permits.availablePermits() < maxPending && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int pending = maxPending - permits.availablePermits();
+        if (pending > 0) {
+            log.warn("Notification delivery stopped with {} event route(s) still pending, "
+                    + "their messages will be redelivered in full", pending);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Route(DeliveryChannel channel, String destination) {
+
+        String key() {
+            return routeKey(channel.name(), destination);
+        }
+    }
+
+    /** Событие в пачке одного адресата; tracker общий для всех адресатов события */
+    private record Pending(BookingEvent event, Tracker tracker) {
+    }
+
+    private static final class Tracker {
+
+        private final Completion completion;
+        private final AtomicInteger remaining;
+        private final Queue<String> undelivered = new ConcurrentLinkedQueue<>();
+
+        private Tracker(Completion completion, int routes) {
+            this.completion = completion;
+            this.remaining = new AtomicInteger(routes);
+        }
+
+        private void routeDone(Route route, boolean handled) {
+            if (!handled) {
+                undelivered.add(route.key());
+            }
+            // decrementAndGet публикует добавленное выше потоку, который вызовет completion
+            if (remaining.decrementAndGet() != 0) {
+                return;
+            }
+            try {
+                if (undelivered.isEmpty()) {
+                    completion.delivered();
+                } else {
+                    completion.undelivered(List.copyOf(undelivered));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Notification completion callback failed: {}", e.toString());
+            }
+        }
+    }
+
+    private static final class Batch {
+
+        private final Route route;
+        private final List<Pending> events = new ArrayList<>();
+        private ScheduledFuture<?> lingerTimer;
+
+        private Batch(Route route) {
+            this.route = route;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.platform.dataprocessor.notification;
+
+import com.example.platform.events.BookingEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POST пачки событий JSON-массивом на каждый URL из app.notifications.webhook.urls (все статусы).
+ * Один java.net.http.HttpClient на канал держит keep-alive соединения к каждому адресату,
+ * поэтому пачки к одному URL не платят за TCP-рукопожатие.
+ */
+@Component
+public class WebhookChannel implements DeliveryChannel {
+
+    private final RestClient restClient;
+    private final List<String> urls;
+
+    public WebhookChannel(RestClient.Builder builder,
+                          @Value("${app.notifications.webhook.urls:}") List<String> urls,
+                          @Value("${app.notifications.webhook.timeout:PT5S}") Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = builder.requestFactory(requestFactory).build();
+        this.urls = List.copyOf(urls);
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public List<String> destinations(BookingEvent event) {
+        return urls;
+    }
+
+    @Override
+    public void deliver(String destination, List<BookingEvent> batch) {
+        try {
+            restClient.post()
+                    .uri(destination)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(batch)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (HttpStatusCodeException e) {
+            // 429 и 5xx — перегрузка или сбой получателя; прочие 4xx он вернёт и на повтор
+            boolean retryable = e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError();
+            throw new DeliveryException("Webhook " + destination + " responded " + e.getStatusCode().value(),
+                    retryable, e);
+        } catch (RestClientException e) {
+            throw new DeliveryException("Webhook " + destination + " unavailable: " + e.getMessage(), true, e);
+        }
+    }
+}
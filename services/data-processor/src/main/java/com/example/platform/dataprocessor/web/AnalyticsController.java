@@ -0,0 +1,75 @@
+package com.example.platform.dataprocessor.web;
+
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository;
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.CancellationStats;
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.RevenuePoint;
+import com.example.platform.dataprocessor.analytics.AnalyticsRepository.UtilizationPoint;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Чтение предрасчитанных агрегатов. Данные отстают от событий не более чем на
+ * app.analytics.flush-interval. Выручка и загрузка — данные для администраторов.
+ */
+@RestController
+@RequestMapping("/analytics")
+@PreAuthorize("hasRole('admin')")
+public class AnalyticsController {
+
+    private final AnalyticsRepository analyticsRepository;
+
+    public AnalyticsController(AnalyticsRepository analyticsRepository) {
+        this.analyticsRepository = analyticsRepository;
+    }
+
+    @GetMapping("/resources/{resourceId}/utilization")
+    public ResponseEntity<List<UtilizationPoint>> utilization(
+            @PathVariable("resourceId") Long resourceId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsRepository.findUtilization(resourceId, from, to));
+    }
+
+    @GetMapping("/revenue/daily")
+    public ResponseEntity<List<RevenuePoint>> dailyRevenue(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsRepository.findDailyRevenue(from, to));
+    }
+
+    @GetMapping("/revenue/by-type")
+    public ResponseEntity<List<RevenuePoint>> revenueByType(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsRepository.findRevenueByType(from, to));
+    }
+
+    @GetMapping("/cancellations")
+    public ResponseEntity<CancellationStats> cancellations(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(analyticsRepository.findCancellationStats(from, to));
+    }
+}
@@ -0,0 +1,30 @@
+-- Агрегаты аналитики бронирований. Заполняются BookingAnalyticsAggregator
+-- инкрементально (upsert с дельтами), сырая таблица bookings не сканируется.
+
+CREATE TABLE IF NOT EXISTS analytics_resource_utilization_hourly (
+    resource_id    BIGINT    NOT NULL,
+    bucket_start   TIMESTAMP NOT NULL,
+    booked_minutes BIGINT    NOT NULL DEFAULT 0,
+    PRIMARY KEY (resource_id, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS analytics_revenue_daily (
+    day           DATE           NOT NULL,
+    resource_type VARCHAR(32)    NOT NULL,
+    revenue       NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    confirmed     BIGINT         NOT NULL DEFAULT 0,
+    cancelled     BIGINT         NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, resource_type)
+);
+
+-- Переходы броней, уже попавшие в агрегаты: повторная доставка события (requeue, падение
+-- после сброса, повтор из parking lot) не добавляет дельты второй раз
+CREATE TABLE IF NOT EXISTS analytics_processed_transitions (
+    booking_id   BIGINT      NOT NULL,
+    status       VARCHAR(16) NOT NULL,
+    processed_at TIMESTAMP   NOT NULL DEFAULT now(),
+    PRIMARY KEY (booking_id, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_analytics_processed_transitions_processed_at
+    ON analytics_processed_transitions (processed_at);
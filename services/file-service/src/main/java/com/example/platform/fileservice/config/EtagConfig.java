@@ -0,0 +1,23 @@
+package com.example.platform.fileservice.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для каталога ресурсов: api-gateway ревалидирует закешированные ответы через If-None-Match
+ * и получает 304 без тела, если каталог не менялся.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> resourcesEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/resources", "/resources/*");
+        registration.setName("resourcesEtagFilter");
+        return registration;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.platform.fileservice.config;
 
+import com.example.platform.fileservice.dto.ResourceDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -16,6 +18,7 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -65,8 +68,20 @@ public class RedisConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                 .disableCachingNullValues();
 
+        // GenericJackson2JsonRedisSerializer со своим ObjectMapper не пишет тип, и при чтении из кеша
+        // получался LinkedHashMap (ClassCastException на каждом попадании) — кеш DTO сериализуется с явным классом
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration("resources", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(typedSerializer(ResourceDTO.class))))
                 .build();
     }
+
+    private static <T> Jackson2JsonRedisSerializer<T> typedSerializer(Class<T> type) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return new Jackson2JsonRedisSerializer<>(mapper, type);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.example.platform.fileservice.config;
 
+import com.example.platform.security.InternalIdentityAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +17,7 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.SecurityFilterChain;
@@ -25,6 +29,9 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
+    @Value("${app.internal-identity.secret:}")
+    private String internalIdentitySecret;
+
     /**
      * Кастомный JwtDecoder, который принимает токены с issuer как внутри Docker (keycloak:8080),
      * так и снаружи (localhost:8080 / localhost:8088). Без этого Keycloak возвращает issuer
@@ -96,15 +103,23 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectMapper objectMapper) throws Exception {
+        JwtAuthenticationConverter authenticationConverter = jwtAuthenticationConverter();
+        // Запросы через api-gateway аутентифицируются по подписанному X-Internal-Identity без повторной проверки JWT
+        InternalIdentityAuthenticationFilter internalIdentityFilter =
+                new InternalIdentityAuthenticationFilter(internalIdentitySecret, objectMapper, authenticationConverter);
         http
                 .authorizeHttpRequests(registry -> registry
                         .requestMatchers("/actuator/**").permitAll()
+                        // Иначе ошибка обработчика (ERROR dispatch на /error) уходит клиенту как 401
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         .anyRequest().authenticated())
+                .addFilterBefore(internalIdentityFilter, BearerTokenAuthenticationFilter.class)
                 .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(internalIdentityFilter.bearerTokenResolver())
                         .jwt(jwt -> jwt
                                 .decoder(jwtDecoder())
-                                .jwtAuthenticationConverter(jwtAuthenticationConverter())
+                                .jwtAuthenticationConverter(authenticationConverter)
                         ))
                 .csrf(csrf -> csrf.disable());
         return http.build();
@@ -0,0 +1,52 @@
+package com.example.platform.fileservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Публикует в Redis pub/sub id изменённого ресурса ("*" — изменился состав каталога).
+ * api-gateway по этому событию сбрасывает закешированные ответы каталога.
+ */
+@Component
+public class ResourceChangePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceChangePublisher.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    public ResourceChangePublisher(StringRedisTemplate redisTemplate,
+                                   @Value("${app.resource-changes.channel:resource-changes}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void resourceChanged(Long resourceId) {
+        String message = resourceId != null ? resourceId.toString() : "*";
+        // Событие уходит только после коммита, иначе шлюз может успеть закешировать старые данные
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(message);
+                }
+            });
+        } else {
+            publish(message);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            // Кеш шлюза всё равно устареет по TTL
+            log.warn("Failed to publish resource change {}: {}", message, e.getMessage());
+        }
+    }
+}
@@ -18,9 +18,11 @@ import java.util.stream.Collectors;
 public class ResourceService {
     
     private final ResourceRepository resourceRepository;
+    private final ResourceChangePublisher changePublisher;
     
-    public ResourceService(ResourceRepository resourceRepository) {
+    public ResourceService(ResourceRepository resourceRepository, ResourceChangePublisher changePublisher) {
         this.resourceRepository = resourceRepository;
+        this.changePublisher = changePublisher;
     }
     
     @CacheEvict(value = "resources", allEntries = true)
@@ -34,6 +36,7 @@ public class ResourceService {
         resource.setAvailable(dto.getAvailable() != null ? dto.getAvailable() : true);
         
         Resource saved = resourceRepository.save(resource);
+        changePublisher.resourceChanged(saved.getId());
         return toDTO(saved);
     }
     
@@ -85,6 +88,7 @@ public class ResourceService {
                         resource.setAvailable(dto.getAvailable());
                     }
                     Resource updated = resourceRepository.save(resource);
+                    changePublisher.resourceChanged(id);
                     return toDTO(updated);
                 });
     }
@@ -93,6 +97,7 @@ public class ResourceService {
     public boolean deleteResource(Long id) {
         if (resourceRepository.existsById(id)) {
             resourceRepository.deleteById(id);
+            changePublisher.resourceChanged(id);
             return true;
         }
         return false;
@@ -0,0 +1,47 @@
+package com.example.platform.bookingread;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ReactorResourceFactory;
+
+/**
+ * Реактивная read-сторона booking-service (WebFlux + R2DBC + reactive Redis): доступность, списки броней,
+ * пакетные запросы и SSE-потоки изменений броней (из booking.events). Собирается в тот же jar,
+ * что и ServiceTwoApplication, и запускается отдельным процессом через PropertiesLauncher
+ * (-Dloader.main=com.example.platform.bookingread.ReactiveBookingReadApplication).
+ * Запись остаётся в блокирующем booking-service; кеш "bookings" в Redis общий, поэтому
+ * инвалидация при создании и отмене броней действует и здесь.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class
+})
+public class ReactiveBookingReadApplication {
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBookingReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                // Свой booking-read.yml вместо application.yml блокирующего сервиса
+                .properties("spring.config.name=booking-read")
+                .run(args);
+    }
+
+    /**
+     * Tomcat тоже в classpath (нужен блокирующему сервису), и без явной фабрики WebFlux поднялся бы на нём;
+     * event loop Netty держит десятки тысяч соединений малым числом потоков.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.setResourceFactory(resourceFactory);
+        return factory;
+    }
+}
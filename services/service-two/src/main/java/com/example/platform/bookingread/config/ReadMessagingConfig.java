@@ -0,0 +1,45 @@
+package com.example.platform.bookingread.config;
+
+import com.example.platform.events.BookingEventMessageConverter;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Подписка на booking.events для SSE-потоков. Каждому экземпляру booking-read-service нужны все события
+ * (его клиенты подключены только к нему), поэтому очередь своя у экземпляра: с именем, сгенерированным
+ * при старте, exclusive и auto-delete — удаляется брокером вместе с соединением и не копит события,
+ * пока экземпляр не работает. Пропущенное за это время клиенты получат, перечитав список при переподключении.
+ */
+@Configuration
+public class ReadMessagingConfig {
+
+    @Bean
+    public TopicExchange bookingEventsExchange(@Value("${app.messaging.exchange:booking.events}") String exchange) {
+        return ExchangeBuilder.topicExchange(exchange).durable(true).build();
+    }
+
+    @Bean
+    public Queue bookingStreamQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("booking-read.stream."));
+    }
+
+    @Bean
+    public Binding bookingStreamBinding(Queue bookingStreamQueue, TopicExchange bookingEventsExchange) {
+        return BindingBuilder.bind(bookingStreamQueue).to(bookingEventsExchange).with("booking.#");
+    }
+
+    @Bean
+    public MessageConverter messageConverter() {
+        return new BookingEventMessageConverter(new SimpleMessageConverter());
+    }
+}
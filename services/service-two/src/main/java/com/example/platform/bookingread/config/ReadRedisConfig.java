@@ -0,0 +1,36 @@
+package com.example.platform.bookingread.config;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Чтение кеша "bookings", который заполняет booking-service (RedisConfig): ключи "bookings::&lt;id&gt;",
+ * значения — BookingDTO в JSON с датами ISO-8601. Неизвестные поля (в т.ч. "@class") игнорируются.
+ */
+@Configuration
+public class ReadRedisConfig {
+
+    @Bean
+    public ReactiveRedisTemplate<String, BookingDTO> bookingRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        RedisSerializationContext<String, BookingDTO> context = RedisSerializationContext
+                .<String, BookingDTO>newSerializationContext(new StringRedisSerializer())
+                .value(new Jackson2JsonRedisSerializer<>(mapper, BookingDTO.class))
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
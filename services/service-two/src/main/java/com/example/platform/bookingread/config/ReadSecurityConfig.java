@@ -0,0 +1,119 @@
+package com.example.platform.bookingread.config;
+
+import com.example.platform.security.InternalIdentityVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.oauth2.server.resource.web.server.authentication.ServerBearerTokenAuthenticationConverter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Та же схема, что в SecurityConfig booking-service: подписанный шлюзом X-Internal-Identity принимается
+ * без RSA-проверки JWT, иначе токен проверяется по JWKS Keycloak с мягкой проверкой issuer.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReadSecurityConfig {
+
+    private static final String VERIFIED_ATTRIBUTE = ReadSecurityConfig.class.getName() + ".VERIFIED";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${app.internal-identity.secret:}")
+    private String internalIdentitySecret;
+
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder() {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder
+                .withJwkSetUri(issuerUri + "/protocol/openid-connect/certs")
+                .build();
+
+        // Допустимые issuer считаются один раз, а не на каждый токен; без keycloak:8080 в адресе варианты совпадают
+        Set<String> acceptedIssuers = Set.copyOf(List.of(
+                issuerUri,
+                issuerUri.replace("keycloak:8080", "localhost:8088"),
+                issuerUri.replace("keycloak:8080", "localhost:8080")));
+        OAuth2TokenValidator<Jwt> issuerValidator = jwt -> {
+            String tokenIssuer = jwt.getClaimAsString(JwtClaimNames.ISS);
+            if (tokenIssuer != null && (acceptedIssuers.contains(tokenIssuer) || tokenIssuer.endsWith("/realms/app"))) {
+                return OAuth2TokenValidatorResult.success();
+            }
+            return OAuth2TokenValidatorResult.failure(
+                    new OAuth2Error("invalid_token", "Invalid issuer: " + tokenIssuer, null));
+        };
+
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(new JwtTimestampValidator(), issuerValidator));
+        return decoder;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ObjectMapper objectMapper) {
+        JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+        InternalIdentityVerifier verifier = new InternalIdentityVerifier(internalIdentitySecret, objectMapper);
+
+        // Запрос с проверенным заголовком шлюза уже аутентифицирован — Bearer-токен повторно не декодируется
+        ServerBearerTokenAuthenticationConverter bearerConverter = new ServerBearerTokenAuthenticationConverter();
+        http
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/**").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterBefore(internalIdentityFilter(verifier, authenticationConverter),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenConverter(exchange -> Boolean.TRUE.equals(exchange.getAttribute(VERIFIED_ATTRIBUTE))
+                                ? Mono.empty()
+                                : bearerConverter.convert(exchange))
+                        .jwt(jwt -> jwt
+                                .jwtDecoder(reactiveJwtDecoder())
+                                .jwtAuthenticationConverter(
+                                        new ReactiveJwtAuthenticationConverterAdapter(authenticationConverter))))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable);
+        return http.build();
+    }
+
+    private WebFilter internalIdentityFilter(InternalIdentityVerifier verifier,
+                                             JwtAuthenticationConverter authenticationConverter) {
+        return (exchange, chain) -> {
+            if (!verifier.isEnabled()) {
+                return chain.filter(exchange);
+            }
+            HttpHeaders headers = exchange.getRequest().getHeaders();
+            String identity = headers.getFirst(InternalIdentityVerifier.HEADER);
+            String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+            if (identity == null || authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+                return chain.filter(exchange);
+            }
+            Jwt jwt = verifier.verify(identity, authorization.substring(BEARER_PREFIX.length()));
+            if (jwt == null) {
+                return chain.filter(exchange);
+            }
+            exchange.getAttributes().put(VERIFIED_ATTRIBUTE, Boolean.TRUE);
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authenticationConverter.convert(jwt)));
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.platform.bookingread.repository;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.model.BookingStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Запросы read-стороны к таблице bookings через R2DBC. Повторяет запросы BookingRepository
+ * (в т.ч. нижнюю границу earliestStart для отсечения партиций) без JPA-сущностей: строки сразу
+ * отображаются в BookingDTO.
+ */
+@Repository
+public class ReactiveBookingReadRepository {
+
+    private static final String COLUMNS = "id, resource_id, user_id, start_time, end_time, total_price, status, "
+            + "notes, hold_expires_at, created_at, updated_at";
+
+    private static final String ACTIVE_OVERLAP = "status IN ('PENDING', 'CONFIRMED') "
+            + "AND start_time >= :earliestStart AND start_time < :endTime AND end_time > :startTime";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookingReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<BookingDTO> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM bookings WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveBookingReadRepository::toDTO)
+                .first();
+    }
+
+    public Flux<BookingDTO> findAllById(Collection<Long> ids) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM bookings WHERE id = ANY(:ids)")
+                .bind("ids", ids.toArray(Long[]::new))
+                .map(ReactiveBookingReadRepository::toDTO)
+                .all();
+    }
+
+    public Flux<BookingDTO> findByUserId(String userId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM bookings WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(ReactiveBookingReadRepository::toDTO)
+                .all();
+    }
+
+    public Flux<BookingDTO> findByResourceId(Long resourceId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM bookings WHERE resource_id = :resourceId")
+                .bind("resourceId", resourceId)
+                .map(ReactiveBookingReadRepository::toDTO)
+                .all();
+    }
+
+    public Mono<Boolean> existsConflict(Long resourceId, LocalDateTime startTime, LocalDateTime endTime,
+                                        LocalDateTime earliestStart) {
+        return databaseClient.sql("SELECT 1 FROM bookings WHERE resource_id = :resourceId AND "
+                        + ACTIVE_OVERLAP + " LIMIT 1")
+                .bind("resourceId", resourceId)
+                .bind("startTime", startTime)
+                .bind("endTime", endTime)
+                .bind("earliestStart", earliestStart)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Самая длинная активная бронь (Duration.ZERO, если активных нет): по ней считается earliestStart.
+     */
+    public Mono<Duration> findLongestActiveDuration() {
+        return databaseClient.sql("SELECT COALESCE(CAST(CEIL(EXTRACT(EPOCH FROM MAX(end_time - start_time))) "
+                        + "AS bigint), 0) AS seconds FROM bookings WHERE status IN ('PENDING', 'CONFIRMED')")
+                .map(row -> Duration.ofSeconds(row.get("seconds", Long.class)))
+                .one();
+    }
+
+    /**
+     * Ресурсы из resourceIds, занятые в интервале: один запрос вместо отдельной проверки на каждый ресурс.
+     */
+    public Flux<Long> findBusyResources(Collection<Long> resourceIds, LocalDateTime startTime, LocalDateTime endTime,
+                                        LocalDateTime earliestStart) {
+        return databaseClient.sql("SELECT DISTINCT resource_id FROM bookings WHERE resource_id = ANY(:resourceIds) AND "
+                        + ACTIVE_OVERLAP)
+                .bind("resourceIds", resourceIds.toArray(Long[]::new))
+                .bind("startTime", startTime)
+                .bind("endTime", endTime)
+                .bind("earliestStart", earliestStart)
+                .map(row -> row.get("resource_id", Long.class))
+                .all();
+    }
+
+    private static BookingDTO toDTO(Readable row) {
+        return new BookingDTO(
+                row.get("id", Long.class),
+                row.get("resource_id", Long.class),
+                row.get("user_id", String.class),
+                row.get("start_time", LocalDateTime.class),
+                row.get("end_time", LocalDateTime.class),
+                row.get("total_price", BigDecimal.class),
+                BookingStatus.valueOf(row.get("status", String.class)),
+                row.get("notes", String.class),
+                row.get("hold_expires_at", LocalDateTime.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class)
+        );
+    }
+}
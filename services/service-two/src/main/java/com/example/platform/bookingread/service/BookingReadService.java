@@ -0,0 +1,175 @@
+package com.example.platform.bookingread.service;
+
+import com.example.platform.bookingread.repository.ReactiveBookingReadRepository;
+import com.example.platform.servicetwo.dto.BookingDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-сторона бронирований поверх R2DBC и реактивного Redis. Кеш общий с booking-service: брони лежат
+ * под "bookings::&lt;id&gt;" (как у @Cacheable("bookings")), ответы доступности — под
+ * "bookings::availability:..." с коротким TTL. @CacheEvict(allEntries = true) в booking-service
+ * при создании и отмене броней чистит префикс "bookings::" целиком, то есть и доступность.
+ * Ошибки Redis не ломают чтение: запрос уходит в БД.
+ * Нижняя граница поиска пересечений — как в ConflictSearchWindow booking-service: начало интервала минус
+ * большее из max-duration и самой длинной активной брони; длительность перечитывается раз в longest-duration-refresh.
+ */
+@Service
+public class BookingReadService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingReadService.class);
+
+    private static final String BOOKING_KEY_PREFIX = "bookings::";
+    private static final String AVAILABILITY_KEY_PREFIX = "bookings::availability:";
+    // Раньше любой брони: без отсечения партиций, пока длительность из БД не прочитана
+    private static final LocalDateTime UNBOUNDED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ReactiveBookingReadRepository repository;
+    private final ReactiveRedisTemplate<String, BookingDTO> bookingRedisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final Mono<Duration> conflictLookback;
+    private final Duration bookingTtl;
+    private final Duration availabilityTtl;
+
+    public BookingReadService(ReactiveBookingReadRepository repository,
+                              ReactiveRedisTemplate<String, BookingDTO> bookingRedisTemplate,
+                              ReactiveStringRedisTemplate stringRedisTemplate,
+                              @Value("${app.bookings.max-duration:P30D}") Duration maxBookingDuration,
+                              @Value("${app.bookings.longest-duration-refresh:PT1H}") Duration lookbackRefresh,
+                              @Value("${app.read.cache.booking-ttl:PT1H}") Duration bookingTtl,
+                              @Value("${app.read.cache.availability-ttl:PT5S}") Duration availabilityTtl) {
+        this.repository = repository;
+        this.bookingRedisTemplate = bookingRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.conflictLookback = repository.findLongestActiveDuration()
+                .map(longest -> longest.compareTo(maxBookingDuration) > 0 ? longest : maxBookingDuration)
+                .cache(lookback -> lookbackRefresh, e -> Duration.ZERO, () -> Duration.ZERO);
+        this.bookingTtl = bookingTtl;
+        this.availabilityTtl = availabilityTtl;
+    }
+
+    public Mono<BookingDTO> getBookingById(Long id) {
+        String key = BOOKING_KEY_PREFIX + id;
+        return bookingRedisTemplate.opsForValue().get(key)
+                .onErrorResume(e -> cacheFailure("get", e))
+                .switchIfEmpty(Mono.defer(() -> repository.findById(id)
+                        .flatMap(booking -> bookingRedisTemplate.opsForValue().set(key, booking, bookingTtl)
+                                .onErrorResume(e -> cacheFailure("set", e))
+                                .thenReturn(booking))));
+    }
+
+    /**
+     * Пакетное чтение: один MGET по кешу, промахи — одним запросом в БД. Порядок ответа — как в ids,
+     * отсутствующие брони пропускаются.
+     */
+    public Flux<BookingDTO> getBookingsByIds(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> keys = distinct.stream().map(id -> BOOKING_KEY_PREFIX + id).toList();
+        return bookingRedisTemplate.opsForValue().multiGet(keys)
+                .onErrorResume(e -> BookingReadService.<List<BookingDTO>>cacheFailure("mget", e)
+                        .defaultIfEmpty(List.of()))
+                .flatMapMany(cached -> {
+                    Map<Long, BookingDTO> found = new LinkedHashMap<>();
+                    for (int i = 0; i < cached.size(); i++) {
+                        if (cached.get(i) != null) {
+                            found.put(distinct.get(i), cached.get(i));
+                        }
+                    }
+                    List<Long> missing = distinct.stream().filter(id -> !found.containsKey(id)).toList();
+                    Mono<Map<Long, BookingDTO>> loaded = missing.isEmpty()
+                            ? Mono.just(found)
+                            : repository.findAllById(missing)
+                                    .doOnNext(booking -> found.put(booking.getId(), booking))
+                                    .collectList()
+                                    .flatMap(bookings -> cacheAll(bookings).thenReturn(found));
+                    return loaded.flatMapIterable(all -> distinct.stream()
+                            .map(all::get)
+                            .filter(booking -> booking != null)
+                            .toList());
+                });
+    }
+
+    public Flux<BookingDTO> getUserBookings(String userId) {
+        return repository.findByUserId(userId);
+    }
+
+    public Flux<BookingDTO> getResourceBookings(Long resourceId) {
+        return repository.findByResourceId(resourceId);
+    }
+
+    public Mono<Boolean> isResourceAvailable(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        String key = availabilityKey(resourceId, startTime, endTime);
+        return stringRedisTemplate.opsForValue().get(key)
+                .map(Boolean::valueOf)
+                .onErrorResume(e -> cacheFailure("get", e))
+                .switchIfEmpty(Mono.defer(() -> earliestStart(startTime)
+                        .flatMap(earliest -> repository.existsConflict(resourceId, startTime, endTime, earliest))
+                        .map(conflict -> !conflict)
+                        .flatMap(available -> stringRedisTemplate.opsForValue()
+                                .set(key, available.toString(), availabilityTtl)
+                                .onErrorResume(e -> cacheFailure("set", e))
+                                .thenReturn(available))));
+    }
+
+    /**
+     * Доступность нескольких ресурсов на один интервал (поиск свободных ресурсов) одним запросом к БД.
+     */
+    public Mono<Map<Long, Boolean>> getAvailability(List<Long> resourceIds, LocalDateTime startTime,
+                                                    LocalDateTime endTime) {
+        List<Long> distinct = resourceIds.stream().distinct().toList();
+        if (distinct.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return earliestStart(startTime)
+                .flatMapMany(earliest -> repository.findBusyResources(distinct, startTime, endTime, earliest))
+                .collect(HashSet<Long>::new, Set::add)
+                .map(busy -> {
+                    Map<Long, Boolean> result = new LinkedHashMap<>();
+                    distinct.forEach(id -> result.put(id, !busy.contains(id)));
+                    return result;
+                });
+    }
+
+    private Mono<LocalDateTime> earliestStart(LocalDateTime startTime) {
+        return conflictLookback
+                .map(startTime::minus)
+                .onErrorResume(e -> {
+                    log.warn("Longest booking duration unavailable, searching without lower bound: {}", e.getMessage());
+                    return Mono.just(UNBOUNDED);
+                });
+    }
+
+    private Mono<Void> cacheAll(List<BookingDTO> bookings) {
+        return Flux.fromIterable(bookings)
+                .flatMap(booking -> bookingRedisTemplate.opsForValue()
+                        .set(BOOKING_KEY_PREFIX + booking.getId(), booking, bookingTtl))
+                .onErrorResume(e -> cacheFailure("set", e))
+                .then();
+    }
+
+    private static String availabilityKey(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+        return AVAILABILITY_KEY_PREFIX + resourceId + ':' + startTime + ':' + endTime;
+    }
+
+    private static <T> Mono<T> cacheFailure(String operation, Throwable e) {
+        log.warn("Redis {} failed, falling back to database: {}", operation, e.getMessage());
+        return Mono.empty();
+    }
+}
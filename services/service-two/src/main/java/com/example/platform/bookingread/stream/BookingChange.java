@@ -0,0 +1,40 @@
+package com.example.platform.bookingread.stream;
+
+import com.example.platform.events.BookingEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Изменение брони в SSE-потоке. Поля названы как в BookingDTO, чтобы клиент обновлял
+ * загруженный список по id без отдельной модели.
+ *
+ * @param userId     только в потоке владельца
+ * @param totalPrice только в потоке владельца
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookingChange(long id,
+                            long resourceId,
+                            String userId,
+                            String status,
+                            String previousStatus,
+                            LocalDateTime startTime,
+                            LocalDateTime endTime,
+                            BigDecimal totalPrice) {
+
+    static BookingChange forOwner(BookingEvent event) {
+        return new BookingChange(event.bookingId(), event.resourceId(), event.userId(), event.status().name(),
+                event.previousStatus() != null ? event.previousStatus().name() : null,
+                event.startTime(), event.endTime(), event.totalPrice());
+    }
+
+    /**
+     * Подписчики ресурса видят чужие брони: только то, что влияет на занятость.
+     */
+    static BookingChange forResource(BookingEvent event) {
+        return new BookingChange(event.bookingId(), event.resourceId(), null, event.status().name(),
+                event.previousStatus() != null ? event.previousStatus().name() : null,
+                event.startTime(), event.endTime(), null);
+    }
+}
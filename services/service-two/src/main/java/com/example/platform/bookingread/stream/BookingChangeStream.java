@@ -0,0 +1,104 @@
+package com.example.platform.bookingread.stream;
+
+import com.example.platform.events.BookingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Раздаёт события booking.events открытым SSE-соединениям. На каждого пользователя и каждый ресурс,
+ * у которых есть хотя бы один подписчик, заводится один multicast-sink, поэтому событие стоит два
+ * поиска в карте независимо от числа соединений, а простаивающее соединение — только подписку
+ * на sink, без потоков и таймеров.
+ * <p>
+ * Sink создаётся первым подписчиком и удаляется с последним; счётчик подписчиков меняется внутри
+ * {@link ConcurrentMap#compute}, так что новый подписчик не попадёт в уже удалённый sink.
+ * Соединение, которое не успевает читать, копит до max-buffered событий, затем поток завершается
+ * ошибкой: клиент переподключится и перечитает список, вместо того чтобы молча пропустить изменения.
+ */
+@Component
+public class BookingChangeStream {
+
+    private final ConcurrentMap<String, Topic> byUser = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Topic> byResource = new ConcurrentHashMap<>();
+    private final AtomicInteger userSubscribers = new AtomicInteger();
+    private final AtomicInteger resourceSubscribers = new AtomicInteger();
+    private final Counter received;
+    private final int maxBuffered;
+
+    public BookingChangeStream(MeterRegistry registry,
+                               @Value("${app.stream.max-buffered:256}") int maxBuffered) {
+        this.maxBuffered = maxBuffered;
+        received = Counter.builder("booking.stream.events")
+                .description("События booking.events, полученные для раздачи по SSE")
+                .register(registry);
+        Gauge.builder("booking.stream.subscribers", userSubscribers, AtomicInteger::get)
+                .description("Открытые SSE-подписки")
+                .tag("scope", "user")
+                .register(registry);
+        Gauge.builder("booking.stream.subscribers", resourceSubscribers, AtomicInteger::get)
+                .description("Открытые SSE-подписки")
+                .tag("scope", "resource")
+                .register(registry);
+    }
+
+    /**
+     * Один поток-потребитель: emit в multicast-sink должен быть последовательным.
+     */
+    @RabbitListener(queues = "#{bookingStreamQueue.name}", concurrency = "1")
+    public void onBookingEvent(BookingEvent event) {
+        received.increment();
+        emit(byUser.get(event.userId()), event, BookingChange::forOwner);
+        emit(byResource.get(event.resourceId()), event, BookingChange::forResource);
+    }
+
+    public Flux<BookingChange> forUser(String userId) {
+        return subscribe(byUser, userId, userSubscribers);
+    }
+
+    public Flux<BookingChange> forResource(long resourceId) {
+        return subscribe(byResource, resourceId, resourceSubscribers);
+    }
+
+    private static void emit(Topic topic, BookingEvent event, Function<BookingEvent, BookingChange> view) {
+        if (topic != null) {
+            // Нет подписчиков (последний только что ушёл) — событие просто некому отдать
+            topic.sink.tryEmitNext(view.apply(event));
+        }
+    }
+
+    private <K> Flux<BookingChange> subscribe(ConcurrentMap<K, Topic> topics, K key, AtomicInteger gauge) {
+        return Flux.defer(() -> {
+            Topic topic = topics.compute(key, (k, existing) -> {
+                Topic t = existing != null ? existing : new Topic();
+                t.subscribers++;
+                return t;
+            });
+            gauge.incrementAndGet();
+            return topic.sink.asFlux()
+                    .onBackpressureBuffer(maxBuffered)
+                    .doFinally(signal -> {
+                        gauge.decrementAndGet();
+                        topics.computeIfPresent(key, (k, t) -> --t.subscribers == 0 ? null : t);
+                    });
+        });
+    }
+
+    private static final class Topic {
+
+        // directBestEffort: медленный подписчик не задерживает остальных (буфер у каждого свой, выше)
+        private final Sinks.Many<BookingChange> sink = Sinks.many().multicast().directBestEffort();
+        // Меняется только внутри compute/computeIfPresent по ключу
+        private int subscribers;
+    }
+}
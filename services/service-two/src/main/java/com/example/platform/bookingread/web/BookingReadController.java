@@ -0,0 +1,128 @@
+package com.example.platform.bookingread.web;
+
+import com.example.platform.bookingread.service.BookingReadService;
+import com.example.platform.servicetwo.dto.BookingDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET-эндпоинты BookingController с теми же путями и ответами, плюс пакетные запросы
+ * /bookings/batch и /bookings/availability/batch, которых нет в блокирующем сервисе.
+ */
+@RestController
+@RequestMapping("/bookings")
+public class BookingReadController {
+
+    private final BookingReadService bookingReadService;
+    private final int maxBatchSize;
+
+    public BookingReadController(BookingReadService bookingReadService,
+                                 @Value("${app.read.max-batch-size:100}") int maxBatchSize) {
+        this.bookingReadService = bookingReadService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookingDTO>> getBooking(@PathVariable(name = "id") Long id,
+                                                       @AuthenticationPrincipal Jwt jwt) {
+        // Пользователь может видеть только свои бронирования (или админ все)
+        return bookingReadService.getBookingById(id)
+                .<ResponseEntity<BookingDTO>>map(booking -> canView(booking, jwt)
+                        ? ResponseEntity.ok(booking)
+                        : ResponseEntity.<BookingDTO>status(HttpStatus.FORBIDDEN).build())
+                .defaultIfEmpty(ResponseEntity.<BookingDTO>notFound().build());
+    }
+
+    @GetMapping
+    public Flux<BookingDTO> getMyBookings(@AuthenticationPrincipal Jwt jwt) {
+        return bookingReadService.getUserBookings(jwt.getSubject());
+    }
+
+    @GetMapping("/resource/{resourceId}")
+    public Flux<BookingDTO> getResourceBookings(@PathVariable(name = "resourceId") Long resourceId) {
+        return bookingReadService.getResourceBookings(resourceId);
+    }
+
+    /**
+     * Брони по списку id (чужие брони для не-админа пропускаются).
+     */
+    @GetMapping("/batch")
+    public Mono<ResponseEntity<List<BookingDTO>>> getBookings(@RequestParam(name = "ids") List<Long> ids,
+                                                              @AuthenticationPrincipal Jwt jwt) {
+        if (ids.size() > maxBatchSize) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return bookingReadService.getBookingsByIds(ids)
+                .filter(booking -> canView(booking, jwt))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<Boolean>> checkAvailability(
+            @RequestParam(name = "resourceId") Long resourceId,
+            @RequestParam(name = "startTime") String startTime,
+            @RequestParam(name = "endTime") String endTime) {
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = LocalDateTime.parse(startTime);
+            end = LocalDateTime.parse(endTime);
+        } catch (DateTimeParseException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return bookingReadService.isResourceAvailable(resourceId, start, end)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Доступность нескольких ресурсов на один интервал: {resourceId: available}.
+     */
+    @GetMapping("/availability/batch")
+    public Mono<ResponseEntity<Map<Long, Boolean>>> checkAvailability(
+            @RequestParam(name = "resourceIds") List<Long> resourceIds,
+            @RequestParam(name = "startTime") String startTime,
+            @RequestParam(name = "endTime") String endTime) {
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = LocalDateTime.parse(startTime);
+            end = LocalDateTime.parse(endTime);
+        } catch (DateTimeParseException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (resourceIds.size() > maxBatchSize) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return bookingReadService.getAvailability(resourceIds, start, end)
+                .map(ResponseEntity::ok);
+    }
+
+    private boolean canView(BookingDTO booking, Jwt jwt) {
+        return booking.getUserId().equals(jwt.getSubject()) || isAdmin(jwt);
+    }
+
+    private boolean isAdmin(Jwt jwt) {
+        Object realmAccess = jwt.getClaim("realm_access");
+        if (realmAccess instanceof Map<?, ?> map && map.get("roles") instanceof Collection<?> roles) {
+            return roles.contains("admin");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.platform.bookingread.web;
+
+import com.example.platform.bookingread.stream.BookingChange;
+import com.example.platform.bookingread.stream.BookingChangeStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * SSE-потоки изменений броней вместо опроса GET /bookings:
+ * <ul>
+ *   <li>{@code GET /bookings/stream} — брони текущего пользователя;</li>
+ *   <li>{@code GET /bookings/resource/{resourceId}/stream} — занятость ресурса.</li>
+ * </ul>
+ * Первым приходит событие {@code ready}: подписка уже действует, и клиент загружает текущий список,
+ * после чего применяет события {@code booking} по id. Пропусков между загрузкой и потоком нет, а событие,
+ * уже учтённое в загруженном списке, просто перезапишет запись тем же значением.
+ * Повтора пропущенных событий (Last-Event-ID) нет: после обрыва клиент повторяет ту же последовательность.
+ */
+@RestController
+@RequestMapping("/bookings")
+public class BookingStreamController {
+
+    private static final ServerSentEvent<BookingChange> READY =
+            ServerSentEvent.<BookingChange>builder().event("ready").build();
+
+    private final BookingChangeStream stream;
+    // Один таймер на все соединения: прокси и балансировщики не закрывают простаивающий поток
+    private final Flux<ServerSentEvent<BookingChange>> heartbeat;
+
+    public BookingStreamController(BookingChangeStream stream,
+                                   @Value("${app.stream.heartbeat:PT15S}") Duration heartbeatInterval) {
+        this.stream = stream;
+        this.heartbeat = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<BookingChange>builder().comment("heartbeat").build())
+                .share();
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookingChange>> myBookings(@AuthenticationPrincipal Jwt jwt) {
+        return events(stream.forUser(jwt.getSubject()));
+    }
+
+    @GetMapping(path = "/resource/{resourceId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookingChange>> resourceBookings(@PathVariable(name = "resourceId") Long resourceId) {
+        return events(stream.forResource(resourceId));
+    }
+
+    private Flux<ServerSentEvent<BookingChange>> events(Flux<BookingChange> changes) {
+        // merge подписывается по порядку: ready уходит, когда подписка на изменения уже оформлена
+        return Flux.merge(
+                changes.map(change -> ServerSentEvent.builder(change).event("booking").build()),
+                Mono.just(READY),
+                heartbeat);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.platform.servicetwo.config;
+
+import com.example.platform.events.BookingEventMessageConverter;
+import com.example.platform.servicetwo.service.BookingMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Публикация событий брони в topic exchange (очереди и повторы объявляет data-processor).
+ * Publisher confirms и mandatory включены в application.yml: отказ брокера и сообщение,
+ * не попавшее ни в одну очередь, больше не теряются молча, а видны в логе и метрике.
+ */
+@Configuration
+public class RabbitConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RabbitConfig.class);
+
+    @Bean
+    public TopicExchange bookingEventsExchange(@Value("${app.messaging.exchange:booking.events}") String exchange) {
+        return ExchangeBuilder.topicExchange(exchange).durable(true).build();
+    }
+
+    /**
+     * BookingEvent — в компактной бинарной форме (platform-events), прочее — как раньше, Java-сериализацией.
+     */
+    @Bean
+    public MessageConverter messageConverter() {
+        return new BookingEventMessageConverter(new SimpleMessageConverter());
+    }
+
+    @Bean
+    public RabbitTemplateCustomizer publisherConfirmsCustomizer(BookingMetrics metrics) {
+        return template -> {
+            template.setConfirmCallback((correlation, ack, cause) -> {
+                metrics.notificationPublished(ack ? BookingMetrics.PublishResult.ACK : BookingMetrics.PublishResult.NACK);
+                if (!ack) {
+                    log.error("Broker rejected booking notification {}: {}",
+                            correlation != null ? correlation.getId() : null, cause);
+                }
+            });
+            template.setReturnsCallback(returned -> {
+                metrics.notificationPublished(BookingMetrics.PublishResult.RETURNED);
+                log.warn("Booking notification not routed: exchange={}, routingKey={}, reply={}",
+                        returned.getExchange(), returned.getRoutingKey(), returned.getReplyText());
+            });
+        };
+    }
+}
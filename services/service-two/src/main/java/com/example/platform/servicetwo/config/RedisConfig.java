@@ -1,5 +1,7 @@
 package com.example.platform.servicetwo.config;
 
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -15,6 +17,7 @@ import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -65,6 +68,19 @@ public class RedisConfig {
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                // cache.gets{cache, result=hit|miss} в /actuator/prometheus — доля попаданий по каждому кешу
+                .enableStatistics()
+                // "bookings" — типизированный JSON без @class: так же его пишет и читает booking-read
+                .withCacheConfiguration("bookings", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(typedSerializer(BookingDTO.class))))
                 .build();
     }
+
+    private static <T> Jackson2JsonRedisSerializer<T> typedSerializer(Class<T> type) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return new Jackson2JsonRedisSerializer<>(mapper, type);
+    }
 }
\ No newline at end of file
@@ -1,21 +1,39 @@
 package com.example.platform.servicetwo.config;
 
+import com.example.platform.security.InternalIdentityAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
 
 @Configuration
 public class RestTemplateConfig {
-    
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${services.resource-service.connect-timeout:PT1S}") Duration connectTimeout,
+                                     @Value("${services.resource-service.read-timeout:PT2S}") Duration readTimeout) {
+        // Через RestTemplateBuilder: он подключает observation, и в запрос к resource-service уходит traceparent.
+        // Без таймаутов зависший resource-service держал бы потоки запросов до таймаута шлюза и дольше
+        RestTemplate restTemplate = builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+        // Пробрасываем подписанный X-Internal-Identity, чтобы resource-service не проверял JWT повторно
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                String identity = attributes.getRequest().getHeader(InternalIdentityAuthenticationFilter.HEADER);
+                if (identity != null) {
+                    request.getHeaders().set(InternalIdentityAuthenticationFilter.HEADER, identity);
+                }
+            }
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
 }
-
-
-
-
-
-
-
@@ -1,5 +1,8 @@
 package com.example.platform.servicetwo.config;
 
+import com.example.platform.security.InternalIdentityAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +16,8 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -22,6 +27,9 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
+    @Value("${app.internal-identity.secret:}")
+    private String internalIdentitySecret;
+
     /**
      * Кастомный JwtDecoder, который принимает issuer как keycloak:8080, localhost:8088, localhost:8080
      * и любой issuer, оканчивающийся на /realms/app. Это устраняет 401 из-за несоответствия iss.
@@ -58,12 +66,23 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectMapper objectMapper) throws Exception {
+        JwtAuthenticationConverter authenticationConverter = new JwtAuthenticationConverter();
+        // Запросы через api-gateway аутентифицируются по подписанному X-Internal-Identity без повторной проверки JWT
+        InternalIdentityAuthenticationFilter internalIdentityFilter =
+                new InternalIdentityAuthenticationFilter(internalIdentitySecret, objectMapper, authenticationConverter);
         http
                 .authorizeHttpRequests(registry -> registry
                         .requestMatchers("/actuator/**").permitAll()
+                        // Ответ /error после исключения в контроллере, а не 401
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         .anyRequest().authenticated())
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder())))
+                .addFilterBefore(internalIdentityFilter, BearerTokenAuthenticationFilter.class)
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenResolver(internalIdentityFilter.bearerTokenResolver())
+                        .jwt(jwt -> jwt
+                                .decoder(jwtDecoder())
+                                .jwtAuthenticationConverter(authenticationConverter)))
                 .csrf(csrf -> csrf.disable());
         return http.build();
     }
@@ -29,6 +29,8 @@ public class BookingDTO {
     
     private String notes;
     
+    private LocalDateTime holdExpiresAt;
+    
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
@@ -38,7 +40,8 @@ public class BookingDTO {
     
     public BookingDTO(Long id, Long resourceId, String userId, LocalDateTime startTime, 
                       LocalDateTime endTime, BigDecimal totalPrice, BookingStatus status,
-                      String notes, LocalDateTime createdAt, LocalDateTime updatedAt) {
+                      String notes, LocalDateTime holdExpiresAt, LocalDateTime createdAt,
+                      LocalDateTime updatedAt) {
         this.id = id;
         this.resourceId = resourceId;
         this.userId = userId;
@@ -47,6 +50,7 @@ public class BookingDTO {
         this.totalPrice = totalPrice;
         this.status = status;
         this.notes = notes;
+        this.holdExpiresAt = holdExpiresAt;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -116,6 +120,14 @@ public class BookingDTO {
         this.notes = notes;
     }
     
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+    
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
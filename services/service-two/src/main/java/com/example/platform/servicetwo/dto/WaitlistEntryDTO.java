@@ -0,0 +1,77 @@
+package com.example.platform.servicetwo.dto;
+
+import com.example.platform.servicetwo.model.WaitlistStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class WaitlistEntryDTO {
+    
+    private Long id;
+    private Long resourceId;
+    private String userId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private BigDecimal totalPrice;
+    private WaitlistStatus status;
+    private String notes;
+    // Бронь, созданная из заявки (статус BOOKED)
+    private Long bookingId;
+    private LocalDateTime createdAt;
+    
+    public WaitlistEntryDTO() {}
+    
+    public WaitlistEntryDTO(Long id, Long resourceId, String userId, LocalDateTime startTime,
+                            LocalDateTime endTime, BigDecimal totalPrice, WaitlistStatus status,
+                            String notes, Long bookingId, LocalDateTime createdAt) {
+        this.id = id;
+        this.resourceId = resourceId;
+        this.userId = userId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.notes = notes;
+        this.bookingId = bookingId;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getResourceId() {
+        return resourceId;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public Long getBookingId() {
+        return bookingId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.platform.servicetwo.idempotency;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище ключей Idempotency-Key для POST /bookings: на пару (пользователь, ключ) — состояние
+ * «выполняется» или итоговый ответ (статус и тело) вместе с отпечатком тела запроса.
+ * <p>
+ * Два уровня:
+ * <ul>
+ *   <li>локальный Caffeine-кеш — повтор, пришедший на тот же инстанс, отвечается без сетевых вызовов;</li>
+ *   <li>Redis — общий для инстансов: захват ключа через SET NX с коротким TTL (in-flight-ttl),
+ *       итоговый ответ перезаписывает его с полным TTL. Если инстанс упал посреди запроса, захват
+ *       истекает сам, и клиент может повторить.</li>
+ * </ul>
+ * Пока запрос выполняется, захват продлевается каждые renew-interval: createBooking не ограничен
+ * сверху (ожидание пула БД, ресурсный сервис), и фиксированный in-flight-ttl мог бы истечь раньше,
+ * чем придёт ответ, — тогда повтор выполнился бы второй раз.
+ * Значение в Redis — строка {@code P|отпечаток} или {@code D|отпечаток|статус|JSON тела}.
+ * Если Redis недоступен, ключи действуют в пределах инстанса.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final String KEY_PREFIX = "booking:idempotency:";
+    private static final char PENDING = 'P';
+    private static final char DONE = 'D';
+    // Продлевает только свой захват: итоговый ответ с полным TTL не трогает
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+
+    public enum Outcome {
+        // Ключ захвачен этим запросом: выполнить и сохранить ответ через complete/release
+        ACQUIRED("acquired"),
+        // Ответ уже есть — вернуть его
+        REPLAYED("replayed"),
+        // Запрос с этим ключом ещё выполняется
+        IN_PROGRESS("in_progress"),
+        // Ключ использован с другим телом запроса
+        MISMATCH("mismatch");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> local;
+    private final Duration ttl;
+    private final Duration inFlightTtl;
+    // Ключи, захваченные в Redis этим инстансом и ещё не завершённые: ключ -> значение захвата
+    private final Map<String, String> held = new ConcurrentHashMap<>();
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+    private final Counter redisFailures;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry registry,
+                            @Value("${app.bookings.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${app.bookings.idempotency.in-flight-ttl:PT30S}") Duration inFlightTtl,
+                            @Value("${app.bookings.idempotency.renew-interval:PT10S}") Duration renewInterval,
+                            @Value("${app.bookings.idempotency.local-ttl:PT10M}") Duration localTtl,
+                            @Value("${app.bookings.idempotency.local-max-size:100000}") long localMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        if (renewInterval.compareTo(inFlightTtl) >= 0) {
+            throw new IllegalArgumentException("app.bookings.idempotency.renew-interval (" + renewInterval
+                    + ") must be shorter than in-flight-ttl (" + inFlightTtl + ")");
+        }
+        this.ttl = ttl;
+        this.inFlightTtl = inFlightTtl;
+        // Повторы приходят в первые секунды-минуты; дальше ответ остаётся только в Redis
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl.compareTo(ttl) < 0 ? localTtl : ttl)
+                .build();
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("booking.idempotency.requests")
+                    .description("POST /bookings с Idempotency-Key по исходу")
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+        }
+        this.redisFailures = Counter.builder("booking.idempotency.redis.failures").register(registry);
+    }
+
+    /**
+     * Захватывает ключ или возвращает то, что по нему уже известно.
+     */
+    public Claim claim(String userId, String key, BookingDTO request) {
+        String storeKey = KEY_PREFIX + userId + ":" + key;
+        String fingerprint = fingerprint(request);
+        Claim claim = claim(storeKey, fingerprint);
+        outcomes.get(claim.outcome()).increment();
+        return claim;
+    }
+
+    private Claim claim(String storeKey, String fingerprint) {
+        Entry pending = new Entry(fingerprint, 0, null);
+        Entry known = local.asMap().putIfAbsent(storeKey, pending);
+        if (known != null) {
+            return existing(storeKey, fingerprint, known);
+        }
+        try {
+            String hold = PENDING + "|" + fingerprint;
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(storeKey, hold, inFlightTtl);
+            if (Boolean.TRUE.equals(acquired)) {
+                held.put(storeKey, hold);
+                return new Claim(Outcome.ACQUIRED, storeKey, fingerprint, null);
+            }
+            String stored = redisTemplate.opsForValue().get(storeKey);
+            if (stored == null) {
+                // Чужой захват истёк между SET NX и GET: ответа нет, клиент повторит запрос
+                local.asMap().remove(storeKey, pending);
+                return existing(storeKey, fingerprint, pending);
+            }
+            Entry entry = decode(stored);
+            if (entry.isDone()) {
+                local.put(storeKey, entry);
+            } else {
+                local.asMap().remove(storeKey, pending);
+            }
+            return existing(storeKey, fingerprint, entry);
+        } catch (RuntimeException e) {
+            redisFailures.increment();
+            log.warn("Idempotency store unavailable, key {} is checked on this instance only: {}", storeKey, e.getMessage());
+            return new Claim(Outcome.ACQUIRED, storeKey, fingerprint, null);
+        }
+    }
+
+    private Claim existing(String storeKey, String fingerprint, Entry entry) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            return new Claim(Outcome.MISMATCH, storeKey, fingerprint, null);
+        }
+        if (!entry.isDone()) {
+            return new Claim(Outcome.IN_PROGRESS, storeKey, fingerprint, null);
+        }
+        return new Claim(Outcome.REPLAYED, storeKey, fingerprint, entry);
+    }
+
+    /**
+     * Сохраняет итоговый ответ захваченного ключа.
+     */
+    public void complete(Claim claim, int status, BookingDTO body) {
+        held.remove(claim.storeKey());
+        Entry done = new Entry(claim.fingerprint(), status, body);
+        local.put(claim.storeKey(), done);
+        try {
+            redisTemplate.opsForValue().set(claim.storeKey(), encode(done), ttl);
+        } catch (RuntimeException e) {
+            redisFailures.increment();
+            log.warn("Failed to store idempotent response for {}: {}", claim.storeKey(), e.getMessage());
+        }
+    }
+
+    /**
+     * Снимает захват без ответа (сбой, который не должен повторяться при повторе запроса).
+     */
+    public void release(Claim claim) {
+        held.remove(claim.storeKey());
+        local.invalidate(claim.storeKey());
+        try {
+            redisTemplate.delete(claim.storeKey());
+        } catch (RuntimeException e) {
+            redisFailures.increment();
+            log.warn("Failed to release idempotency key {}, it expires in {}: {}",
+                    claim.storeKey(), inFlightTtl, e.getMessage());
+        }
+    }
+
+    /**
+     * Продлевает захваты запросов, которые ещё выполняются на этом инстансе.
+     */
+    @Scheduled(fixedDelayString = "${app.bookings.idempotency.renew-interval:PT10S}",
+            initialDelayString = "${app.bookings.idempotency.renew-interval:PT10S}")
+    void renewHeld() {
+        String ttlMillis = String.valueOf(inFlightTtl.toMillis());
+        held.forEach((storeKey, hold) -> {
+            try {
+                Long renewed = redisTemplate.execute(RENEW, List.of(storeKey), hold, ttlMillis);
+                if (renewed == null || renewed == 0) {
+                    // Захват уже истёк или заменён ответом — продлевать нечего
+                    held.remove(storeKey, hold);
+                }
+            } catch (RuntimeException e) {
+                redisFailures.increment();
+                log.warn("Failed to renew idempotency key {}: {}", storeKey, e.getMessage());
+            }
+        });
+    }
+
+    private String encode(Entry entry) {
+        try {
+            String body = entry.body() != null ? objectMapper.writeValueAsString(entry.body()) : "";
+            return DONE + "|" + entry.fingerprint() + "|" + entry.status() + "|" + body;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize booking response", e);
+        }
+    }
+
+    private Entry decode(String value) {
+        int fingerprintEnd = value.indexOf('|', 2);
+        if (value.charAt(0) == PENDING) {
+            return new Entry(value.substring(2), 0, null);
+        }
+        int statusEnd = value.indexOf('|', fingerprintEnd + 1);
+        String fingerprint = value.substring(2, fingerprintEnd);
+        int status = Integer.parseInt(value.substring(fingerprintEnd + 1, statusEnd));
+        String body = value.substring(statusEnd + 1);
+        try {
+            return new Entry(fingerprint, status, body.isEmpty() ? null : objectMapper.readValue(body, BookingDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted idempotent response", e);
+        }
+    }
+
+    /**
+     * SHA-256 полей запроса, влияющих на результат (userId берётся из токена и уже входит в ключ).
+     */
+    static String fingerprint(BookingDTO request) {
+        String canonical = request.getResourceId() + "|" + request.getStartTime() + "|" + request.getEndTime()
+                + "|" + (request.getNotes() != null ? request.getNotes() : "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            // 128 бит достаточно, чтобы отличить другое тело под тем же ключом
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Результат захвата; для {@link Outcome#REPLAYED} — сохранённый ответ.
+     */
+    public record Claim(Outcome outcome, String storeKey, String fingerprint, Entry response) {
+    }
+
+    /**
+     * Состояние ключа: status 0 — запрос ещё выполняется.
+     */
+    public record Entry(String fingerprint, int status, BookingDTO body) {
+
+        boolean isDone() {
+            return status != 0;
+        }
+    }
+}
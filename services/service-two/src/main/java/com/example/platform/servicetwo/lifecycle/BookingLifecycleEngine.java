@@ -0,0 +1,220 @@
+package com.example.platform.servicetwo.lifecycle;
+
+import com.example.platform.servicetwo.model.Booking;
+import com.example.platform.servicetwo.model.BookingStatus;
+import com.example.platform.servicetwo.repository.BookingRepository;
+import com.example.platform.servicetwo.repository.BookingRepository.BookingDeadline;
+import com.example.platform.servicetwo.service.BookingNotifier;
+import com.example.platform.servicetwo.service.BookingSlotReleasedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Движок жизненного цикла броней: истечение PENDING-удержаний и завершение броней после endTime.
+ * <p>
+ * Сроки на ближайший горизонт подгружаются из БД индексированным запросом и раскладываются по
+ * иерархическому колесу таймеров; на каждом тике сработавшие брони переводятся пачками
+ * UPDATE ... WHERE id IN (...). Условие по статусу и времени в UPDATE делает переходы
+ * идемпотентными, поэтому движок безопасно работает на нескольких инстансах одновременно.
+ * <p>
+ * Переведённые строки блокируются перед UPDATE, и после коммита по ним уходят те же события,
+ * что и при ручной смене статуса: COMPLETED и CANCELLED с previousStatus PENDING для истёкших
+ * удержаний, а освободившийся интервал получает лист ожидания.
+ */
+@Component
+public class BookingLifecycleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLifecycleEngine.class);
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final BookingNotifier notifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HierarchicalTimingWheel<Transition> wheel;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Value("${app.bookings.lifecycle.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.bookings.lifecycle.load-horizon:PT1H}")
+    private Duration loadHorizon;
+
+    public BookingLifecycleEngine(BookingRepository bookingRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  CacheManager cacheManager,
+                                  BookingNotifier notifier,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.bookings.lifecycle.tick:PT1S}") Duration tick) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.notifier = notifier;
+        this.eventPublisher = eventPublisher;
+        // 3 уровня по 60 слотов: при тике в 1с горизонт колеса — 60 часов
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), 60, 3, System.currentTimeMillis());
+    }
+
+    public void scheduleCompletion(Long bookingId, LocalDateTime endTime) {
+        schedule(new Transition(bookingId, Kind.COMPLETE), endTime);
+    }
+
+    public void scheduleHoldExpiry(Long bookingId, LocalDateTime holdExpiresAt) {
+        schedule(new Transition(bookingId, Kind.EXPIRE_HOLD), holdExpiresAt);
+    }
+
+    public void cancel(Long bookingId) {
+        synchronized (wheel) {
+            wheel.cancel(new Transition(bookingId, Kind.COMPLETE));
+            wheel.cancel(new Transition(bookingId, Kind.EXPIRE_HOLD));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        loadUpcoming();
+    }
+
+    /**
+     * Подгружает в колесо все сроки в пределах горизонта. Окно горизонта перекрывает интервал
+     * загрузки, а уже запланированные брони колесо не дублирует.
+     */
+    @Scheduled(fixedDelayString = "${app.bookings.lifecycle.load-interval:PT15M}",
+               initialDelayString = "${app.bookings.lifecycle.load-interval:PT15M}")
+    public void loadUpcoming() {
+        try {
+            LocalDateTime horizon = LocalDateTime.now().plus(loadHorizon);
+            List<BookingDeadline> completions = bookingRepository.findCompletionCandidates(horizon);
+            List<BookingDeadline> expiries = bookingRepository.findHoldExpiryCandidates(horizon);
+            synchronized (wheel) {
+                completions.forEach(d -> scheduleLocked(new Transition(d.getId(), Kind.COMPLETE), d.getDeadline()));
+                expiries.forEach(d -> scheduleLocked(new Transition(d.getId(), Kind.EXPIRE_HOLD), d.getDeadline()));
+            }
+            log.debug("Loaded {} completions and {} hold expiries up to {}",
+                    completions.size(), expiries.size(), horizon);
+        } catch (Exception e) {
+            log.error("Failed to load booking lifecycle deadlines: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.bookings.lifecycle.tick:PT1S}")
+    public void tick() {
+        List<Long> toComplete = new ArrayList<>();
+        List<Long> toExpire = new ArrayList<>();
+        synchronized (wheel) {
+            for (Transition due : wheel.advance(System.currentTimeMillis())) {
+                (due.kind() == Kind.COMPLETE ? toComplete : toExpire).add(due.bookingId());
+            }
+        }
+        if (toComplete.isEmpty() && toExpire.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> completed = applyInBatches(toComplete, now, Kind.COMPLETE);
+        List<Booking> expired = applyInBatches(toExpire, now, Kind.EXPIRE_HOLD);
+        if (completed.isEmpty() && expired.isEmpty()) {
+            return;
+        }
+        log.info("Booking lifecycle tick: {} completed, {} holds expired", completed.size(), expired.size());
+        Cache cache = cacheManager.getCache("bookings");
+        if (cache != null) {
+            cache.clear();
+        }
+        completed.forEach(booking -> publish(booking, BookingStatus.CONFIRMED));
+        for (Booking booking : expired) {
+            publish(booking, BookingStatus.PENDING);
+            eventPublisher.publishEvent(new BookingSlotReleasedEvent(
+                    booking.getResourceId(), booking.getStartTime(), booking.getEndTime()));
+        }
+    }
+
+    /**
+     * Каждая пачка — отдельная транзакция; возвращает брони, которые она действительно перевела.
+     */
+    private List<Booking> applyInBatches(List<Long> ids, LocalDateTime now, Kind kind) {
+        List<Booking> changed = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                List<Booking> applied = transactionTemplate.execute(status -> apply(batch, now, kind));
+                if (applied != null) {
+                    changed.addAll(applied);
+                }
+            } catch (Exception e) {
+                // Брони останутся в статусе и будут подхвачены следующей загрузкой горизонта
+                log.error("Failed to apply lifecycle transition to {} bookings: {}", batch.size(), e.getMessage());
+            }
+        }
+        return changed;
+    }
+
+    private List<Booking> apply(List<Long> batch, LocalDateTime now, Kind kind) {
+        List<Booking> due = kind == Kind.COMPLETE
+                ? bookingRepository.lockDueCompletions(batch, now)
+                : bookingRepository.lockExpiredHolds(batch, now);
+        if (due.isEmpty()) {
+            return due;
+        }
+        List<Long> dueIds = due.stream().map(Booking::getId).toList();
+        BookingStatus target;
+        if (kind == Kind.COMPLETE) {
+            bookingRepository.completeBookings(dueIds, now);
+            target = BookingStatus.COMPLETED;
+        } else {
+            bookingRepository.expireHolds(dueIds, now);
+            target = BookingStatus.CANCELLED;
+        }
+        // UPDATE очистил контекст, сущности отсоединены: правка нужна только для событий
+        due.forEach(booking -> {
+            booking.setStatus(target);
+            booking.setUpdatedAt(now);
+        });
+        return due;
+    }
+
+    private void publish(Booking booking, BookingStatus previousStatus) {
+        try {
+            notifier.send(booking, previousStatus);
+        } catch (Exception e) {
+            log.warn("Failed to send booking notification: {}", e.getMessage());
+        }
+    }
+
+    private void schedule(Transition transition, LocalDateTime deadline) {
+        if (deadline == null || deadline.isAfter(LocalDateTime.now().plus(loadHorizon))) {
+            // Дальние сроки подхватит loadUpcoming, когда они войдут в горизонт
+            return;
+        }
+        synchronized (wheel) {
+            scheduleLocked(transition, deadline);
+        }
+    }
+
+    private void scheduleLocked(Transition transition, LocalDateTime deadline) {
+        wheel.schedule(transition, deadline.atZone(zone).toInstant().toEpochMilli());
+    }
+
+    enum Kind {
+        COMPLETE,
+        EXPIRE_HOLD
+    }
+
+    record Transition(Long bookingId, Kind kind) {
+    }
+}
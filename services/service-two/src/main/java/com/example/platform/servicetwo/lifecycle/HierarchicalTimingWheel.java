@@ -0,0 +1,139 @@
+package com.example.platform.servicetwo.lifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Иерархическое колесо таймеров (Varghese &amp; Lauck). Уровень i состоит из wheelSize слотов
+ * по wheelSize^i тиков; записи верхних уровней каскадом спускаются вниз, когда время доходит
+ * до их слота. Вставка и срабатывание — O(1) на запись, независимо от числа таймеров.
+ * <p>
+ * Класс не потокобезопасен: синхронизация на стороне вызывающего кода.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] slotTicks;
+    private final List<List<K>[]> levels = new ArrayList<>();
+    private final List<K> overdue = new ArrayList<>();
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.slotTicks = new long[levelCount];
+        long ticks = 1;
+        for (int i = 0; i < levelCount; i++) {
+            slotTicks[i] = ticks;
+            List<K>[] slots = new List[wheelSize];
+            for (int s = 0; s < wheelSize; s++) {
+                slots[s] = new ArrayList<>();
+            }
+            levels.add(slots);
+            ticks *= wheelSize;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Максимальное время вперёд, которое помещается в колесо.
+     */
+    public long horizonMillis() {
+        return slotTicks[slotTicks.length - 1] * wheelSize * tickMillis;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Планирует ключ на deadlineMillis. Повторное планирование переносит срок.
+     *
+     * @return false, если срок за пределами горизонта колеса
+     */
+    public boolean schedule(K key, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Long existing = deadlines.get(key);
+        if (existing != null && existing == deadlineTick) {
+            return true;
+        }
+        if (deadlineTick - currentTick >= slotTicks[slotTicks.length - 1] * wheelSize) {
+            return false;
+        }
+        // Старая запись останется в своём слоте, но будет отброшена при срабатывании
+        deadlines.put(key, deadlineTick);
+        place(key, deadlineTick);
+        return true;
+    }
+
+    public void cancel(K key) {
+        deadlines.remove(key);
+    }
+
+    public boolean contains(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    /**
+     * Продвигает колесо до nowMillis и возвращает все сработавшие ключи.
+     */
+    public List<K> advance(long nowMillis) {
+        List<K> due = new ArrayList<>();
+        drain(overdue, due);
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % slotTicks[level] == 0) {
+                    List<K> slot = levels.get(level)[slotIndex(currentTick, level)];
+                    List<K> cascaded = new ArrayList<>(slot);
+                    slot.clear();
+                    for (K key : cascaded) {
+                        Long deadlineTick = deadlines.get(key);
+                        if (deadlineTick != null) {
+                            place(key, deadlineTick);
+                        }
+                    }
+                }
+            }
+            drain(levels.get(0)[slotIndex(currentTick, 0)], due);
+            drain(overdue, due);
+        }
+        return due;
+    }
+
+    private void drain(List<K> slot, List<K> due) {
+        for (K key : slot) {
+            Long deadlineTick = deadlines.get(key);
+            if (deadlineTick != null && deadlineTick <= currentTick) {
+                deadlines.remove(key);
+                due.add(key);
+            }
+        }
+        slot.clear();
+    }
+
+    private void place(K key, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(key);
+            return;
+        }
+        for (int level = 0; level < levels.size(); level++) {
+            if (delta < slotTicks[level] * wheelSize) {
+                levels.get(level)[slotIndex(deadlineTick, level)].add(key);
+                return;
+            }
+        }
+        deadlines.remove(key);
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) ((tick / slotTicks[level]) % wheelSize);
+    }
+}
@@ -41,6 +41,9 @@ public class Booking {
     @Column(length = 1000)
     private String notes;
     
+    // Срок удержания PENDING-брони; после него бронь автоматически отменяется
+    private LocalDateTime holdExpiresAt;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -123,6 +126,14 @@ public class Booking {
         this.notes = notes;
     }
     
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+    
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,155 @@
+package com.example.platform.servicetwo.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Заявка в листе ожидания на занятый интервал ресурса. Цена фиксируется при постановке в очередь:
+ * бронь из заявки создаётся в фоне, без токена пользователя для запроса к ресурсному сервису.
+ */
+@Entity
+@Table(name = "waitlist_entries")
+public class WaitlistEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @Column(nullable = false)
+    private Long resourceId;
+    
+    @NotNull
+    @Column(nullable = false)
+    private String userId;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+    
+    @NotNull
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+    
+    @NotNull
+    @Column(nullable = false)
+    private BigDecimal totalPrice;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+    
+    @Column(length = 1000)
+    private String notes;
+    
+    // Бронь, созданная из заявки
+    private Long bookingId;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getResourceId() {
+        return resourceId;
+    }
+    
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+    
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public Long getBookingId() {
+        return bookingId;
+    }
+    
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
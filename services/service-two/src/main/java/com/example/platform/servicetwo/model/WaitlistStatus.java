@@ -0,0 +1,8 @@
+package com.example.platform.servicetwo.model;
+
+public enum WaitlistStatus {
+    WAITING,
+    BOOKED,
+    CANCELLED,
+    EXPIRED
+}
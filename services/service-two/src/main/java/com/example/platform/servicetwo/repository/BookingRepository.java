@@ -2,12 +2,16 @@ package com.example.platform.servicetwo.repository;
 
 import com.example.platform.servicetwo.model.Booking;
 import com.example.platform.servicetwo.model.BookingStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,14 +24,26 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     List<Booking> findByUserIdAndStatus(String userId, BookingStatus status);
     
+    /**
+     * Нижняя граница earliestStart (начало интервала минус самая длинная активная бронь,
+     * см. ConflictSearchWindow) позволяет Postgres отсечь старые партиции bookings и не сканировать историю.
+     */
     @Query("SELECT b FROM Booking b WHERE b.resourceId = :resourceId " +
            "AND b.status IN ('PENDING', 'CONFIRMED') " +
-           "AND ((b.startTime <= :startTime AND b.endTime > :startTime) " +
-           "OR (b.startTime < :endTime AND b.endTime >= :endTime) " +
-           "OR (b.startTime >= :startTime AND b.endTime <= :endTime))")
+           "AND b.startTime >= :earliestStart " +
+           "AND b.startTime < :endTime " +
+           "AND b.endTime > :startTime")
     List<Booking> findConflictingBookings(@Param("resourceId") Long resourceId,
                                          @Param("startTime") LocalDateTime startTime,
-                                         @Param("endTime") LocalDateTime endTime);
+                                         @Param("endTime") LocalDateTime endTime,
+                                         @Param("earliestStart") LocalDateTime earliestStart);
+    
+    /**
+     * Длительность самой длинной активной брони в секундах (0, если активных нет).
+     */
+    @Query(value = "SELECT COALESCE(CAST(CEIL(EXTRACT(EPOCH FROM MAX(end_time - start_time))) AS bigint), 0) " +
+                   "FROM bookings WHERE status IN ('PENDING', 'CONFIRMED')", nativeQuery = true)
+    long findLongestActiveDurationSeconds();
     
     @Query("SELECT b FROM Booking b WHERE b.resourceId = :resourceId " +
            "AND b.status = 'CONFIRMED' " +
@@ -38,11 +54,53 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                                @Param("endTime") LocalDateTime endTime);
     
     Optional<Booking> findByIdAndUserId(Long id, String userId);
+    
+    /**
+     * Подтверждённые брони, заканчивающиеся до horizon (включая уже просроченные).
+     * Идёт по частичному индексу idx_bookings_active_end.
+     */
+    @Query("SELECT b.id AS id, b.endTime AS deadline FROM Booking b " +
+           "WHERE b.status = 'CONFIRMED' AND b.endTime < :horizon")
+    List<BookingDeadline> findCompletionCandidates(@Param("horizon") LocalDateTime horizon);
+    
+    @Query("SELECT b.id AS id, b.holdExpiresAt AS deadline FROM Booking b " +
+           "WHERE b.status = 'PENDING' AND b.holdExpiresAt < :horizon")
+    List<BookingDeadline> findHoldExpiryCandidates(@Param("horizon") LocalDateTime horizon);
+    
+    /**
+     * Завершаемые брони из пачки, заблокированные до конца транзакции: UPDATE затем переводит
+     * ровно их, а изменённые строки известны для публикации событий.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'CONFIRMED' AND b.endTime <= :now")
+    List<Booking> lockDueCompletions(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'PENDING' AND b.holdExpiresAt <= :now")
+    List<Booking> lockExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+           "SET b.status = com.example.platform.servicetwo.model.BookingStatus.COMPLETED, b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status = 'CONFIRMED' AND b.endTime <= :now")
+    int completeBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+           "SET b.status = com.example.platform.servicetwo.model.BookingStatus.CANCELLED, b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status = 'PENDING' AND b.holdExpiresAt <= :now")
+    int expireHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * Транзакционная advisory-блокировка ресурса до конца транзакции: создание броней на один ресурс
+     * (POST /bookings и автобронирования из листа ожидания) выполняется по очереди и на разных инстансах.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:resourceId)", nativeQuery = true)
+    Integer lockResource(@Param("resourceId") long resourceId);
+    
+    interface BookingDeadline {
+        Long getId();
+        
+        LocalDateTime getDeadline();
+    }
 }
-
-
-
-
-
-
-
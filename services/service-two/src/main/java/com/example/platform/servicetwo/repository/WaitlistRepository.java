@@ -0,0 +1,57 @@
+package com.example.platform.servicetwo.repository;
+
+import com.example.platform.servicetwo.model.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    List<WaitlistEntry> findByUserIdOrderByCreatedAtDesc(String userId);
+    
+    /**
+     * Ожидающие заявки на ещё не начавшиеся интервалы — по частичному индексу idx_waitlist_waiting.
+     */
+    @Query("SELECT w.id AS id, w.resourceId AS resourceId, w.startTime AS startTime, w.endTime AS endTime " +
+           "FROM WaitlistEntry w WHERE w.status = 'WAITING' AND w.startTime > :now")
+    List<WaitingInterval> findWaiting(@Param("now") LocalDateTime now);
+    
+    /**
+     * SELECT ... FOR UPDATE: пока заявка превращается в бронь, отмена её пользователем ждёт коммита
+     * и затем не находит заявку в статусе WAITING.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntry> lockById(@Param("id") Long id);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry w " +
+           "SET w.status = com.example.platform.servicetwo.model.WaitlistStatus.CANCELLED, w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.userId = :userId AND w.status = 'WAITING'")
+    int cancel(@Param("id") Long id, @Param("userId") String userId, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WaitlistEntry w " +
+           "SET w.status = com.example.platform.servicetwo.model.WaitlistStatus.EXPIRED, w.updatedAt = :now " +
+           "WHERE w.status = 'WAITING' AND w.startTime <= :now")
+    int expireStarted(@Param("now") LocalDateTime now);
+    
+    interface WaitingInterval {
+        Long getId();
+        
+        Long getResourceId();
+        
+        LocalDateTime getStartTime();
+        
+        LocalDateTime getEndTime();
+    }
+}
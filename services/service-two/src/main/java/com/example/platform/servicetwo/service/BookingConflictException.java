@@ -0,0 +1,12 @@
+package com.example.platform.servicetwo.service;
+
+/**
+ * Интервал на ресурсе уже занят. Остаётся {@link IllegalArgumentException} для прежних обработчиков,
+ * но отличается от ошибок в самом запросе: после отмены пересекающейся брони тот же запрос пройдёт.
+ */
+public class BookingConflictException extends IllegalArgumentException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
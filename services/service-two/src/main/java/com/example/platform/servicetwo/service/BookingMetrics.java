@@ -0,0 +1,110 @@
+package com.example.platform.servicetwo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Метрики createBooking: таймер booking.create.stage по этапам и счётчики отказов,
+ * плюс подтверждения брокера для уведомлений (booking.notifications.published).
+ * Все теги — значения enum, поэтому число рядов в Prometheus фиксировано (без resourceId/userId).
+ * Гистограммы для процентилей включаются в application.yml (management.metrics.distribution).
+ */
+@Component
+public class BookingMetrics {
+
+    public enum Stage {
+        VALIDATION("validation"),
+        CONFLICT_CHECK("conflict_check"),
+        PRICE_FETCH("price_fetch"),
+        PERSIST("persist"),
+        NOTIFY("notify");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum PriceMissingReason {
+        NOT_FOUND("not_found"),
+        NO_PRICE("no_price"),
+        ERROR("error");
+
+        private final String tag;
+
+        PriceMissingReason(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum PublishResult {
+        ACK("ack"),
+        NACK("nack"),
+        RETURNED("returned");
+
+        private final String tag;
+
+        PublishResult(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<PriceMissingReason, Counter> pricesMissing = new EnumMap<>(PriceMissingReason.class);
+    private final Map<PublishResult, Counter> notificationsPublished = new EnumMap<>(PublishResult.class);
+    private final Counter conflictsRejected;
+
+    public BookingMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("booking.create.stage")
+                    .description("Время этапа создания брони")
+                    .tag("stage", stage.tag)
+                    .register(registry));
+        }
+        for (PriceMissingReason reason : PriceMissingReason.values()) {
+            pricesMissing.put(reason, Counter.builder("booking.price.missing")
+                    .description("Брони, отклонённые из-за отсутствия цены ресурса")
+                    .tag("reason", reason.tag)
+                    .register(registry));
+        }
+        for (PublishResult result : PublishResult.values()) {
+            notificationsPublished.put(result, Counter.builder("booking.notifications.published")
+                    .description("Уведомления о бронях по ответу брокера: подтверждены, отвергнуты, не доставлены в очередь")
+                    .tag("result", result.tag)
+                    .register(registry));
+        }
+        conflictsRejected = Counter.builder("booking.conflicts.rejected")
+                .description("Брони, отклонённые из-за пересечения с существующими")
+                .register(registry);
+    }
+
+    /**
+     * Выполняет этап и записывает его длительность, в том числе если этап завершился исключением.
+     */
+    public <T> T time(Stage stage, Supplier<T> step) {
+        return stageTimers.get(stage).record(step);
+    }
+
+    public void time(Stage stage, Runnable step) {
+        stageTimers.get(stage).record(step);
+    }
+
+    public void conflictRejected() {
+        conflictsRejected.increment();
+    }
+
+    public void priceMissing(PriceMissingReason reason) {
+        pricesMissing.get(reason).increment();
+    }
+
+    public void notificationPublished(PublishResult result) {
+        notificationsPublished.get(result).increment();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.platform.servicetwo.service;
+
+import com.example.platform.events.BookingEvent;
+import com.example.platform.servicetwo.model.Booking;
+import com.example.platform.servicetwo.model.BookingStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+
+/**
+ * Публикация изменений брони в booking.events. Общая для BookingService и движка жизненного цикла,
+ * чтобы подписчики получали одинаковые события независимо от того, кто сменил статус.
+ * Внутри транзакции событие уходит только после её фиксации: при откате подписчики
+ * (data-processor, SSE-потоки booking-read-service) не увидят изменения, которого нет в базе.
+ */
+@Component
+public class BookingNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingNotifier.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BookingMetrics metrics;
+
+    @Value("${app.messaging.exchange:booking.events}")
+    private String exchange;
+
+    public BookingNotifier(RabbitTemplate rabbitTemplate, BookingMetrics metrics) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Без активной транзакции публикует сразу; ошибка публикации тогда уходит вызывающему.
+     * В транзакции ошибка после фиксации только логируется: бронь уже сохранена.
+     *
+     * @param previousStatus статус до изменения; null для новой брони
+     */
+    public void send(Booking booking, BookingStatus previousStatus) {
+        // Снимок на момент изменения: сущность до фиксации ещё могут поменять
+        BookingEvent event = toEvent(booking, previousStatus);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    publish(event);
+                } catch (Exception e) {
+                    log.warn("Failed to send booking notification {} after commit: {}", event, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void publish(BookingEvent event) {
+        // Этап notify createBooking; после фиксации он по-прежнему идёт в потоке запроса
+        metrics.time(BookingMetrics.Stage.NOTIFY, () -> {
+            // Подтверждение брокера приходит асинхронно в RabbitConfig: запрос его не ждёт
+            rabbitTemplate.convertAndSend(exchange, routingKey(event.status()), event,
+                    new CorrelationData(event.bookingId() + ":" + event.status()));
+        });
+        log.info("Sent booking notification: {}", event);
+    }
+
+    /**
+     * booking.pending, booking.confirmed, ... — подписчик топика привязывает очередь к нужным статусам.
+     */
+    private static String routingKey(BookingEvent.Status status) {
+        return "booking." + status.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static BookingEvent toEvent(Booking booking, BookingStatus previousStatus) {
+        return new BookingEvent(
+                booking.getId(),
+                booking.getUserId(),
+                booking.getResourceId(),
+                BookingEvent.Status.valueOf(booking.getStatus().name()),
+                previousStatus != null ? BookingEvent.Status.valueOf(previousStatus.name()) : null,
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getTotalPrice());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.platform.servicetwo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Обслуживание месячных партиций bookings: заранее создаёт партиции на months-ahead месяцев вперёд
+ * и отправляет в схему bookings_archive партиции старше retention-months.
+ * Сами DDL-операции живут в функциях из schema.sql.
+ */
+@Component
+public class BookingPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionMaintenance.class);
+
+    // Ключ advisory lock, чтобы DDL выполнял только один инстанс booking-service
+    private static final long MAINTENANCE_LOCK_KEY = 0x626f6f6b696e6773L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.bookings.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.bookings.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    public BookingPartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${app.bookings.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Partition maintenance is running on another instance");
+                    return;
+                }
+
+                LocalDate month = LocalDate.now().withDayOfMonth(1);
+                for (int i = 0; i <= monthsAhead; i++) {
+                    jdbcTemplate.queryForObject("SELECT bookings_ensure_partition(?)", Object.class,
+                            Date.valueOf(month.plusMonths(i)));
+                }
+
+                LocalDate cutoff = month.minusMonths(retentionMonths);
+                Integer archived = jdbcTemplate.queryForObject(
+                        "SELECT bookings_archive_partitions(?)", Integer.class, Date.valueOf(cutoff));
+                if (archived != null && archived > 0) {
+                    log.info("Archived {} booking partitions older than {}", archived, cutoff);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Booking partition maintenance failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,27 +1,30 @@
 package com.example.platform.servicetwo.service;
 
 import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.lifecycle.BookingLifecycleEngine;
 import com.example.platform.servicetwo.model.Booking;
 import com.example.platform.servicetwo.model.BookingStatus;
+import com.example.platform.servicetwo.model.WaitlistEntry;
 import com.example.platform.servicetwo.repository.BookingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,67 +37,201 @@ public class BookingService {
     private static final Logger log = LoggerFactory.getLogger(BookingService.class);
     
     private final BookingRepository bookingRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final BookingNotifier notifier;
     private final RestTemplate restTemplate;
+    private final BookingLifecycleEngine lifecycleEngine;
+    private final BookingMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ConflictSearchWindow conflictSearchWindow;
     
     @Value("${services.resource-service.url:http://file-service:8081}")
     private String resourceServiceUrl;
     
-    @Value("${app.queue:data-tasks}")
-    private String queueName;
+    @Value("${app.bookings.max-duration:P30D}")
+    private Duration maxBookingDuration;
+    
+    @Value("${app.bookings.hold.enabled:false}")
+    private boolean holdEnabled;
+    
+    @Value("${app.bookings.hold.ttl:PT15M}")
+    private Duration holdTtl;
     
     public BookingService(BookingRepository bookingRepository,
-                         RabbitTemplate rabbitTemplate,
-                         RestTemplate restTemplate) {
+                         BookingNotifier notifier,
+                         RestTemplate restTemplate,
+                         BookingLifecycleEngine lifecycleEngine,
+                         BookingMetrics metrics,
+                         ApplicationEventPublisher eventPublisher,
+                         TransactionTemplate transactionTemplate,
+                         ConflictSearchWindow conflictSearchWindow) {
         this.bookingRepository = bookingRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.notifier = notifier;
         this.restTemplate = restTemplate;
+        this.lifecycleEngine = lifecycleEngine;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.conflictSearchWindow = conflictSearchWindow;
     }
     
+    /**
+     * Цена запрашивается у resource-service до транзакции: HTTP-вызов не держит ни соединение из пула,
+     * ни блокировку ресурса. В транзакции — только блокировка, проверка пересечений и вставка.
+     */
     @CacheEvict(value = "bookings", allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingDTO createBooking(BookingDTO dto, String userId, String bearerToken) {
         // Валидация времени
-        if (dto.getStartTime().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Start time must be in the future");
-        }
-        if (dto.getEndTime().isBefore(dto.getStartTime()) || dto.getEndTime().isEqual(dto.getStartTime())) {
-            throw new IllegalArgumentException("End time must be after start time");
-        }
+        metrics.time(BookingMetrics.Stage.VALIDATION, () -> validateBookingTime(dto));
         
-        // Проверяем доступность ресурса
-        if (!isResourceAvailable(dto.getResourceId(), dto.getStartTime(), dto.getEndTime())) {
-            throw new IllegalArgumentException("Resource is not available for the selected time period");
+        // Получаем информацию о ресурсе для расчета цены
+        BigDecimal pricePerHour = metrics.time(BookingMetrics.Stage.PRICE_FETCH,
+                () -> getResourcePrice(dto.getResourceId(), bearerToken));
+        if (pricePerHour == null) {
+            throw new IllegalArgumentException("Resource not found");
         }
         
-        // Получаем информацию о ресурсе для расчета цены
+        // Рассчитываем общую стоимость
+        BigDecimal totalPrice = totalPrice(pricePerHour, dto);
+        
+        Booking saved = transactionTemplate.execute(status -> {
+            // Advisory-блокировка до конца транзакции: параллельные POST /bookings и автобронирования
+            // из листа ожидания на этот ресурс не пройдут проверку пересечений оба
+            boolean available = metrics.time(BookingMetrics.Stage.CONFLICT_CHECK, () -> {
+                bookingRepository.lockResource(dto.getResourceId());
+                return isResourceAvailable(dto.getResourceId(), dto.getStartTime(), dto.getEndTime());
+            });
+            if (!available) {
+                metrics.conflictRejected();
+                throw new BookingConflictException("Resource is not available for the selected time period");
+            }
+            
+            // Создаем бронирование
+            Booking booking = new Booking();
+            booking.setResourceId(dto.getResourceId());
+            booking.setUserId(userId);
+            booking.setStartTime(dto.getStartTime());
+            booking.setEndTime(dto.getEndTime());
+            booking.setTotalPrice(totalPrice);
+            booking.setNotes(dto.getNotes());
+            
+            Booking placed = metrics.time(BookingMetrics.Stage.PERSIST, () -> place(booking));
+            
+            // Отправляем уведомление в очередь после фиксации транзакции (время этапа notify пишет BookingNotifier)
+            sendBookingNotification(placed, null);
+            return placed;
+        });
+        
+        return toDTO(saved);
+    }
+    
+    /**
+     * Проверяет время и считает стоимость брони без проверки доступности — для заявки в лист ожидания.
+     *
+     * @throws IllegalArgumentException неверное время или ресурс без цены
+     * @throws ResourceServiceUnavailableException resource-service не ответил
+     */
+    // Только HTTP-запрос к ресурсному сервису — соединение с БД на это время не нужно
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BigDecimal quoteBooking(BookingDTO dto, String bearerToken) {
+        validateBookingTime(dto);
         BigDecimal pricePerHour = getResourcePrice(dto.getResourceId(), bearerToken);
         if (pricePerHour == null) {
             throw new IllegalArgumentException("Resource not found");
         }
+        return totalPrice(pricePerHour, dto);
+    }
+    
+    /**
+     * Бронь по заявке из листа ожидания, по цене на момент постановки в очередь. Доступность интервала
+     * проверяет вызывающий в той же транзакции.
+     */
+    @CacheEvict(value = "bookings", allEntries = true)
+    public BookingDTO bookFromWaitlist(WaitlistEntry entry) {
+        Booking booking = new Booking();
+        booking.setResourceId(entry.getResourceId());
+        booking.setUserId(entry.getUserId());
+        booking.setStartTime(entry.getStartTime());
+        booking.setEndTime(entry.getEndTime());
+        booking.setTotalPrice(entry.getTotalPrice());
+        booking.setNotes(entry.getNotes());
         
-        // Рассчитываем общую стоимость
+        Booking saved = place(booking);
+        try {
+            sendBookingNotification(saved, null);
+        } catch (Exception e) {
+            log.warn("Failed to send booking notification: {}", e.getMessage());
+        }
+        return toDTO(saved);
+    }
+    
+    private Booking place(Booking booking) {
+        if (holdEnabled) {
+            // Бронь удерживается до подтверждения, по истечении удержания отменяется автоматически
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setHoldExpiresAt(LocalDateTime.now().plus(holdTtl));
+        } else {
+            booking.setStatus(BookingStatus.CONFIRMED);
+        }
+        
+        Booking saved = bookingRepository.save(booking);
+        if (saved.getStatus() == BookingStatus.PENDING) {
+            lifecycleEngine.scheduleHoldExpiry(saved.getId(), saved.getHoldExpiresAt());
+        } else {
+            lifecycleEngine.scheduleCompletion(saved.getId(), saved.getEndTime());
+        }
+        return saved;
+    }
+    
+    private static BigDecimal totalPrice(BigDecimal pricePerHour, BookingDTO dto) {
         long hours = Duration.between(dto.getStartTime(), dto.getEndTime()).toHours();
         if (hours <= 0) {
             throw new IllegalArgumentException("End time must be after start time");
         }
-        BigDecimal totalPrice = pricePerHour.multiply(BigDecimal.valueOf(hours));
+        return pricePerHour.multiply(BigDecimal.valueOf(hours));
+    }
+    
+    private void validateBookingTime(BookingDTO dto) {
+        if (dto.getStartTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Start time must be in the future");
+        }
+        if (dto.getEndTime().isBefore(dto.getStartTime()) || dto.getEndTime().isEqual(dto.getStartTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (Duration.between(dto.getStartTime(), dto.getEndTime()).compareTo(maxBookingDuration) > 0) {
+            throw new IllegalArgumentException("Booking duration exceeds " + maxBookingDuration);
+        }
+    }
+    
+    @CacheEvict(value = "bookings", key = "#id", allEntries = true)
+    public Optional<BookingDTO> confirmBooking(Long id, String userId) {
+        Optional<Booking> bookingOpt = bookingRepository.findByIdAndUserId(id, userId);
+        if (bookingOpt.isEmpty()) {
+            return Optional.empty();
+        }
         
-        // Создаем бронирование
-        Booking booking = new Booking();
-        booking.setResourceId(dto.getResourceId());
-        booking.setUserId(userId);
-        booking.setStartTime(dto.getStartTime());
-        booking.setEndTime(dto.getEndTime());
-        booking.setTotalPrice(totalPrice);
-        booking.setStatus(BookingStatus.CONFIRMED);
-        booking.setNotes(dto.getNotes());
+        Booking booking = bookingOpt.get();
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            throw new IllegalStateException("Only pending bookings can be confirmed");
+        }
+        if (booking.getHoldExpiresAt() != null && booking.getHoldExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalStateException("Booking hold has expired");
+        }
         
-        Booking saved = bookingRepository.save(booking);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setHoldExpiresAt(null);
+        Booking updated = bookingRepository.save(booking);
+        lifecycleEngine.cancel(updated.getId());
+        lifecycleEngine.scheduleCompletion(updated.getId(), updated.getEndTime());
         
-        // Отправляем уведомление в очередь
-        sendBookingNotification(saved);
+        try {
+            sendBookingNotification(updated, BookingStatus.PENDING);
+        } catch (Exception e) {
+            log.warn("Failed to send booking notification: {}", e.getMessage());
+        }
         
-        return toDTO(saved);
+        return Optional.of(toDTO(updated));
     }
     
     @Cacheable(value = "bookings", key = "#a0")
@@ -133,11 +270,14 @@ public class BookingService {
             throw new IllegalStateException("Cannot cancel completed booking");
         }
         
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         Booking updated = bookingRepository.save(booking);
+        lifecycleEngine.cancel(updated.getId());
+        releaseSlot(updated);
         
         try {
-            sendBookingNotification(updated);
+            sendBookingNotification(updated, previousStatus);
         } catch (Exception e) {
             log.warn("Failed to send booking notification: {}", e.getMessage());
             // Не прерываем операцию, если уведомление не отправилось
@@ -161,11 +301,14 @@ public class BookingService {
             throw new IllegalStateException("Cannot cancel completed booking");
         }
         
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         Booking updated = bookingRepository.save(booking);
+        lifecycleEngine.cancel(updated.getId());
+        releaseSlot(updated);
         
         try {
-            sendBookingNotification(updated);
+            sendBookingNotification(updated, previousStatus);
         } catch (Exception e) {
             log.warn("Failed to send booking notification: {}", e.getMessage());
             // Не прерываем операцию, если уведомление не отправилось
@@ -174,15 +317,24 @@ public class BookingService {
         return Optional.of(toDTO(updated));
     }
     
+    // Лист ожидания пытается занять интервал после коммита отмены
+    private void releaseSlot(Booking booking) {
+        eventPublisher.publishEvent(new BookingSlotReleasedEvent(
+                booking.getResourceId(), booking.getStartTime(), booking.getEndTime()));
+    }
+    
     @Transactional(readOnly = true)
     public boolean isResourceAvailable(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(resourceId, startTime, endTime);
+        List<Booking> conflicts = bookingRepository.findConflictingBookings(
+                resourceId, startTime, endTime, conflictSearchWindow.earliestStart(startTime));
         return conflicts.isEmpty();
     }
     
     private BigDecimal getResourcePrice(Long resourceId, String bearerToken) {
         try {
             String url = resourceServiceUrl + "/resources/" + resourceId;
+            // X-Internal-Identity входящего запроса добавляет перехватчик из RestTemplateConfig:
+            // resource-service сверяет его HMAC и не проверяет токен RSA-подписью повторно
             HttpHeaders headers = new HttpHeaders();
             if (bearerToken != null) {
                 headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + bearerToken);
@@ -200,26 +352,21 @@ public class BookingService {
                     return new BigDecimal((String) priceObj);
                 }
             }
+            metrics.priceMissing(BookingMetrics.PriceMissingReason.NO_PRICE);
         } catch (org.springframework.web.client.HttpClientErrorException.NotFound e) {
             log.error("Resource not found: {}", resourceId);
+            metrics.priceMissing(BookingMetrics.PriceMissingReason.NOT_FOUND);
         } catch (Exception e) {
+            // Таймаут, отказ соединения, 5xx — не «ресурса нет»: повтор может пройти
             log.error("Error fetching resource price: {}", e.getMessage());
+            metrics.priceMissing(BookingMetrics.PriceMissingReason.ERROR);
+            throw new ResourceServiceUnavailableException("Resource service unavailable: " + e.getMessage(), e);
         }
         return null;
     }
     
-    private void sendBookingNotification(Booking booking) {
-        Map<String, Object> message = new HashMap<>();
-        message.put("bookingId", booking.getId());
-        message.put("userId", booking.getUserId());
-        message.put("resourceId", booking.getResourceId());
-        message.put("startTime", booking.getStartTime().toString());
-        message.put("endTime", booking.getEndTime().toString());
-        message.put("status", booking.getStatus().toString());
-        message.put("totalPrice", booking.getTotalPrice().toString());
-        
-        rabbitTemplate.convertAndSend(queueName, message);
-        log.info("Sent booking notification: {}", message);
+    private void sendBookingNotification(Booking booking, BookingStatus previousStatus) {
+        notifier.send(booking, previousStatus);
     }
     
     private BookingDTO toDTO(Booking booking) {
@@ -232,6 +379,7 @@ public class BookingService {
                 booking.getTotalPrice(),
                 booking.getStatus(),
                 booking.getNotes(),
+                booking.getHoldExpiresAt(),
                 booking.getCreatedAt(),
                 booking.getUpdatedAt()
         );
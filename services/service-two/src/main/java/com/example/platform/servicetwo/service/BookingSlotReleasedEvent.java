@@ -0,0 +1,10 @@
+package com.example.platform.servicetwo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Активная бронь отменена и интервал ресурса свободен. Публикуется внутри транзакции отмены;
+ * слушатели получают его после коммита.
+ */
+public record BookingSlotReleasedEvent(Long resourceId, LocalDateTime startTime, LocalDateTime endTime) {
+}
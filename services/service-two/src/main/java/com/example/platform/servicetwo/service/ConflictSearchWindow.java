@@ -0,0 +1,64 @@
+package com.example.platform.servicetwo.service;
+
+import com.example.platform.servicetwo.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Нижняя граница start_time для поиска пересечений (отсечение партиций bookings). Отступ от начала
+ * интервала — большее из app.bookings.max-duration и самой длинной активной брони в БД: брони,
+ * созданные до ограничения или при большем max-duration, длиннее лимита и иначе не нашлись бы.
+ * Пока длительность из БД не загружена, граница не применяется.
+ */
+@Component
+public class ConflictSearchWindow {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictSearchWindow.class);
+
+    // Раньше любой брони: без отсечения партиций
+    static final LocalDateTime UNBOUNDED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BookingRepository bookingRepository;
+    private final Duration maxBookingDuration;
+
+    private volatile Duration lookback;
+
+    public ConflictSearchWindow(BookingRepository bookingRepository,
+                                @Value("${app.bookings.max-duration:P30D}") Duration maxBookingDuration) {
+        this.bookingRepository = bookingRepository;
+        this.maxBookingDuration = maxBookingDuration;
+    }
+
+    public LocalDateTime earliestStart(LocalDateTime startTime) {
+        Duration current = lookback;
+        return current != null ? startTime.minus(current) : UNBOUNDED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.bookings.longest-duration-refresh:PT1H}",
+               initialDelayString = "${app.bookings.longest-duration-refresh:PT1H}")
+    public void refresh() {
+        try {
+            Duration longest = Duration.ofSeconds(bookingRepository.findLongestActiveDurationSeconds());
+            boolean exceeds = longest.compareTo(maxBookingDuration) > 0;
+            if (exceeds && !longest.equals(lookback)) {
+                log.warn("Active bookings up to {} exceed app.bookings.max-duration {}", longest, maxBookingDuration);
+            }
+            lookback = exceeds ? longest : maxBookingDuration;
+        } catch (Exception e) {
+            log.error("Failed to load the longest active booking duration: {}", e.getMessage());
+        }
+    }
+}
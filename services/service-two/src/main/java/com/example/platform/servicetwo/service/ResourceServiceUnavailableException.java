@@ -0,0 +1,12 @@
+package com.example.platform.servicetwo.service;
+
+/**
+ * Цену ресурса не удалось получить из-за сбоя resource-service (таймаут, отказ соединения, 5xx).
+ * В отличие от «ресурс не найден», повтор того же запроса может пройти.
+ */
+public class ResourceServiceUnavailableException extends RuntimeException {
+
+    public ResourceServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
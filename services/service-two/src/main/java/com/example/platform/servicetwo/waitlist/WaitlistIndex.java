@@ -0,0 +1,146 @@
+package com.example.platform.servicetwo.waitlist;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Индекс ожидающих заявок по интервалам, отдельно на каждый ресурс.
+ * <p>
+ * Заявки ресурса лежат в дереве по (начало, id), и для ресурса запоминается наибольшая длительность
+ * заявки. Заявки, пересекающие освободившийся интервал [start, end), начинаются в
+ * [start - maxDuration, end) — это один subSet дерева, поэтому поиск стоит O(log n + k), а не перебор
+ * всех n ожидающих. Найденные кандидаты упорядочиваются очередью с приоритетом:
+ * сначала целиком помещающиеся в освободившийся интервал, среди равных — раньше вставшие в очередь
+ * (меньший id).
+ * <p>
+ * Не потокобезопасен: вызывающий синхронизирует доступ сам.
+ */
+public final class WaitlistIndex {
+
+    public record Waiter(long id, long resourceId, LocalDateTime start, LocalDateTime end) {
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+
+        boolean within(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return !start.isBefore(otherStart) && !end.isAfter(otherEnd);
+        }
+    }
+
+    private static final Comparator<Waiter> BY_START =
+            Comparator.comparing(Waiter::start).thenComparingLong(Waiter::id);
+
+    private final Map<Long, ResourceQueue> queues = new HashMap<>();
+    private final Map<Long, Waiter> byId = new HashMap<>();
+
+    /**
+     * @return false, если заявка с таким id уже в индексе
+     */
+    public boolean add(Waiter waiter) {
+        if (byId.putIfAbsent(waiter.id(), waiter) != null) {
+            return false;
+        }
+        queues.computeIfAbsent(waiter.resourceId(), id -> new ResourceQueue()).add(waiter);
+        return true;
+    }
+
+    public boolean remove(long waiterId) {
+        Waiter waiter = byId.remove(waiterId);
+        if (waiter == null) {
+            return false;
+        }
+        ResourceQueue queue = queues.get(waiter.resourceId());
+        queue.byStart.remove(waiter);
+        if (queue.byStart.isEmpty()) {
+            // Вместе с очередью сбрасывается и накопленная максимальная длительность
+            queues.remove(waiter.resourceId());
+        }
+        return true;
+    }
+
+    /**
+     * Заявки ресурса, пересекающиеся с [start, end), в порядке приоритета.
+     */
+    public List<Waiter> candidates(long resourceId, LocalDateTime start, LocalDateTime end) {
+        ResourceQueue queue = queues.get(resourceId);
+        if (queue == null) {
+            return List.of();
+        }
+        LocalDateTime earliestStart = start.minus(queue.maxDuration);
+        NavigableSet<Waiter> window = queue.byStart.subSet(
+                probe(resourceId, earliestStart), true, probe(resourceId, end), false);
+
+        PriorityQueue<Waiter> ranked = new PriorityQueue<>(Math.max(1, window.size()), fitOrder(start, end));
+        for (Waiter waiter : window) {
+            if (waiter.end().isAfter(start)) {
+                ranked.add(waiter);
+            }
+        }
+        List<Waiter> result = new ArrayList<>(ranked.size());
+        while (!ranked.isEmpty()) {
+            result.add(ranked.poll());
+        }
+        return result;
+    }
+
+    /**
+     * Убирает заявки, интервал которых уже начался: бронировать их поздно.
+     *
+     * @return id убранных заявок
+     */
+    public List<Long> removeStarted(LocalDateTime now) {
+        List<Long> removed = new ArrayList<>();
+        Iterator<ResourceQueue> queueIterator = queues.values().iterator();
+        while (queueIterator.hasNext()) {
+            NavigableSet<Waiter> byStart = queueIterator.next().byStart;
+            // Дерево упорядочено по началу: начавшиеся заявки — его голова
+            while (!byStart.isEmpty() && !byStart.first().start().isAfter(now)) {
+                Waiter waiter = byStart.pollFirst();
+                byId.remove(waiter.id());
+                removed.add(waiter.id());
+            }
+            if (byStart.isEmpty()) {
+                queueIterator.remove();
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static Waiter probe(long resourceId, LocalDateTime time) {
+        return new Waiter(Long.MIN_VALUE, resourceId, time, time);
+    }
+
+    private static Comparator<Waiter> fitOrder(LocalDateTime start, LocalDateTime end) {
+        return Comparator.<Waiter, Boolean>comparing(waiter -> !waiter.within(start, end))
+                .thenComparingLong(Waiter::id);
+    }
+
+    private static final class ResourceQueue {
+
+        private final NavigableSet<Waiter> byStart = new TreeSet<>(BY_START);
+        // Только растёт, пока у ресурса есть заявки; завышение лишь расширяет окно поиска
+        private Duration maxDuration = Duration.ZERO;
+
+        private void add(Waiter waiter) {
+            byStart.add(waiter);
+            Duration duration = Duration.between(waiter.start(), waiter.end());
+            if (duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.platform.servicetwo.waitlist;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.model.WaitlistEntry;
+import com.example.platform.servicetwo.model.WaitlistStatus;
+import com.example.platform.servicetwo.repository.BookingRepository;
+import com.example.platform.servicetwo.repository.WaitlistRepository;
+import com.example.platform.servicetwo.repository.WaitlistRepository.WaitingInterval;
+import com.example.platform.servicetwo.service.BookingService;
+import com.example.platform.servicetwo.service.BookingSlotReleasedEvent;
+import com.example.platform.servicetwo.waitlist.WaitlistIndex.Waiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбор заявок листа ожидания на освободившиеся интервалы.
+ * <p>
+ * После коммита отмены брони кандидаты берутся из {@link WaitlistIndex} без сканирования заявок ресурса
+ * и бронируются жадно в порядке приоритета: заявка, пересекающаяся с уже забронированной в этом раунде,
+ * пропускается без обращения к БД. Каждая попытка — отдельная транзакция под advisory-блокировкой
+ * ресурса с повторной проверкой доступности, поэтому подбор корректен и при нескольких инстансах.
+ * Раунды выполняются по одному в отдельном потоке, не задерживая запрос отмены.
+ * <p>
+ * Индекс у каждого инстанса свой: заявки, поставленные через другие инстансы, подгружаются из БД
+ * раз в reload-interval, а заявки, которые успели отменить или забронировать в другом месте,
+ * отсеиваются при попытке бронирования.
+ */
+@Component
+public class WaitlistMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistMatcher.class);
+
+    enum Result {
+        BOOKED("booked"),
+        // Интервал всё ещё занят — заявка остаётся в очереди
+        UNAVAILABLE("unavailable"),
+        // Заявка отменена, уже забронирована или её время началось — убирается из индекса
+        GONE("gone");
+
+        private final String tag;
+
+        Result(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final WaitlistRepository waitlistRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final TransactionTemplate transactionTemplate;
+    private final WaitlistIndex index = new WaitlistIndex();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-matcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Result, Counter> results = new EnumMap<>(Result.class);
+
+    @Value("${app.bookings.waitlist.max-attempts:50}")
+    private int maxAttempts;
+
+    public WaitlistMatcher(WaitlistRepository waitlistRepository,
+                           BookingRepository bookingRepository,
+                           BookingService bookingService,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry registry) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.transactionTemplate = transactionTemplate;
+        for (Result result : Result.values()) {
+            results.put(result, Counter.builder("booking.waitlist.attempts")
+                    .description("Попытки забронировать интервал по заявке из листа ожидания")
+                    .tag("result", result.tag)
+                    .register(registry));
+        }
+        Gauge.builder("booking.waitlist.waiting", this, WaitlistMatcher::waiting)
+                .description("Заявки в индексе листа ожидания этого инстанса")
+                .register(registry);
+    }
+
+    /**
+     * Добавляет сохранённую заявку в индекс и сразу пробует её интервал: он мог освободиться,
+     * пока заявка создавалась.
+     */
+    public void add(WaitlistEntry entry) {
+        synchronized (index) {
+            index.add(toWaiter(entry));
+        }
+        submit(entry.getResourceId(), entry.getStartTime(), entry.getEndTime());
+    }
+
+    public void remove(Long entryId) {
+        synchronized (index) {
+            index.remove(entryId);
+        }
+    }
+
+    // fallbackExecution: отмена вне транзакции тоже запускает подбор
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotReleased(BookingSlotReleasedEvent event) {
+        submit(event.resourceId(), event.startTime(), event.endTime());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    /**
+     * Истёкшие заявки помечаются EXPIRED и убираются из индекса, заявки из БД, которых в индексе
+     * нет, добавляются. Добавление идемпотентно, поэтому заявки, поставленные во время загрузки,
+     * не теряются.
+     */
+    @Scheduled(fixedDelayString = "${app.bookings.waitlist.reload-interval:PT1M}",
+               initialDelayString = "${app.bookings.waitlist.reload-interval:PT1M}")
+    public void reload() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer expired = transactionTemplate.execute(status -> waitlistRepository.expireStarted(now));
+            List<WaitingInterval> waiting = waitlistRepository.findWaiting(now);
+            int added = 0;
+            synchronized (index) {
+                index.removeStarted(now);
+                for (WaitingInterval interval : waiting) {
+                    if (index.add(new Waiter(interval.getId(), interval.getResourceId(),
+                            interval.getStartTime(), interval.getEndTime()))) {
+                        added++;
+                    }
+                }
+            }
+            log.debug("Waitlist reload: {} waiting, {} added to index, {} expired", waiting.size(), added, expired);
+        } catch (Exception e) {
+            log.error("Failed to reload waitlist: {}", e.getMessage());
+        }
+    }
+
+    private void submit(Long resourceId, LocalDateTime start, LocalDateTime end) {
+        try {
+            executor.execute(() -> match(resourceId, start, end));
+        } catch (RejectedExecutionException e) {
+            // Остановка сервиса: заявки останутся WAITING и будут подобраны при следующем освобождении
+            log.debug("Waitlist matcher stopped, skipping release of resource {}", resourceId);
+        }
+    }
+
+    void match(long resourceId, LocalDateTime start, LocalDateTime end) {
+        List<Waiter> candidates;
+        synchronized (index) {
+            candidates = index.candidates(resourceId, start, end);
+        }
+        List<Waiter> booked = new ArrayList<>();
+        int attempts = 0;
+        for (Waiter waiter : candidates) {
+            if (attempts >= maxAttempts) {
+                break;
+            }
+            if (booked.stream().anyMatch(taken -> taken.overlaps(waiter.start(), waiter.end()))) {
+                continue;
+            }
+            attempts++;
+            Result result;
+            try {
+                result = fulfil(waiter.id());
+            } catch (RuntimeException e) {
+                log.warn("Failed to book waitlist entry {}: {}", waiter.id(), e.getMessage());
+                continue;
+            }
+            results.get(result).increment();
+            if (result == Result.BOOKED) {
+                booked.add(waiter);
+            }
+            if (result != Result.UNAVAILABLE) {
+                remove(waiter.id());
+            }
+        }
+        if (!booked.isEmpty()) {
+            log.info("Waitlist: booked {} of {} candidate(s) for resource {} [{} - {})",
+                    booked.size(), candidates.size(), resourceId, start, end);
+        }
+    }
+
+    private Result fulfil(Long entryId) {
+        return transactionTemplate.execute(status -> {
+            WaitlistEntry entry = waitlistRepository.lockById(entryId).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING
+                    || !entry.getStartTime().isAfter(LocalDateTime.now())) {
+                return Result.GONE;
+            }
+            // Бронирования ресурса из листа ожидания идут по одному, в том числе с других инстансов
+            bookingRepository.lockResource(entry.getResourceId());
+            if (!bookingService.isResourceAvailable(entry.getResourceId(), entry.getStartTime(), entry.getEndTime())) {
+                return Result.UNAVAILABLE;
+            }
+            BookingDTO booking = bookingService.bookFromWaitlist(entry);
+            entry.setStatus(WaitlistStatus.BOOKED);
+            entry.setBookingId(booking.getId());
+            return Result.BOOKED;
+        });
+    }
+
+    private int waiting() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    private static Waiter toWaiter(WaitlistEntry entry) {
+        return new Waiter(entry.getId(), entry.getResourceId(), entry.getStartTime(), entry.getEndTime());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
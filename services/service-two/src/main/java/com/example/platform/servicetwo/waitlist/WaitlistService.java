@@ -0,0 +1,101 @@
+package com.example.platform.servicetwo.waitlist;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.dto.WaitlistEntryDTO;
+import com.example.platform.servicetwo.model.WaitlistEntry;
+import com.example.platform.servicetwo.model.WaitlistStatus;
+import com.example.platform.servicetwo.repository.WaitlistRepository;
+import com.example.platform.servicetwo.service.BookingService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Заявки пользователя в листе ожидания: постановка, список, отмена.
+ */
+@Service
+public class WaitlistService {
+    
+    private final WaitlistRepository waitlistRepository;
+    private final BookingService bookingService;
+    private final WaitlistMatcher matcher;
+    
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           BookingService bookingService,
+                           WaitlistMatcher matcher) {
+        this.waitlistRepository = waitlistRepository;
+        this.bookingService = bookingService;
+        this.matcher = matcher;
+    }
+    
+    /**
+     * Ставит интервал в очередь. Время проверяется, как при создании брони, а цена считается сейчас,
+     * пока есть токен пользователя.
+     *
+     * @throws IllegalArgumentException неверное время или ресурс не найден
+     * @throws com.example.platform.servicetwo.service.ResourceServiceUnavailableException resource-service не ответил
+     */
+    public WaitlistEntryDTO join(BookingDTO dto, String userId, String bearerToken) {
+        BigDecimal totalPrice = bookingService.quoteBooking(dto, bearerToken);
+        
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setResourceId(dto.getResourceId());
+        entry.setUserId(userId);
+        entry.setStartTime(dto.getStartTime());
+        entry.setEndTime(dto.getEndTime());
+        entry.setTotalPrice(totalPrice);
+        entry.setNotes(dto.getNotes());
+        
+        // save коммитится сам, поэтому подбор в matcher уже видит заявку в БД
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        matcher.add(saved);
+        return toDTO(saved);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> getUserEntries(String userId) {
+        return waitlistRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(WaitlistService::toDTO)
+                .toList();
+    }
+    
+    /**
+     * @throws IllegalStateException заявка уже не ожидает (забронирована, отменена или истекла)
+     */
+    @Transactional
+    public Optional<WaitlistEntryDTO> leave(Long id, String userId) {
+        Optional<WaitlistEntry> entryOpt = waitlistRepository.findById(id)
+                .filter(entry -> entry.getUserId().equals(userId));
+        if (entryOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        WaitlistEntry entry = entryOpt.get();
+        // Условный UPDATE: заявку могли забронировать между чтением и отменой
+        if (waitlistRepository.cancel(id, userId, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Waitlist entry is no longer waiting");
+        }
+        matcher.remove(id);
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        return Optional.of(toDTO(entry));
+    }
+    
+    static WaitlistEntryDTO toDTO(WaitlistEntry entry) {
+        return new WaitlistEntryDTO(
+                entry.getId(),
+                entry.getResourceId(),
+                entry.getUserId(),
+                entry.getStartTime(),
+                entry.getEndTime(),
+                entry.getTotalPrice(),
+                entry.getStatus(),
+                entry.getNotes(),
+                entry.getBookingId(),
+                entry.getCreatedAt()
+        );
+    }
+}
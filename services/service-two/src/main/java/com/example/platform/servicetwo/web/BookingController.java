@@ -1,8 +1,12 @@
 package com.example.platform.servicetwo.web;
 
 import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.idempotency.IdempotencyStore;
+import com.example.platform.servicetwo.service.BookingConflictException;
 import com.example.platform.servicetwo.service.BookingService;
+import com.example.platform.servicetwo.service.ResourceServiceUnavailableException;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,28 +20,91 @@ import java.util.Optional;
 @RequestMapping("/bookings")
 public class BookingController {
     
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    
     private final BookingService bookingService;
+    private final IdempotencyStore idempotencyStore;
     
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyStore idempotencyStore) {
         this.bookingService = bookingService;
+        this.idempotencyStore = idempotencyStore;
     }
     
+    /**
+     * С заголовком Idempotency-Key повтор запроса (например, после таймаута у клиента) не создаёт
+     * вторую бронь: возвращается сохранённый ответ первого запроса с Idempotent-Replayed: true,
+     * без обращения к БД. Пока первый запрос выполняется, повтор получает 409 с Retry-After,
+     * тот же ключ с другим телом — 422. Запоминаются только 201 и ошибки самого запроса; занятый
+     * интервал и сбой resource-service (503) ключ не закрепляют.
+     */
     @PostMapping
     public ResponseEntity<BookingDTO> createBooking(@Valid @RequestBody BookingDTO dto,
+                                                     @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                                                      @AuthenticationPrincipal Jwt jwt) {
         String userId = jwt.getSubject();
         dto.setUserId(userId);
-        
+        if (idempotencyKey == null) {
+            return create(dto, userId, jwt);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim(userId, idempotencyKey, dto);
+        return switch (claim.outcome()) {
+            case REPLAYED -> ResponseEntity.status(claim.response().status())
+                    .header("Idempotent-Replayed", "true")
+                    .body(claim.response().body());
+            case IN_PROGRESS -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+            case MISMATCH -> ResponseEntity.unprocessableEntity().build();
+            case ACQUIRED -> createOnce(dto, userId, jwt, claim);
+        };
+    }
+
+    private ResponseEntity<BookingDTO> createOnce(BookingDTO dto, String userId, Jwt jwt, IdempotencyStore.Claim claim) {
+        ResponseEntity<BookingDTO> response;
         try {
             BookingDTO created = bookingService.createBooking(dto, userId, jwt.getTokenValue());
-            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            response = ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (BookingConflictException | ResourceServiceUnavailableException e) {
+            // Интервал могут освободить, resource-service — подняться: повтор с тем же ключом выполнится заново
+            idempotencyStore.release(claim);
+            return rejected(e);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            // Неверное время или ресурса нет — для этого тела запроса ответ не изменится
+            response = rejected(e);
+        } catch (RuntimeException e) {
+            // Сбой (БД и т. п.) — повтор с тем же ключом должен выполниться заново
+            idempotencyStore.release(claim);
+            throw e;
         }
+        idempotencyStore.complete(claim, response.getStatusCode().value(), response.getBody());
+        return response;
+    }
+
+    private ResponseEntity<BookingDTO> create(BookingDTO dto, String userId, Jwt jwt) {
+        try {
+            BookingDTO created = bookingService.createBooking(dto, userId, jwt.getTokenValue());
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException | ResourceServiceUnavailableException e) {
+            return rejected(e);
+        }
+    }
+
+    private static ResponseEntity<BookingDTO> rejected(RuntimeException e) {
+        if (e instanceof ResourceServiceUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        return ResponseEntity.badRequest().build();
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<BookingDTO> getBooking(@PathVariable Long id,
+    public ResponseEntity<BookingDTO> getBooking(@PathVariable(name = "id") Long id,
                                                 @AuthenticationPrincipal Jwt jwt) {
         String userId = jwt.getSubject();
         java.util.Optional<BookingDTO> bookingOpt = bookingService.getBookingById(id);
@@ -60,7 +127,7 @@ public class BookingController {
     }
     
     @GetMapping("/resource/{resourceId}")
-    public ResponseEntity<List<BookingDTO>> getResourceBookings(@PathVariable Long resourceId) {
+    public ResponseEntity<List<BookingDTO>> getResourceBookings(@PathVariable(name = "resourceId") Long resourceId) {
         List<BookingDTO> bookings = bookingService.getResourceBookings(resourceId);
         return ResponseEntity.ok(bookings);
     }
@@ -89,6 +156,19 @@ public class BookingController {
         }
     }
     
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<BookingDTO> confirmBooking(@PathVariable(name = "id") Long id,
+                                                     @AuthenticationPrincipal Jwt jwt) {
+        try {
+            return bookingService.confirmBooking(id, jwt.getSubject())
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            // Бронь не в статусе PENDING или удержание уже истекло
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
     @GetMapping("/availability")
     public ResponseEntity<Boolean> checkAvailability(
             @RequestParam(name = "resourceId") Long resourceId,
@@ -0,0 +1,63 @@
+package com.example.platform.servicetwo.web;
+
+import com.example.platform.servicetwo.dto.BookingDTO;
+import com.example.platform.servicetwo.dto.WaitlistEntryDTO;
+import com.example.platform.servicetwo.service.ResourceServiceUnavailableException;
+import com.example.platform.servicetwo.waitlist.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/bookings/waitlist")
+public class WaitlistController {
+    
+    private final WaitlistService waitlistService;
+    
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+    
+    /**
+     * Встать в очередь на занятый интервал. 202: бронь будет создана автоматически, когда интервал
+     * освободится, — о ней придёт обычное уведомление о брони.
+     */
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDTO> join(@Valid @RequestBody BookingDTO dto,
+                                                 @AuthenticationPrincipal Jwt jwt) {
+        try {
+            WaitlistEntryDTO entry = waitlistService.join(dto, jwt.getSubject(), jwt.getTokenValue());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(entry);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ResourceServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<WaitlistEntryDTO>> getMyEntries(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(waitlistService.getUserEntries(jwt.getSubject()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leave(@PathVariable(name = "id") Long id,
+                                      @AuthenticationPrincipal Jwt jwt) {
+        try {
+            return waitlistService.leave(id, jwt.getSubject())
+                    .map(entry -> ResponseEntity.noContent().<Void>build())
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            // Заявка уже забронирована, отменена или истекла
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
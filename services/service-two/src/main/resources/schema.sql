@@ -0,0 +1,133 @@
+-- Таблица bookings партиционирована по start_time (по месяцам).
+-- Скрипт выполняется целиком одним statement (см. spring.sql.init.separator) и идемпотентен:
+-- на новой БД создаёт партиционированную таблицу, на старой переносит данные из обычной.
+
+CREATE SCHEMA IF NOT EXISTS bookings_archive;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('public.bookings') AND relkind = 'r') THEN
+        ALTER TABLE bookings RENAME TO bookings_legacy;
+        -- Имена индекса PK и identity-последовательности освобождаем для новой таблицы
+        ALTER INDEX IF EXISTS bookings_pkey RENAME TO bookings_legacy_pkey;
+        ALTER SEQUENCE IF EXISTS bookings_id_seq RENAME TO bookings_legacy_id_seq;
+    END IF;
+
+    IF to_regclass('public.bookings') IS NULL THEN
+        CREATE TABLE bookings (
+            id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+            resource_id     BIGINT         NOT NULL,
+            user_id         VARCHAR(255)   NOT NULL,
+            start_time      TIMESTAMP(6)   NOT NULL,
+            end_time        TIMESTAMP(6)   NOT NULL,
+            total_price     NUMERIC(38, 2) NOT NULL,
+            status          VARCHAR(255)   NOT NULL,
+            notes           VARCHAR(1000),
+            hold_expires_at TIMESTAMP(6),
+            created_at      TIMESTAMP(6)   NOT NULL,
+            updated_at      TIMESTAMP(6)   NOT NULL,
+            PRIMARY KEY (id, start_time)
+        ) PARTITION BY RANGE (start_time);
+        CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+    END IF;
+END;
+$$;
+
+-- Создаёт месячную партицию. Если строки этого месяца уже попали в default-партицию,
+-- они переносятся в новую партицию перед ATTACH.
+CREATE OR REPLACE FUNCTION bookings_ensure_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::date;
+    to_date   DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    part_name TEXT := 'bookings_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass('public.' || part_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part_name);
+    EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE start_time >= %L AND start_time < %L RETURNING *) ' ||
+                   'INSERT INTO %I SELECT * FROM moved', from_date, to_date, part_name);
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   part_name, from_date, to_date);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Отсоединяет месячные партиции, закончившиеся до cutoff, и переносит их в схему bookings_archive.
+-- Партиции с активными (PENDING/CONFIRMED) бронями остаются на месте.
+CREATE OR REPLACE FUNCTION bookings_archive_partitions(cutoff DATE) RETURNS INTEGER AS $$
+DECLARE
+    part     RECORD;
+    active   BOOLEAN;
+    archived INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'public.bookings'::regclass
+          AND c.relname ~ '^bookings_p[0-9]{6}$'
+          AND to_date(substring(c.relname FROM 11), 'YYYYMM') + INTERVAL '1 month' <= cutoff
+    LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status IN (%L, %L))',
+                       part.relname, 'PENDING', 'CONFIRMED') INTO active;
+        IF NOT active THEN
+            EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', part.relname);
+            EXECUTE format('ALTER TABLE %I SET SCHEMA bookings_archive', part.relname);
+            archived := archived + 1;
+        END IF;
+    END LOOP;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    m DATE;
+BEGIN
+    IF to_regclass('public.bookings_legacy') IS NOT NULL THEN
+        FOR m IN SELECT DISTINCT date_trunc('month', start_time)::date FROM bookings_legacy LOOP
+            PERFORM bookings_ensure_partition(m);
+        END LOOP;
+        INSERT INTO bookings (id, resource_id, user_id, start_time, end_time, total_price,
+                              status, notes, created_at, updated_at)
+        SELECT id, resource_id, user_id, start_time, end_time, total_price,
+               status, notes, created_at, updated_at
+        FROM bookings_legacy;
+        PERFORM setval(pg_get_serial_sequence('bookings', 'id'),
+                       (SELECT COALESCE(MAX(id), 0) + 1 FROM bookings), false);
+        ALTER TABLE bookings_legacy SET SCHEMA bookings_archive;
+    END IF;
+    PERFORM bookings_ensure_partition(CURRENT_DATE);
+END;
+$$;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS hold_expires_at TIMESTAMP(6);
+
+-- Частичные индексы покрывают только активные брони, поэтому их размер не растёт с историей
+CREATE INDEX IF NOT EXISTS idx_bookings_conflicts ON bookings (resource_id, start_time)
+    WHERE status IN ('PENDING', 'CONFIRMED');
+CREATE INDEX IF NOT EXISTS idx_bookings_active_end ON bookings (end_time)
+    WHERE status IN ('PENDING', 'CONFIRMED');
+CREATE INDEX IF NOT EXISTS idx_bookings_pending_hold ON bookings (hold_expires_at)
+    WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_bookings_user ON bookings (user_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_resource ON bookings (resource_id);
+
+-- Лист ожидания. Частичный индекс покрывает только ожидающие заявки: по нему загружается индекс
+-- заявок в памяти и помечаются истёкшие
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    resource_id BIGINT         NOT NULL,
+    user_id     VARCHAR(255)   NOT NULL,
+    start_time  TIMESTAMP(6)   NOT NULL,
+    end_time    TIMESTAMP(6)   NOT NULL,
+    total_price NUMERIC(38, 2) NOT NULL,
+    status      VARCHAR(255)   NOT NULL,
+    notes       VARCHAR(1000),
+    booking_id  BIGINT,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6)   NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting ON waitlist_entries (start_time)
+    WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_waitlist_user ON waitlist_entries (user_id);